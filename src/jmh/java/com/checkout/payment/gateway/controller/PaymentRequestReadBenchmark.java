@@ -0,0 +1,75 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.configuration.PaymentRequestProperties;
+import com.checkout.payment.gateway.configuration.ValidationProperties;
+import com.checkout.payment.gateway.model.Currency;
+import com.checkout.payment.gateway.model.ProcessPaymentRequest;
+import com.checkout.payment.gateway.model.ValidatedPayment;
+import com.checkout.payment.gateway.service.PaymentMetrics;
+import com.checkout.payment.gateway.service.PaymentRequestValidatorService;
+import com.checkout.payment.gateway.support.BenchmarkData;
+import com.checkout.payment.gateway.utils.AmountUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * A POST /payment body from bytes to a validated payment: Jackson databind followed by bean
+ * validation and the validator service, as before, against {@link PaymentRequestMessageConverter}.
+ * Compare time and gc.alloc.rate.norm between the two.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PaymentRequestReadBenchmark {
+
+  private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+  private final ObjectReader requestReader = mapper.readerFor(ProcessPaymentRequest.class);
+  private final Validator beanValidator =
+      Validation.buildDefaultValidatorFactory().getValidator();
+  private final PaymentRequestValidatorService validator =
+      new PaymentRequestValidatorService(new ValidationProperties(false));
+  private final PaymentRequestMessageConverter converter = new PaymentRequestMessageConverter(
+      mapper.getFactory(), validator, new PaymentRequestProperties(DataSize.ofKilobytes(16)),
+      new PaymentMetrics(new SimpleMeterRegistry()));
+  private final byte[] requestJson = BenchmarkData.REQUEST_JSON.getBytes(StandardCharsets.UTF_8);
+
+  @Benchmark
+  public ValidatedPayment databindAndValidate() throws IOException {
+    ProcessPaymentRequest request = requestReader.readValue(requestJson);
+    if (!beanValidator.validate(request).isEmpty()) {
+      throw new ConstraintViolationException(beanValidator.validate(request));
+    }
+    validator.validate(request);
+    Currency currency = Currency.fromCode(request.getCurrency());
+    return new ValidatedPayment(request.getCardNumber(), request.getExpiryMonth(),
+        request.getExpiryYear(), currency, AmountUtil.toMinorUnits(request.getAmount(), currency),
+        request.getCvv());
+  }
+
+  @Benchmark
+  public ValidatedPayment streaming() throws IOException {
+    return converter.read(new ByteArrayInputStream(requestJson));
+  }
+}
@@ -0,0 +1,120 @@
+package com.checkout.payment.gateway.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.checkout.payment.gateway.model.ProcessPaymentRequest;
+import com.checkout.payment.gateway.support.BenchmarkData;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost to a request thread of logging one payment line, writing straight to a file appender
+ * ({@code sync}) against enqueueing on {@link CountingAsyncAppender} in front of the same file
+ * ({@code async}). Async throughput includes events dropped once the writer falls behind; JMH
+ * reports how many as the {@code droppedEvents} secondary result.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class PaymentLoggingBenchmark {
+
+  @Param({"sync", "async"})
+  public String mode;
+
+  private final ProcessPaymentRequest request = BenchmarkData.request();
+  private LoggerContext context;
+  private Logger logger;
+  private CountingAsyncAppender async;
+  private Path file;
+  private final AtomicLong claimedDrops = new AtomicLong();
+
+  @Setup
+  public void createLogger() throws IOException {
+    context = new LoggerContext();
+    file = Files.createTempFile("payment-logging", ".log");
+
+    PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+    encoder.setContext(context);
+    encoder.setPattern("%d %5p [%t] %logger{39} : %m%n");
+    encoder.start();
+    FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+    fileAppender.setContext(context);
+    fileAppender.setFile(file.toString());
+    fileAppender.setEncoder(encoder);
+    fileAppender.start();
+
+    Appender<ILoggingEvent> appender = fileAppender;
+    if (mode.equals("async")) {
+      async = new CountingAsyncAppender();
+      async.setContext(context);
+      async.setQueueSize(8192);
+      async.addAppender(fileAppender);
+      async.start();
+      appender = async;
+    }
+    logger = context.getLogger("com.checkout.payment.gateway.service.PaymentGatewayService");
+    logger.setAdditive(false);
+    logger.addAppender(appender);
+  }
+
+  @TearDown
+  public void stop() throws IOException {
+    context.stop();
+    Files.deleteIfExists(file);
+  }
+
+  @Benchmark
+  public void logPayment(Drops drops) {
+    logger.info("Processing payment {}", request);
+  }
+
+  private long claimDrops() {
+    if (async == null) {
+      return 0;
+    }
+    long total = async.droppedCount();
+    return Math.max(0, total - claimedDrops.getAndAccumulate(total, Math::max));
+  }
+
+  /**
+   * Each thread takes the drops counted since the last thread did, so the per-thread counters JMH
+   * sums add up to the drops in the iteration.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Drops {
+
+    public long droppedEvents;
+
+    @TearDown(Level.Iteration)
+    public void claim(PaymentLoggingBenchmark benchmark) {
+      droppedEvents = benchmark.claimDrops();
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.support.BenchmarkData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Request body binding and response writing as Spring MVC does them, with the mapper built the
+ * way Spring Boot builds it.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PaymentJsonBenchmark {
+
+  private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+  private final ObjectReader requestReader = mapper.readerFor(ProcessPaymentRequest.class);
+  private final ObjectWriter responseWriter = mapper.writerFor(PostPaymentResponse.class);
+  private final byte[] requestJson = BenchmarkData.REQUEST_JSON.getBytes(StandardCharsets.UTF_8);
+  private final PostPaymentResponse payment = BenchmarkData.payment(UUID.randomUUID());
+
+  @Benchmark
+  public ProcessPaymentRequest readRequest() throws IOException {
+    return requestReader.readValue(requestJson);
+  }
+
+  @Benchmark
+  public byte[] writeResponse() throws IOException {
+    return responseWriter.writeValueAsBytes(payment);
+  }
+}
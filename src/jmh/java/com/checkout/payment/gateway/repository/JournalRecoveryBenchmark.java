@@ -0,0 +1,90 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.configuration.PaymentJournalProperties;
+import com.checkout.payment.gateway.configuration.PaymentSearchProperties;
+import com.checkout.payment.gateway.configuration.PaymentsRepositoryProperties;
+import com.checkout.payment.gateway.enums.EvictionPolicy;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Time to rebuild the store and the search index from a journal of {@code records} payments, i.e.
+ * the startup cost of payments.repository.type=journal.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx1g", "-XX:MaxDirectMemorySize=2g"})
+@State(Scope.Benchmark)
+public class JournalRecoveryBenchmark {
+
+  @Param("10000000")
+  private int records;
+
+  private Path directory;
+
+  @Setup(Level.Trial)
+  public void writeJournal() throws IOException {
+    directory = Files.createTempDirectory("journal-recovery");
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCardNumberLastFour(4242);
+    payment.setExpiryMonth(12);
+    payment.setExpiryYear(27);
+    payment.setCurrency("GBP");
+    try (JournaledPaymentsRepository repository = open(false)) {
+      for (int i = 0; i < records; i++) {
+        payment.setId(UUID.randomUUID());
+        payment.setAmount(i + 1);
+        repository.add(payment);
+      }
+    }
+  }
+
+  @Benchmark
+  public long recover() {
+    try (JournaledPaymentsRepository repository = open(true)) {
+      return repository.size();
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteJournal() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  private JournaledPaymentsRepository open(boolean fsync) {
+    return new JournaledPaymentsRepository(
+        new PaymentsRepositoryProperties(records, EvictionPolicy.SIZE, Duration.ofDays(1), 64),
+        new PaymentJournalProperties(directory.toString(), DataSize.ofMegabytes(256), fsync),
+        new PaymentSearchIndex(new PaymentSearchProperties(Duration.ofMinutes(1),
+            Duration.ofDays(1), 100, 1000, records)));
+  }
+}
@@ -0,0 +1,80 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.configuration.PaymentsRepositoryProperties;
+import com.checkout.payment.gateway.enums.EvictionPolicy;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.support.BenchmarkData;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * The body of GET /payment/{id}: looking the payment up and mapping it with Jackson, as the
+ * endpoint used to, against reading the JSON the repository encoded at write time.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:MaxDirectMemorySize=1g")
+@Threads(4)
+@State(Scope.Benchmark)
+public class PaymentReadBenchmark {
+
+  private static final int PREFILLED = 100_000;
+
+  @Param({"in-memory", "off-heap"})
+  private String type;
+
+  private final ObjectWriter writer = Jackson2ObjectMapperBuilder.json().build()
+      .writerFor(PostPaymentResponse.class);
+  private PaymentsRepository repository;
+  private UUID[] ids;
+
+  @Setup(Level.Trial)
+  public void fill() {
+    PaymentsRepositoryProperties properties = new PaymentsRepositoryProperties(
+        PREFILLED * 2, EvictionPolicy.LRU, Duration.ofHours(24), 64);
+    repository = switch (type) {
+      case "in-memory" -> new InMemoryPaymentsRepository(properties);
+      case "off-heap" -> new OffHeapPaymentsRepository(properties);
+      default -> throw new IllegalArgumentException(type);
+    };
+    ids = new UUID[PREFILLED];
+    for (int i = 0; i < PREFILLED; i++) {
+      ids[i] = UUID.randomUUID();
+      repository.add(BenchmarkData.payment(ids[i]));
+    }
+  }
+
+  @Benchmark
+  public byte[] objectMapping() throws IOException {
+    return writer.writeValueAsBytes(repository.get(randomId()).orElseThrow());
+  }
+
+  @Benchmark
+  public byte[] preEncoded() {
+    return repository.getJson(randomId()).orElseThrow();
+  }
+
+  private UUID randomId() {
+    return ids[ThreadLocalRandom.current().nextInt(PREFILLED)];
+  }
+}
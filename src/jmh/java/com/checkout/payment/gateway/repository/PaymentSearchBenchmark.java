@@ -0,0 +1,93 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.configuration.PaymentSearchProperties;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.Currency;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentSearchIndex.Page;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One page of GET /payments over a day of two million payments: a status, currency and one-hour
+ * filter answered from {@link PaymentSearchIndex}, against filtering every stored payment as a
+ * scan of the primary store would.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PaymentSearchBenchmark {
+
+  private static final int PAYMENTS = 2_000_000;
+  private static final int LIMIT = 100;
+  private static final long START_MILLIS = 1_767_225_600_000L;
+  private static final long DAY_MILLIS = Duration.ofDays(1).toMillis();
+  private static final long FROM = START_MILLIS + Duration.ofHours(12).toMillis();
+  private static final long TO = FROM + Duration.ofHours(1).toMillis();
+
+  private PaymentSearchIndex index;
+  private PostPaymentResponse[] payments;
+  private long[] storedAt;
+
+  @Setup(Level.Trial)
+  public void fill() {
+    AtomicLong clock = new AtomicLong(START_MILLIS);
+    index = new PaymentSearchIndex(
+        new PaymentSearchProperties(Duration.ofMinutes(1), Duration.ofDays(2), LIMIT, 1000,
+            PAYMENTS), clock::get);
+    payments = new PostPaymentResponse[PAYMENTS];
+    storedAt = new long[PAYMENTS];
+    Currency[] currencies = Currency.values();
+    for (int i = 0; i < PAYMENTS; i++) {
+      clock.set(START_MILLIS + DAY_MILLIS * i / PAYMENTS);
+      PostPaymentResponse payment = new PostPaymentResponse();
+      payment.setId(UUID.randomUUID());
+      // roughly the gateway's mix: mostly authorised
+      payment.setStatus(i % 10 == 0 ? PaymentStatus.DECLINED : PaymentStatus.AUTHORIZED);
+      payment.setCurrency(currencies[i % currencies.length].getCode());
+      payments[i] = payment;
+      storedAt[i] = clock.get();
+      index.add(payment);
+    }
+  }
+
+  @Benchmark
+  public Page indexed() {
+    return index.search(FROM, TO, PaymentStatus.DECLINED, Currency.EUR, null, LIMIT);
+  }
+
+  @Benchmark
+  public List<UUID> scan() {
+    List<UUID> ids = new ArrayList<>(LIMIT);
+    for (int i = 0; i < PAYMENTS; i++) {
+      PostPaymentResponse payment = payments[i];
+      if (storedAt[i] >= FROM && storedAt[i] < TO
+          && payment.getStatus() == PaymentStatus.DECLINED
+          && Currency.EUR.getCode().equals(payment.getCurrency())) {
+        ids.add(payment.getId());
+        if (ids.size() == LIMIT) {
+          break;
+        }
+      }
+    }
+    return ids;
+  }
+}
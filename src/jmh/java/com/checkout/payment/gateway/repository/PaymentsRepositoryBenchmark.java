@@ -0,0 +1,100 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.configuration.PaymentsRepositoryProperties;
+import com.checkout.payment.gateway.enums.EvictionPolicy;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.support.BenchmarkData;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * add/get on a shared, pre-filled repository from several threads at once. {@code mixed} runs
+ * three readers against one writer in the same trial, the shape of production traffic. Writers draw
+ * from a fixed pool of new ids so the off-heap store, which never evicts, stays bounded: early adds
+ * insert, later ones overwrite.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-XX:MaxDirectMemorySize=1g")
+@State(Scope.Benchmark)
+public class PaymentsRepositoryBenchmark {
+
+  private static final int PREFILLED = 100_000;
+  private static final int WRITE_POOL = 1 << 20;
+
+  @Param({"in-memory", "off-heap"})
+  private String type;
+
+  private PaymentsRepository repository;
+  private UUID[] ids;
+  private UUID[] writeIds;
+
+  @Setup(Level.Trial)
+  public void fill() {
+    PaymentsRepositoryProperties properties = new PaymentsRepositoryProperties(
+        PREFILLED * 4, EvictionPolicy.LRU, Duration.ofHours(24), 64);
+    repository = switch (type) {
+      case "in-memory" -> new InMemoryPaymentsRepository(properties);
+      case "off-heap" -> new OffHeapPaymentsRepository(properties);
+      default -> throw new IllegalArgumentException(type);
+    };
+    ids = new UUID[PREFILLED];
+    for (int i = 0; i < PREFILLED; i++) {
+      ids[i] = UUID.randomUUID();
+      repository.add(BenchmarkData.payment(ids[i]));
+    }
+    writeIds = new UUID[WRITE_POOL];
+    for (int i = 0; i < WRITE_POOL; i++) {
+      writeIds[i] = UUID.randomUUID();
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public Optional<PostPaymentResponse> get() {
+    return repository.get(ids[ThreadLocalRandom.current().nextInt(PREFILLED)]);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public PostPaymentResponse add() {
+    PostPaymentResponse payment = BenchmarkData.payment(
+        writeIds[ThreadLocalRandom.current().nextInt(WRITE_POOL)]);
+    repository.add(payment);
+    return payment;
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(3)
+  public Optional<PostPaymentResponse> mixedGet() {
+    return get();
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(1)
+  public PostPaymentResponse mixedAdd() {
+    return add();
+  }
+}
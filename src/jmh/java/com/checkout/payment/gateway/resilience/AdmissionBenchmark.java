@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.resilience;
+
+import com.checkout.payment.gateway.configuration.BankRetryProperties;
+import com.checkout.payment.gateway.configuration.BankRetryProperties.Budget;
+import com.checkout.payment.gateway.configuration.ConcurrencyLimitProperties;
+import com.checkout.payment.gateway.configuration.RateLimitProperties;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What admission adds to each payment from 32 threads at once: a permit, an RTT sample and a
+ * release from the concurrency limiter, a token from the per-merchant rate limiter, and the
+ * retry budget's deposit with one call in ten failing and asking it for a retry.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class AdmissionBenchmark {
+
+  private static final String[] MERCHANTS = {"acme", "globex", "initech", "umbrella", "hooli"};
+
+  private final ConcurrencyLimiter concurrencyLimiter = new ConcurrencyLimiter(
+      new ConcurrencyLimitProperties(true, 100, 10, 150, 1.5, 0.2, 600, 0.9));
+  // generous enough that every request is admitted
+  private final MerchantRateLimiter rateLimiter = new MerchantRateLimiter(
+      new RateLimitProperties(true, "Merchant-Id", 1_000_000_000, 1_000_000, 10_000));
+  private final RetryPolicy retryPolicy = new RetryPolicy(new BankRetryProperties(true, 3,
+      Duration.ofMillis(20), Duration.ofMillis(500), Duration.ofSeconds(2),
+      new Budget(10, 5, 20)));
+
+  @Benchmark
+  public boolean concurrencyLimit() {
+    if (!concurrencyLimiter.tryAcquire()) {
+      return false;
+    }
+    concurrencyLimiter.onSuccess(20_000_000 + ThreadLocalRandom.current().nextInt(1_000_000));
+    concurrencyLimiter.release();
+    return true;
+  }
+
+  @Benchmark
+  public long rateLimit() {
+    return rateLimiter.tryAcquire(MERCHANTS[ThreadLocalRandom.current().nextInt(MERCHANTS.length)]);
+  }
+
+  @Benchmark
+  public long retryBudget() {
+    retryPolicy.onCall();
+    if (ThreadLocalRandom.current().nextInt(10) != 0) {
+      return 0;
+    }
+    return retryPolicy.backoff(1, System.nanoTime());
+  }
+}
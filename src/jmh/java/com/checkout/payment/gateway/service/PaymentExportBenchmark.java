@@ -0,0 +1,77 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.configuration.PaymentSearchProperties;
+import com.checkout.payment.gateway.configuration.PaymentsRepositoryProperties;
+import com.checkout.payment.gateway.enums.EvictionPolicy;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.repository.PaymentSearchIndex;
+import com.checkout.payment.gateway.service.PaymentSearchService.PaymentFilter;
+import com.checkout.payment.gateway.support.BenchmarkData;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * GET /payments/export of 100,000 payments into a sink, plain and gzipped. With the GC profiler,
+ * {@code gc.alloc.rate.norm} divided by the payment count is the per-record cost; it should not
+ * grow with the number of payments.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentExportBenchmark {
+
+  private static final int PAYMENTS = 100_000;
+
+  private PaymentSearchService service;
+  private PaymentFilter filter;
+
+  @Setup(Level.Trial)
+  public void fill() {
+    PaymentSearchProperties properties =
+        new PaymentSearchProperties(Duration.ofMinutes(1), Duration.ofHours(24), 100, 1000,
+            PAYMENTS);
+    PaymentsRepositoryProperties repositoryProperties = new PaymentsRepositoryProperties(
+        PAYMENTS * 2, EvictionPolicy.LRU, Duration.ofHours(24), 64);
+    InMemoryPaymentsRepository repository = new InMemoryPaymentsRepository(repositoryProperties);
+    PaymentSearchIndex index = new PaymentSearchIndex(properties);
+    for (int i = 0; i < PAYMENTS; i++) {
+      PostPaymentResponse payment = BenchmarkData.payment(UUID.randomUUID());
+      repository.add(payment);
+      index.add(payment);
+    }
+    service = new PaymentSearchService(index, repository, properties);
+    filter = service.filter(null, null, null, null);
+  }
+
+  @Benchmark
+  public long plain() throws IOException {
+    return service.export(filter, OutputStream.nullOutputStream());
+  }
+
+  @Benchmark
+  public long gzip() throws IOException {
+    GZIPOutputStream out = new GZIPOutputStream(OutputStream.nullOutputStream(), 8192);
+    long written = service.export(filter, out);
+    out.finish();
+    return written;
+  }
+}
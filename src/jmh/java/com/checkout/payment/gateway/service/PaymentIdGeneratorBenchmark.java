@@ -0,0 +1,41 @@
+package com.checkout.payment.gateway.service;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Id generation from 32 threads at once, where {@code UUID.randomUUID()} queues on its shared
+ * {@code SecureRandom} and the time-ordered generator spreads threads over buffered ones.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(32)
+@State(Scope.Benchmark)
+public class PaymentIdGeneratorBenchmark {
+
+  private final PaymentIdGenerator random = new RandomPaymentIdGenerator();
+  private final PaymentIdGenerator timeOrdered = new TimeOrderedPaymentIdGenerator();
+
+  @Benchmark
+  public UUID randomUuid() {
+    return random.nextId();
+  }
+
+  @Benchmark
+  public UUID timeOrdered() {
+    return timeOrdered.nextId();
+  }
+}
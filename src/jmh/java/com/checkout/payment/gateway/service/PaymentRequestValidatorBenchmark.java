@@ -0,0 +1,69 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.configuration.ValidationProperties;
+import com.checkout.payment.gateway.exception.ValidationException;
+import com.checkout.payment.gateway.model.ProcessPaymentRequest;
+import com.checkout.payment.gateway.support.BenchmarkData;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Valid requests against the common rejections, which should cost about the same: a single bad
+ * field is thrown as a shared stackless exception.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PaymentRequestValidatorBenchmark {
+
+  private final PaymentRequestValidatorService validator =
+      new PaymentRequestValidatorService(new ValidationProperties(true));
+  private final ProcessPaymentRequest request = BenchmarkData.request();
+  private final ProcessPaymentRequest invalidCvv = BenchmarkData.request();
+  private final ProcessPaymentRequest invalidCvvAndCurrency = BenchmarkData.request();
+
+  @Setup
+  public void invalidate() {
+    invalidCvv.setCvv("12");
+    invalidCvvAndCurrency.setCvv("12");
+    invalidCvvAndCurrency.setCurrency("ZAR");
+  }
+
+  @Benchmark
+  public ProcessPaymentRequest validate() {
+    validator.validate(request);
+    return request;
+  }
+
+  @Benchmark
+  public ValidationException rejectOneField() {
+    try {
+      validator.validate(invalidCvv);
+      return null;
+    } catch (ValidationException ex) {
+      return ex;
+    }
+  }
+
+  @Benchmark
+  public ValidationException rejectTwoFields() {
+    try {
+      validator.validate(invalidCvvAndCurrency);
+      return null;
+    } catch (ValidationException ex) {
+      return ex;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.configuration.PaymentSearchProperties;
+import com.checkout.payment.gateway.configuration.PaymentsRepositoryProperties;
+import com.checkout.payment.gateway.configuration.ValidationProperties;
+import com.checkout.payment.gateway.enums.EvictionPolicy;
+import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentRequest;
+import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentResponse;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.model.ProcessPaymentRequest;
+import com.checkout.payment.gateway.repository.InMemoryPaymentsRepository;
+import com.checkout.payment.gateway.repository.PaymentSearchIndex;
+import com.checkout.payment.gateway.support.BenchmarkData;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+/**
+ * Gateway overhead per payment: validate, convert, map and store, with a bank that answers
+ * immediately so only our own code is measured. {@code metrics=false} registers the stage timers
+ * in a registry with no backends, which is the cost of the pipeline without instrumentation.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProcessPaymentBenchmark {
+
+  @Param({"true", "false"})
+  public boolean metrics;
+
+  private PaymentGatewayService service;
+  private final ProcessPaymentRequest request = BenchmarkData.request();
+
+  @Setup
+  public void createService() {
+    AcquiringBankService bank = new AcquiringBankService(null, null, null, null, null, null) {
+      @Override
+      public Mono<BankPaymentResponse> authorise(BankPaymentRequest request) {
+        return Mono.just(new BankPaymentResponse(true, UUID.randomUUID().toString()));
+      }
+    };
+    // sized so the store evicts steadily instead of growing for the whole run
+    PaymentsRepositoryProperties repositoryProperties =
+        new PaymentsRepositoryProperties(100_000, EvictionPolicy.SIZE, Duration.ofHours(24), 64);
+    InMemoryPaymentsRepository repository = new InMemoryPaymentsRepository(repositoryProperties);
+    service = new PaymentGatewayService(repository, bank,
+        new PaymentRequestValidatorService(new ValidationProperties(true)),
+        new PaymentMetrics(metrics ? new SimpleMeterRegistry() : new CompositeMeterRegistry()),
+        new TimeOrderedPaymentIdGenerator(),
+        // a short retention keeps the search index from growing for the whole run, like the store
+        new PaymentSearchIndex(new PaymentSearchProperties(Duration.ofSeconds(1),
+            Duration.ofSeconds(10), 100, 1000, 100_000)));
+  }
+
+  @Benchmark
+  public PostPaymentResponse processPayment() {
+    return service.processPayment(request).block();
+  }
+
+  @Benchmark
+  public PostPaymentResponse processPaymentBlocking() {
+    return service.processPaymentBlocking(request);
+  }
+}
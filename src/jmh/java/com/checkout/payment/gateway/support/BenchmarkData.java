@@ -0,0 +1,40 @@
+package com.checkout.payment.gateway.support;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.model.ProcessPaymentRequest;
+import java.util.UUID;
+
+/** Representative payloads shared by the benchmarks, valid against the current validator. */
+public final class BenchmarkData {
+
+  public static final String REQUEST_JSON = """
+      {"card_number":"2222405343248877","expiry_month":4,"expiry_year":39,\
+      "currency":"GBP","amount":"10.60","cvv":"123"}""";
+
+  private BenchmarkData() {
+  }
+
+  public static ProcessPaymentRequest request() {
+    ProcessPaymentRequest request = new ProcessPaymentRequest();
+    request.setCardNumber("2222405343248877");
+    request.setExpiryMonth(4);
+    request.setExpiryYear(39);
+    request.setCurrency("GBP");
+    request.setAmount("10.60");
+    request.setCvv("123");
+    return request;
+  }
+
+  public static PostPaymentResponse payment(UUID id) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(id);
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCardNumberLastFour(8877);
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(39);
+    payment.setCurrency("GBP");
+    payment.setAmount(1060);
+    return payment;
+  }
+}
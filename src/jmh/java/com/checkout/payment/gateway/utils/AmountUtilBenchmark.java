@@ -0,0 +1,62 @@
+package com.checkout.payment.gateway.utils;
+
+import com.checkout.payment.gateway.exception.AmountArgumentException;
+import com.checkout.payment.gateway.model.Currency;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code bigDecimal} is the BigDecimal conversion AmountUtil used before AmountParser, kept as the
+ * baseline; {@code parser} should show no allocation in gc.alloc.rate.norm.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AmountUtilBenchmark {
+
+  @Param({"10", "10.60", "0.01", "123456.78"})
+  private String amount;
+
+  @Benchmark
+  public int toMinorUnits() {
+    return AmountUtil.toMinorUnits(amount, Currency.GBP);
+  }
+
+  @Benchmark
+  public AmountArgumentException rejectInvalid() {
+    try {
+      AmountUtil.toMinorUnits("10.605", Currency.GBP);
+      return null;
+    } catch (AmountArgumentException ex) {
+      return ex;
+    }
+  }
+
+  @Benchmark
+  public long parser() {
+    return AmountParser.parse(amount, 2);
+  }
+
+  @Benchmark
+  public int bigDecimal() {
+    BigDecimal value = new BigDecimal(amount.trim());
+    if (value.signum() <= 0 || value.scale() > 2) {
+      throw new IllegalArgumentException(amount);
+    }
+    return value.movePointRight(2).setScale(0, RoundingMode.UNNECESSARY).intValueExact();
+  }
+}
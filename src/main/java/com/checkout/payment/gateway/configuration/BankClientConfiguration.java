@@ -0,0 +1,53 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.configuration.BankClientProperties.Pool;
+import com.checkout.payment.gateway.service.BankPaymentRequestEncoder;
+import com.checkout.payment.gateway.service.BankPaymentResponseDecoder;
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+public class BankClientConfiguration {
+
+  /**
+   * Dedicated pool for the acquiring bank. With metrics enabled Reactor Netty publishes
+   * reactor.netty.connection.provider.{active,idle,pending,total,max}.connections and the
+   * pending.connections.time acquire timer, tagged name=acquiring-bank.
+   */
+  @Bean(destroyMethod = "dispose")
+  public ConnectionProvider bankConnectionProvider(BankClientProperties properties) {
+    Pool pool = properties.pool();
+    return ConnectionProvider.builder("acquiring-bank")
+        .maxConnections(pool.maxConnections())
+        .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+        .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+        .maxIdleTime(pool.maxIdleTime())
+        .maxLifeTime(pool.maxLifeTime())
+        .evictInBackground(pool.evictionInterval())
+        .metrics(true)
+        .build();
+  }
+
+  @Bean
+  public WebClient acquiringBankWebClient(WebClient.Builder builder,
+      ConnectionProvider bankConnectionProvider, BankClientProperties properties) {
+    HttpClient httpClient = HttpClient.create(bankConnectionProvider)
+        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.connectTimeout().toMillis())
+        .option(ChannelOption.SO_KEEPALIVE, true)
+        .responseTimeout(properties.responseTimeout());
+    return builder
+        .baseUrl(properties.baseUrl())
+        .clientConnector(new ReactorClientHttpConnector(httpClient))
+        // checked before Jackson, which is left registered for anything else
+        .codecs(codecs -> {
+          codecs.customCodecs().register(new BankPaymentRequestEncoder());
+          codecs.customCodecs().register(new BankPaymentResponseDecoder());
+        })
+        .build();
+  }
+}
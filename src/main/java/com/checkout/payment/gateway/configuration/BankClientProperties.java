@@ -0,0 +1,25 @@
+package com.checkout.payment.gateway.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "acquiring.bank")
+public record BankClientProperties(
+    String baseUrl,
+    @DefaultValue("2s") Duration connectTimeout,
+    @DefaultValue("10s") Duration responseTimeout,
+    @DefaultValue Pool pool
+) {
+
+  public record Pool(
+      @DefaultValue("200") int maxConnections,
+      @DefaultValue("1000") int pendingAcquireMaxCount,
+      @DefaultValue("2s") Duration pendingAcquireTimeout,
+      @DefaultValue("30s") Duration maxIdleTime,
+      @DefaultValue("5m") Duration maxLifeTime,
+      @DefaultValue("30s") Duration evictionInterval
+  ) {
+
+  }
+}
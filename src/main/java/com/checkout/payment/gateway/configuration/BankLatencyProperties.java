@@ -0,0 +1,33 @@
+package com.checkout.payment.gateway.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "acquiring.bank.latency")
+public record BankLatencyProperties(
+    @DefaultValue("60s") Duration window,
+    @DefaultValue("6") int windowSlices,
+    @DefaultValue("100") int minimumSamples,
+    @DefaultValue Timeout timeout,
+    @DefaultValue Hedging hedging
+) {
+
+  public record Timeout(
+      @DefaultValue("true") boolean adaptive,
+      @DefaultValue("0.99") double percentile,
+      @DefaultValue("3") double multiplier,
+      @DefaultValue("500ms") Duration min,
+      @DefaultValue("10s") Duration max
+  ) {
+
+  }
+
+  public record Hedging(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue("0.95") double percentile,
+      @DefaultValue("20ms") Duration minDelay
+  ) {
+
+  }
+}
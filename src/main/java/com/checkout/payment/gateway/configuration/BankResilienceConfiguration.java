@@ -0,0 +1,138 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.resilience.Bulkhead;
+import com.checkout.payment.gateway.resilience.CircuitBreaker;
+import com.checkout.payment.gateway.resilience.CircuitBreaker.State;
+import com.checkout.payment.gateway.resilience.ConcurrencyLimiter;
+import com.checkout.payment.gateway.resilience.LatencyPolicy;
+import com.checkout.payment.gateway.resilience.LatencyTracker;
+import com.checkout.payment.gateway.resilience.RetryPolicy;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.Locale;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class BankResilienceConfiguration {
+
+  @Bean
+  public CircuitBreaker bankCircuitBreaker(CircuitBreakerProperties properties) {
+    return new CircuitBreaker(properties);
+  }
+
+  @Bean
+  public Bulkhead bankBulkhead(BulkheadProperties properties) {
+    return new Bulkhead(properties);
+  }
+
+  @Bean
+  public ConcurrencyLimiter bankConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+    return new ConcurrencyLimiter(properties);
+  }
+
+  @Bean
+  public RetryPolicy bankRetryPolicy(BankRetryProperties properties) {
+    return new RetryPolicy(properties);
+  }
+
+  @Bean
+  public LatencyPolicy bankLatencyPolicy(BankLatencyProperties properties) {
+    return new LatencyPolicy(properties,
+        new LatencyTracker(properties.window(), properties.windowSlices()));
+  }
+
+  @Bean
+  public MeterBinder bankLatencyMetrics(LatencyPolicy latencyPolicy) {
+    return registry -> {
+      for (double percentile : new double[]{0.5, 0.95, 0.99}) {
+        Gauge.builder("acquiring.bank.latency", latencyPolicy,
+                policy -> millis(policy.tracker().percentile(percentile)))
+            .tag("percentile", Double.toString(percentile))
+            .baseUnit("milliseconds")
+            .register(registry);
+      }
+      Gauge.builder("acquiring.bank.timeout", latencyPolicy, policy -> millis(policy.timeout()))
+          .baseUnit("milliseconds")
+          .register(registry);
+      Gauge.builder("acquiring.bank.hedge.delay", latencyPolicy,
+              policy -> millis(policy.hedgeDelay()))
+          .baseUnit("milliseconds")
+          .register(registry);
+      FunctionCounter.builder("acquiring.bank.timeouts", latencyPolicy,
+          LatencyPolicy::timeoutCount).register(registry);
+      FunctionCounter.builder("acquiring.bank.hedges", latencyPolicy,
+          LatencyPolicy::hedgeCount).register(registry);
+      FunctionCounter.builder("acquiring.bank.hedge.wins", latencyPolicy,
+          LatencyPolicy::hedgeWinCount).register(registry);
+    };
+  }
+
+  @Bean
+  public MeterBinder bankResilienceMetrics(CircuitBreaker circuitBreaker, Bulkhead bulkhead,
+      ConcurrencyLimiter concurrencyLimiter, RetryPolicy retryPolicy) {
+    return registry -> {
+      for (State state : State.values()) {
+        Gauge.builder("acquiring.bank.circuit.state", circuitBreaker,
+                breaker -> breaker.state() == state ? 1 : 0)
+            .tag("state", tagValue(state))
+            .register(registry);
+      }
+      bindTransition(registry, circuitBreaker, State.CLOSED, State.OPEN);
+      bindTransition(registry, circuitBreaker, State.OPEN, State.HALF_OPEN);
+      bindTransition(registry, circuitBreaker, State.HALF_OPEN, State.CLOSED);
+      bindTransition(registry, circuitBreaker, State.HALF_OPEN, State.OPEN);
+      FunctionCounter.builder("acquiring.bank.circuit.rejected", circuitBreaker,
+          CircuitBreaker::rejectedCount).register(registry);
+      Gauge.builder("acquiring.bank.circuit.failure.rate", circuitBreaker,
+          CircuitBreaker::failureRate).register(registry);
+      Gauge.builder("acquiring.bank.circuit.slow.call.rate", circuitBreaker,
+          CircuitBreaker::slowCallRate).register(registry);
+
+      Gauge.builder("acquiring.bank.bulkhead.active", bulkhead, Bulkhead::activeCalls)
+          .register(registry);
+      Gauge.builder("acquiring.bank.bulkhead.max", bulkhead, Bulkhead::maxConcurrentCalls)
+          .register(registry);
+      FunctionCounter.builder("acquiring.bank.bulkhead.rejected", bulkhead,
+          Bulkhead::rejectedCount).register(registry);
+
+      Gauge.builder("acquiring.bank.concurrency.limit", concurrencyLimiter,
+          ConcurrencyLimiter::limit).register(registry);
+      Gauge.builder("acquiring.bank.concurrency.inflight", concurrencyLimiter,
+          ConcurrencyLimiter::inFlight).register(registry);
+      FunctionCounter.builder("acquiring.bank.concurrency.shed", concurrencyLimiter,
+          ConcurrencyLimiter::shedCount).register(registry);
+      FunctionCounter.builder("acquiring.bank.concurrency.drops", concurrencyLimiter,
+          ConcurrencyLimiter::dropCount).register(registry);
+
+      FunctionCounter.builder("acquiring.bank.retries", retryPolicy,
+          RetryPolicy::retryCount).register(registry);
+      FunctionCounter.builder("acquiring.bank.retry.budget.exhausted", retryPolicy,
+          RetryPolicy::budgetExhaustedCount).register(registry);
+      FunctionCounter.builder("acquiring.bank.retry.deadline.exceeded", retryPolicy,
+          RetryPolicy::deadlineExceededCount).register(registry);
+      Gauge.builder("acquiring.bank.retry.budget.available", retryPolicy,
+          RetryPolicy::available).register(registry);
+    };
+  }
+
+  private static void bindTransition(MeterRegistry registry,
+      CircuitBreaker circuitBreaker, State from, State to) {
+    FunctionCounter.builder("acquiring.bank.circuit.transitions", circuitBreaker,
+            breaker -> breaker.transitionCount(from, to))
+        .tag("from", tagValue(from))
+        .tag("to", tagValue(to))
+        .register(registry);
+  }
+
+  private static double millis(Duration duration) {
+    return duration == null ? Double.NaN : duration.toNanos() / 1_000_000.0;
+  }
+
+  private static String tagValue(State state) {
+    return state.name().toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,24 @@
+package com.checkout.payment.gateway.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "acquiring.bank.retry")
+public record BankRetryProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("3") int maxAttempts,
+    @DefaultValue("20ms") Duration baseDelay,
+    @DefaultValue("500ms") Duration maxDelay,
+    @DefaultValue("2s") Duration deadline,
+    @DefaultValue Budget budget
+) {
+
+  public record Budget(
+      @DefaultValue("10") double percent,
+      @DefaultValue("5") double minPerSecond,
+      @DefaultValue("20") int burst
+  ) {
+
+  }
+}
@@ -0,0 +1,18 @@
+package com.checkout.payment.gateway.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * {@code maxBodySize} bounds a whole POST /payments/batch body, since its items are bound by
+ * Jackson rather than read under {@code payments.request.max-body-size}.
+ */
+@ConfigurationProperties(prefix = "payments.batch")
+public record BatchProperties(
+    @DefaultValue("16") int parallelism,
+    @DefaultValue("500") int maxSize,
+    @DefaultValue("1MB") DataSize maxBodySize
+) {
+
+}
@@ -0,0 +1,11 @@
+package com.checkout.payment.gateway.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "acquiring.bank.bulkhead")
+public record BulkheadProperties(
+    @DefaultValue("150") int maxConcurrentCalls
+) {
+
+}
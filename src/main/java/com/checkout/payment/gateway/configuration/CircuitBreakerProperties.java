@@ -0,0 +1,19 @@
+package com.checkout.payment.gateway.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "acquiring.bank.circuit-breaker")
+public record CircuitBreakerProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("100") int slidingWindowSize,
+    @DefaultValue("20") int minimumCalls,
+    @DefaultValue("50") int failureRateThreshold,
+    @DefaultValue("80") int slowCallRateThreshold,
+    @DefaultValue("2s") Duration slowCallDuration,
+    @DefaultValue("10s") Duration openDuration,
+    @DefaultValue("5") int halfOpenCalls
+) {
+
+}
@@ -0,0 +1,18 @@
+package com.checkout.payment.gateway.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "acquiring.bank.concurrency-limit")
+public record ConcurrencyLimitProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("100") int initialLimit,
+    @DefaultValue("10") int minLimit,
+    @DefaultValue("150") int maxLimit,
+    @DefaultValue("1.5") double rttTolerance,
+    @DefaultValue("0.2") double smoothing,
+    @DefaultValue("600") int longWindow,
+    @DefaultValue("0.9") double backoffRatio
+) {
+
+}
@@ -0,0 +1,30 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.service.IdempotencyService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdempotencyConfiguration {
+
+  @Bean
+  public MeterBinder idempotencyMetrics(IdempotencyService idempotencyService) {
+    return registry -> {
+      Gauge.builder("payments.idempotency.size", idempotencyService, IdempotencyService::size)
+          .register(registry);
+      FunctionCounter.builder("payments.idempotency.requests", idempotencyService,
+          IdempotencyService::hitCount).tag("result", "hit").register(registry);
+      FunctionCounter.builder("payments.idempotency.requests", idempotencyService,
+          IdempotencyService::coalescedCount).tag("result", "coalesced").register(registry);
+      FunctionCounter.builder("payments.idempotency.requests", idempotencyService,
+          IdempotencyService::missCount).tag("result", "miss").register(registry);
+      FunctionCounter.builder("payments.idempotency.evictions", idempotencyService,
+          IdempotencyService::evictionCount).tag("cause", "size").register(registry);
+      FunctionCounter.builder("payments.idempotency.evictions", idempotencyService,
+          IdempotencyService::expirationCount).tag("cause", "expired").register(registry);
+    };
+  }
+}
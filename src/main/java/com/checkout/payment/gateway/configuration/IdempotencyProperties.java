@@ -0,0 +1,15 @@
+package com.checkout.payment.gateway.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "payments.idempotency")
+public record IdempotencyProperties(
+    @DefaultValue("100000") int maxEntries,
+    @DefaultValue("24h") Duration ttl,
+    @DefaultValue("16") int concurrencyLevel,
+    @DefaultValue("255") int maxKeyLength
+) {
+
+}
@@ -0,0 +1,38 @@
+package com.checkout.payment.gateway.configuration;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import com.checkout.payment.gateway.logging.CountingAsyncAppender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LoggingConfiguration {
+
+  @Bean
+  public MeterBinder asyncLoggingMetrics() {
+    return registry -> {
+      if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+        return;
+      }
+      for (Logger logger : context.getLoggerList()) {
+        logger.iteratorForAppenders().forEachRemaining(appender -> {
+          if (appender instanceof CountingAsyncAppender async) {
+            FunctionCounter.builder("logging.async.dropped", async,
+                CountingAsyncAppender::droppedCount)
+                .tag("appender", async.getName())
+                .register(registry);
+            Gauge.builder("logging.async.queue.remaining", async,
+                CountingAsyncAppender::getRemainingCapacity)
+                .tag("appender", async.getName())
+                .register(registry);
+          }
+        });
+      }
+    };
+  }
+}
@@ -0,0 +1,14 @@
+package com.checkout.payment.gateway.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "payments.journal")
+public record PaymentJournalProperties(
+    @DefaultValue("data/journal") String directory,
+    @DefaultValue("64MB") DataSize segmentSize,
+    @DefaultValue("true") boolean fsync
+) {
+
+}
@@ -0,0 +1,35 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import com.checkout.payment.gateway.service.PaymentMetrics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PaymentMetricsConfiguration {
+
+  @Bean
+  public PaymentMetrics paymentMetrics(MeterRegistry registry) {
+    return new PaymentMetrics(registry);
+  }
+
+  @Bean
+  public MeterBinder paymentsRepositoryMetrics(PaymentsRepository repository) {
+    return registry -> {
+      Gauge.builder("payments.repository.size", repository, PaymentsRepository::size)
+          .register(registry);
+      FunctionCounter.builder("payments.repository.lookups", repository,
+          r -> r.stats().hits()).tag("result", "hit").register(registry);
+      FunctionCounter.builder("payments.repository.lookups", repository,
+          r -> r.stats().misses()).tag("result", "miss").register(registry);
+      FunctionCounter.builder("payments.repository.evictions", repository,
+          r -> r.stats().evictions()).tag("cause", "size").register(registry);
+      FunctionCounter.builder("payments.repository.evictions", repository,
+          r -> r.stats().expirations()).tag("cause", "expired").register(registry);
+    };
+  }
+}
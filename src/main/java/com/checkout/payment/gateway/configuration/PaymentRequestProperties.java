@@ -0,0 +1,15 @@
+package com.checkout.payment.gateway.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * {@code maxBodySize} bounds a single POST /payment body; a valid one is under 200 bytes.
+ */
+@ConfigurationProperties(prefix = "payments.request")
+public record PaymentRequestProperties(
+    @DefaultValue("16KB") DataSize maxBodySize
+) {
+
+}
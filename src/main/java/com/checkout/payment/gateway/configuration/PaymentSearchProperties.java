@@ -0,0 +1,16 @@
+package com.checkout.payment.gateway.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "payments.search")
+public record PaymentSearchProperties(
+    @DefaultValue("1m") Duration bucketSize,
+    @DefaultValue("24h") Duration retention,
+    @DefaultValue("100") int defaultLimit,
+    @DefaultValue("1000") int maxLimit,
+    @DefaultValue("10000000") long maxEntries
+) {
+
+}
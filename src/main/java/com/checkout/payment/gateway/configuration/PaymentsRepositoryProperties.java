@@ -0,0 +1,16 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.enums.EvictionPolicy;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "payments.repository")
+public record PaymentsRepositoryProperties(
+    @DefaultValue("1000000") int maxCapacity,
+    @DefaultValue("LRU") EvictionPolicy evictionPolicy,
+    @DefaultValue("24h") Duration ttl,
+    @DefaultValue("64") int concurrencyLevel
+) {
+
+}
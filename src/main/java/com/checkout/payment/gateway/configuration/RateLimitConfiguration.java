@@ -0,0 +1,29 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.resilience.MerchantRateLimiter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "payments.rate-limit", name = "enabled", havingValue = "true")
+public class RateLimitConfiguration {
+
+  @Bean
+  public MerchantRateLimiter merchantRateLimiter(RateLimitProperties properties) {
+    return new MerchantRateLimiter(properties);
+  }
+
+  @Bean
+  public MeterBinder rateLimitMetrics(MerchantRateLimiter rateLimiter) {
+    return registry -> {
+      Gauge.builder("payments.rate.limit.merchants", rateLimiter, MerchantRateLimiter::merchants)
+          .register(registry);
+      FunctionCounter.builder("payments.rate.limit.rejected", rateLimiter,
+          MerchantRateLimiter::limitedCount).register(registry);
+    };
+  }
+}
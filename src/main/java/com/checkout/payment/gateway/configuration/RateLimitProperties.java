@@ -0,0 +1,15 @@
+package com.checkout.payment.gateway.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "payments.rate-limit")
+public record RateLimitProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("Merchant-Id") String merchantHeader,
+    @DefaultValue("50") int permitsPerSecond,
+    @DefaultValue("100") int burst,
+    @DefaultValue("10000") int maxMerchants
+) {
+
+}
@@ -0,0 +1,15 @@
+package com.checkout.payment.gateway.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code luhnCheck} is off by default because the bank simulator's test cards (e.g. the declined
+ * 2222405343248112) do not carry a valid check digit.
+ */
+@ConfigurationProperties(prefix = "payments.validation")
+public record ValidationProperties(
+    @DefaultValue("false") boolean luhnCheck
+) {
+
+}
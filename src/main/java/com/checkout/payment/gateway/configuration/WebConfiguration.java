@@ -0,0 +1,54 @@
+package com.checkout.payment.gateway.configuration;
+
+import com.checkout.payment.gateway.controller.MerchantRateLimitInterceptor;
+import com.checkout.payment.gateway.controller.PaymentRequestMessageConverter;
+import com.checkout.payment.gateway.controller.RequestAsyncTimeout;
+import com.checkout.payment.gateway.resilience.MerchantRateLimiter;
+import com.checkout.payment.gateway.service.PaymentMetrics;
+import com.checkout.payment.gateway.service.PaymentRequestValidatorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+  private final PaymentRequestMessageConverter paymentRequestConverter;
+  private final MerchantRateLimiter rateLimiter;
+  private final RateLimitProperties rateLimitProperties;
+
+  public WebConfiguration(ObjectMapper objectMapper, PaymentRequestValidatorService validator,
+      PaymentRequestProperties properties, PaymentMetrics metrics,
+      ObjectProvider<MerchantRateLimiter> rateLimiter, RateLimitProperties rateLimitProperties) {
+    // the Spring Boot mapper's factory, so parser limits and features match the rest of the API
+    this.paymentRequestConverter = new PaymentRequestMessageConverter(objectMapper.getFactory(),
+        validator, properties, metrics);
+    this.rateLimiter = rateLimiter.getIfAvailable();
+    this.rateLimitProperties = rateLimitProperties;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    if (rateLimiter != null) {
+      registry.addInterceptor(new MerchantRateLimitInterceptor(rateLimiter,
+          rateLimitProperties.merchantHeader()))
+          .addPathPatterns("/payment", "/payments/batch", "/payments/export");
+    }
+  }
+
+  @Override
+  public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+    configurer.registerCallableInterceptors(new RequestAsyncTimeout());
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    // ahead of Jackson, which would otherwise bind the record itself
+    converters.add(0, paymentRequestConverter);
+  }
+}
@@ -0,0 +1,63 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.configuration.BatchProperties;
+import com.checkout.payment.gateway.exception.PayloadTooLargeException;
+import com.checkout.payment.gateway.model.ProcessPaymentRequest;
+import com.checkout.payment.gateway.utils.LimitedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+/**
+ * Applies {@code payments.batch.max-body-size} to POST /payments/batch, whose body Jackson binds
+ * to a list without the limit {@link PaymentRequestMessageConverter} puts on a single payment.
+ * Bodies are refused from Content-Length when it is sent, and otherwise as soon as the limit is
+ * crossed while Jackson reads them.
+ */
+@ControllerAdvice(assignableTypes = PaymentGatewayController.class)
+public class BatchRequestBodyLimit extends RequestBodyAdviceAdapter {
+
+  private final long maxBodySize;
+  // stackless and stateless, so one instance serves every oversized request
+  private final PayloadTooLargeException tooLarge;
+
+  public BatchRequestBodyLimit(BatchProperties properties) {
+    this.maxBodySize = properties.maxBodySize().toBytes();
+    this.tooLarge = new PayloadTooLargeException(
+        "Payment batch body must not exceed " + maxBodySize + " bytes");
+  }
+
+  @Override
+  public boolean supports(MethodParameter methodParameter, Type targetType,
+      Class<? extends HttpMessageConverter<?>> converterType) {
+    return targetType instanceof ParameterizedType list && list.getRawType() == List.class
+        && list.getActualTypeArguments()[0] == ProcessPaymentRequest.class;
+  }
+
+  @Override
+  public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter,
+      Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+    if (inputMessage.getHeaders().getContentLength() > maxBodySize) {
+      throw tooLarge;
+    }
+    return new HttpInputMessage() {
+      @Override
+      public InputStream getBody() throws IOException {
+        return new LimitedInputStream(inputMessage.getBody(), maxBodySize, tooLarge);
+      }
+
+      @Override
+      public HttpHeaders getHeaders() {
+        return inputMessage.getHeaders();
+      }
+    };
+  }
+}
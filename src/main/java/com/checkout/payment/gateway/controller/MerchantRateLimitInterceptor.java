@@ -0,0 +1,46 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.exception.RateLimitedException;
+import com.checkout.payment.gateway.resilience.MerchantRateLimiter;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies {@link MerchantRateLimiter} before the body is read, keyed by the merchant header.
+ * Requests without it share one bucket. Registered on the paths that create or stream payments;
+ * each request takes one permit, so a batch costs the same as a single payment and is bounded by
+ * the batch size limit instead. The permit is taken on the initial dispatch only: the handlers
+ * here all complete asynchronously, and the ASYNC re-dispatch that writes their result must not
+ * be limited after the payment has already been made.
+ */
+public class MerchantRateLimitInterceptor implements HandlerInterceptor {
+
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final MerchantRateLimiter rateLimiter;
+  private final String merchantHeader;
+
+  public MerchantRateLimitInterceptor(MerchantRateLimiter rateLimiter, String merchantHeader) {
+    this.rateLimiter = rateLimiter;
+    this.merchantHeader = merchantHeader;
+  }
+
+  @Override
+  public boolean preHandle(HttpServletRequest request, HttpServletResponse response,
+      Object handler) {
+    if (request.getDispatcherType() == DispatcherType.ASYNC) {
+      return true;
+    }
+    String merchant = request.getHeader(merchantHeader);
+    long waitNanos = rateLimiter.tryAcquire(merchant == null ? "" : merchant);
+    if (waitNanos > 0) {
+      // Retry-After is whole seconds, rounded up so a retry at that time is admitted
+      throw new RateLimitedException("Payment request rate limit exceeded",
+          (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+    return true;
+  }
+}
@@ -1,36 +1,220 @@
 package com.checkout.payment.gateway.controller;
 
+import com.checkout.payment.gateway.model.BatchPaymentResult;
+import com.checkout.payment.gateway.model.PaymentPage;
 import com.checkout.payment.gateway.model.PostPaymentRequest;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.model.ProcessPaymentRequest;
+import com.checkout.payment.gateway.model.ValidatedPayment;
+import com.checkout.payment.gateway.service.BatchPaymentService;
+import com.checkout.payment.gateway.service.IdempotencyService;
 import com.checkout.payment.gateway.service.PaymentGatewayService;
+import com.checkout.payment.gateway.service.PaymentSearchService;
+import com.checkout.payment.gateway.service.PaymentSearchService.PaymentFilter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
-import jakarta.validation.Valid;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 @RestController("api")
 public class PaymentGatewayController {
 
+  // private: the body is one merchant's payment, not for shared caches
+  private static final CacheControl PAYMENT_CACHE_CONTROL =
+      CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+  private static final int GZIP_BUFFER_SIZE = 8192;
+
   private final PaymentGatewayService paymentGatewayService;
+  private final BatchPaymentService batchPaymentService;
+  private final IdempotencyService idempotencyService;
+  private final PaymentSearchService paymentSearchService;
+  private final boolean virtualThreads;
+  private final Duration exportTimeout;
 
-  public PaymentGatewayController(PaymentGatewayService paymentGatewayService) {
+  public PaymentGatewayController(PaymentGatewayService paymentGatewayService,
+      BatchPaymentService batchPaymentService, IdempotencyService idempotencyService,
+      PaymentSearchService paymentSearchService,
+      @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+      @Value("${payments.export.timeout:10m}") Duration exportTimeout) {
     this.paymentGatewayService = paymentGatewayService;
+    this.batchPaymentService = batchPaymentService;
+    this.idempotencyService = idempotencyService;
+    this.paymentSearchService = paymentSearchService;
+    this.virtualThreads = virtualThreads;
+    this.exportTimeout = exportTimeout;
+  }
+
+  /**
+   * A stored payment never changes, so its id is a strong ETag for it. Spring answers a matching
+   * {@code If-None-Match} with 304 from these headers before the body would be written. The body
+   * is the {@link PostPaymentResponse} JSON the repository encoded when the payment was stored,
+   * copied to the response without object mapping.
+   */
+  @GetMapping(value = "/payment/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<byte[]> getPostPaymentEventById(@PathVariable UUID id) {
+    return ResponseEntity.ok()
+        .eTag(id.toString())
+        .cacheControl(PAYMENT_CACHE_CONTROL)
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(paymentGatewayService.getPaymentJsonById(id));
+  }
+
+  /**
+   * Payments stored between {@code from} (inclusive) and {@code to} (exclusive), both ISO-8601
+   * instants, oldest first, optionally of one status and currency. A full page carries
+   * {@code nextCursor}; sending it back as {@code cursor} with the same filters reads the next.
+   */
+  @GetMapping(value = "/payments", produces = MediaType.APPLICATION_JSON_VALUE)
+  public PaymentPage searchPayments(
+      @RequestParam(required = false) Instant from,
+      @RequestParam(required = false) Instant to,
+      @RequestParam(required = false) String status,
+      @RequestParam(required = false) String currency,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    return paymentSearchService.search(from, to, status, currency, cursor, limit);
   }
 
-  @GetMapping("/payment/{id}")
-  public ResponseEntity<PostPaymentResponse> getPostPaymentEventById(@PathVariable UUID id) {
-    return new ResponseEntity<>(paymentGatewayService.getPaymentById(id), HttpStatus.OK);
+  /**
+   * Every payment matching the same filters as GET /payments, streamed as newline-delimited JSON
+   * on an MVC async thread. Writes block while the client is behind, so memory stays flat however
+   * large the export. Gzipped when the client accepts it. Only this request gets the long
+   * {@code payments.export.timeout}; other async requests keep the default.
+   */
+  @GetMapping(value = "/payments/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> exportPayments(
+      @RequestParam(required = false) Instant from,
+      @RequestParam(required = false) Instant to,
+      @RequestParam(required = false) String status,
+      @RequestParam(required = false) String currency,
+      @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+      HttpServletRequest servletRequest) {
+    // invalid filters are refused here, before the response is committed
+    PaymentFilter filter = paymentSearchService.filter(from, to, status, currency);
+    RequestAsyncTimeout.extend(servletRequest, exportTimeout);
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .varyBy(HttpHeaders.ACCEPT_ENCODING);
+    if (!acceptsGzip(acceptEncoding)) {
+      return response.body(out -> paymentSearchService.export(filter, out));
+    }
+    return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+      ExportGzipStream gzip = new ExportGzipStream(out);
+      try {
+        paymentSearchService.export(filter, gzip);
+        gzip.finish();
+      } finally {
+        // not close(): after a failure that would write a trailer making the export look complete
+        gzip.release();
+      }
+    });
   }
 
+  /**
+   * The body is read by {@link PaymentRequestMessageConverter}, which validates each field as it
+   * is parsed; a request that reaches this method is already valid.
+   */
   @PostMapping("/payment")
-  public ResponseEntity<PostPaymentResponse> postPaymentEvent(
-      @Valid @RequestBody final ProcessPaymentRequest request) {
-    return new ResponseEntity<>(paymentGatewayService.processPayment(request), HttpStatus.OK);
+  public Mono<ResponseEntity<PostPaymentResponse>> postPaymentEvent(
+      @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey,
+      @io.swagger.v3.oas.annotations.parameters.RequestBody(content = @Content(
+          schema = @Schema(implementation = ProcessPaymentRequest.class)))
+      @RequestBody final ValidatedPayment request) {
+    if (idempotencyKey != null) {
+      // retries and concurrent duplicates share one bank call, in either execution mode
+      return idempotencyService.processPayment(idempotencyKey, request)
+          .map(payment -> new ResponseEntity<>(payment, HttpStatus.OK));
+    }
+    if (virtualThreads) {
+      // the request thread is virtual: blocking on the bank parks it without holding a carrier
+      return Mono.just(new ResponseEntity<>(paymentGatewayService.processPaymentBlocking(request),
+          HttpStatus.OK));
+    }
+    return paymentGatewayService.processPayment(request)
+        .map(payment -> new ResponseEntity<>(payment, HttpStatus.OK));
+  }
+
+  /**
+   * Streams one result per submitted payment, in request order, as newline-delimited JSON; clients
+   * asking for application/json get the same results as a single array once the batch completes.
+   */
+  @PostMapping(value = "/payments/batch",
+      produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+  public Flux<BatchPaymentResult> postPaymentBatch(
+      @RequestBody final List<ProcessPaymentRequest> requests) {
+    return batchPaymentService.processBatch(requests);
+  }
+
+  /**
+   * Whether an {@code Accept-Encoding} header allows gzip: listed with a non-zero q-value, or not
+   * listed and covered by a non-zero {@code *}.
+   */
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    double gzip = -1;
+    double any = -1;
+    for (String coding : acceptEncoding.split(",")) {
+      String[] parts = coding.split(";");
+      String name = parts[0].trim();
+      if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+        gzip = quality(parts);
+      } else if (name.equals("*")) {
+        any = quality(parts);
+      }
+    }
+    return gzip >= 0 ? gzip > 0 : any > 0;
+  }
+
+  private static double quality(String[] parts) {
+    for (int i = 1; i < parts.length; i++) {
+      String parameter = parts[i].trim();
+      if (parameter.length() > 1 && Character.toLowerCase(parameter.charAt(0)) == 'q'
+          && parameter.charAt(1) == '=') {
+        try {
+          return Double.parseDouble(parameter.substring(2).trim());
+        } catch (NumberFormatException ex) {
+          return 0;
+        }
+      }
+    }
+    return 1;
+  }
+
+  /**
+   * Gzip stream whose deflater can be freed without finishing the stream.
+   */
+  private static final class ExportGzipStream extends GZIPOutputStream {
+
+    private ExportGzipStream(OutputStream out) throws IOException {
+      super(out, GZIP_BUFFER_SIZE);
+    }
+
+    private void release() {
+      def.end();
+    }
   }
 }
@@ -0,0 +1,224 @@
+package com.checkout.payment.gateway.controller;
+
+import com.checkout.payment.gateway.configuration.PaymentRequestProperties;
+import com.checkout.payment.gateway.enums.PaymentStage;
+import com.checkout.payment.gateway.exception.MissingFieldsException;
+import com.checkout.payment.gateway.exception.PayloadTooLargeException;
+import com.checkout.payment.gateway.exception.ValidationException;
+import com.checkout.payment.gateway.model.Currency;
+import com.checkout.payment.gateway.model.ProcessPaymentRequest;
+import com.checkout.payment.gateway.model.ValidatedPayment;
+import com.checkout.payment.gateway.service.PaymentMetrics;
+import com.checkout.payment.gateway.service.PaymentRequestValidatorService;
+import com.checkout.payment.gateway.utils.AmountUtil;
+import com.checkout.payment.gateway.utils.LimitedInputStream;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+/**
+ * Reads a POST /payment body straight into a {@link ValidatedPayment} with Jackson's streaming
+ * parser: each field is checked by {@link PaymentRequestValidatorService} as soon as its token is
+ * read, and the amount is converted to minor units at the end, when the currency is known. There
+ * is no intermediate {@link ProcessPaymentRequest}, no bean validation pass and no second
+ * validation in the service.
+ *
+ * <p>Errors come out in the shapes the databind path produced: absent fields as a
+ * {@link MissingFieldsException}, then every invalid field in one {@link ValidationException},
+ * then the amount. Bodies over {@code payments.request.max-body-size} are refused from
+ * Content-Length when it is sent, and otherwise as soon as the limit is crossed while reading.
+ *
+ * <p>Read-only: a {@link ValidatedPayment} is never written to a response.
+ */
+public class PaymentRequestMessageConverter
+    extends AbstractHttpMessageConverter<ValidatedPayment> {
+
+  private final JsonFactory jsonFactory;
+  private final PaymentRequestValidatorService validator;
+  private final PaymentMetrics metrics;
+  private final long maxBodySize;
+  // stackless and stateless, so one instance serves every oversized request
+  private final PayloadTooLargeException tooLarge;
+
+  public PaymentRequestMessageConverter(JsonFactory jsonFactory,
+      PaymentRequestValidatorService validator, PaymentRequestProperties properties,
+      PaymentMetrics metrics) {
+    super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+    this.jsonFactory = jsonFactory;
+    this.validator = validator;
+    this.metrics = metrics;
+    this.maxBodySize = properties.maxBodySize().toBytes();
+    this.tooLarge = new PayloadTooLargeException(
+        "Payment request body must not exceed " + maxBodySize + " bytes");
+  }
+
+  @Override
+  protected boolean supports(Class<?> clazz) {
+    return clazz == ValidatedPayment.class;
+  }
+
+  @Override
+  public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+    return false;
+  }
+
+  @Override
+  protected ValidatedPayment readInternal(Class<? extends ValidatedPayment> clazz,
+      HttpInputMessage inputMessage) throws IOException {
+    if (inputMessage.getHeaders().getContentLength() > maxBodySize) {
+      throw tooLarge;
+    }
+    try {
+      return read(inputMessage.getBody());
+    } catch (JsonProcessingException ex) {
+      throw new HttpMessageNotReadableException("Malformed payment request: " + ex.getMessage(),
+          ex, inputMessage);
+    }
+  }
+
+  @Override
+  protected void writeInternal(ValidatedPayment payment, HttpOutputMessage outputMessage) {
+    // unreachable: canWrite is always false
+    throw new HttpMessageNotWritableException("ValidatedPayment is only read from requests");
+  }
+
+  /**
+   * Parses and validates one payment request body, timed as the validate stage.
+   *
+   * @throws JsonProcessingException for a body that is not a JSON object of scalar fields
+   */
+  public ValidatedPayment read(InputStream body) throws IOException {
+    long started = PaymentMetrics.start();
+    try (JsonParser parser = jsonFactory.createParser(
+        new LimitedInputStream(body, maxBodySize, tooLarge))) {
+      ValidatedPayment payment = parse(parser);
+      metrics.record(PaymentStage.VALIDATE, started);
+      return payment;
+    } catch (RuntimeException | IOException ex) {
+      // validation errors and malformed JSON alike
+      metrics.recordFailure(ex);
+      throw ex;
+    }
+  }
+
+  private ValidatedPayment parse(JsonParser parser) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException(parser, "Payment request must be a JSON object");
+    }
+    String cardNumber = null;
+    int expiryMonth = 0;
+    int expiryYear = 0;
+    String currencyCode = null;
+    Currency currency = null;
+    String amount = null;
+    String cvv = null;
+    ValidationException cardNumberError = null;
+    ValidationException cvvError = null;
+
+    String field;
+    while ((field = parser.nextFieldName()) != null) {
+      JsonToken token = parser.nextToken();
+      switch (field) {
+        case "card_number" -> {
+          cardNumber = text(parser, token);
+          cardNumberError = validator.checkCardNumber(cardNumber);
+        }
+        case "expiry_month" -> expiryMonth = intValue(parser, token);
+        case "expiry_year" -> expiryYear = intValue(parser, token);
+        case "currency" -> {
+          currencyCode = text(parser, token);
+          currency = Currency.fromCode(currencyCode);
+        }
+        // kept as text: its scale depends on the currency, which may come later
+        case "amount" -> amount = text(parser, token);
+        case "cvv" -> {
+          cvv = text(parser, token);
+          cvvError = validator.checkCvv(cvv);
+        }
+        default -> parser.skipChildren();
+      }
+    }
+
+    Map<String, String> missing = null;
+    missing = requireText(missing, cardNumber, "cardNumber",
+        ProcessPaymentRequest.CARD_NUMBER_REQUIRED);
+    missing = requireText(missing, currencyCode, "currency",
+        ProcessPaymentRequest.CURRENCY_REQUIRED);
+    missing = requireText(missing, amount, "amount", ProcessPaymentRequest.AMOUNT_REQUIRED);
+    missing = requireText(missing, cvv, "cvv", ProcessPaymentRequest.CVV_REQUIRED);
+    if (missing != null) {
+      throw new MissingFieldsException(missing);
+    }
+
+    // month and year arrive as separate fields, so expiry is the one check made after the object
+    ValidationException errors = PaymentRequestValidatorService.combine(cardNumberError,
+        validator.checkExpiry(expiryMonth, expiryYear));
+    errors = PaymentRequestValidatorService.combine(errors, validator.checkCurrency(currency));
+    errors = PaymentRequestValidatorService.combine(errors, cvvError);
+    if (errors != null) {
+      throw errors;
+    }
+
+    return new ValidatedPayment(cardNumber, expiryMonth, expiryYear, currency,
+        AmountUtil.toMinorUnits(amount, currency), cvv);
+  }
+
+  // numbers and booleans are taken as their text, as Jackson binds them to a String property
+  private static String text(JsonParser parser, JsonToken token) throws IOException {
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (!token.isScalarValue()) {
+      throw new JsonParseException(parser, parser.currentName() + " must be a single value");
+    }
+    return parser.getText();
+  }
+
+  // as Jackson binds an int property: fractions truncated, numeric strings accepted, null is 0
+  private static int intValue(JsonParser parser, JsonToken token) throws IOException {
+    switch (token) {
+      case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+        return parser.getIntValue();
+      }
+      case VALUE_NULL -> {
+        return 0;
+      }
+      case VALUE_STRING -> {
+        String text = parser.getText().trim();
+        if (text.isEmpty()) {
+          return 0;
+        }
+        try {
+          return Integer.parseInt(text);
+        } catch (NumberFormatException ex) {
+          throw new JsonParseException(parser, parser.currentName() + " must be a number");
+        }
+      }
+      default -> throw new JsonParseException(parser, parser.currentName() + " must be a number");
+    }
+  }
+
+  private static Map<String, String> requireText(Map<String, String> missing, String value,
+      String field, String message) {
+    if (value != null && !value.isBlank()) {
+      return missing;
+    }
+    if (missing == null) {
+      missing = new LinkedHashMap<>();
+    }
+    missing.put(field, message);
+    return missing;
+  }
+}
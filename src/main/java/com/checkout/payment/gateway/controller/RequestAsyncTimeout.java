@@ -0,0 +1,32 @@
+package com.checkout.payment.gateway.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+/**
+ * Lets one handler give its async processing a longer timeout than
+ * {@code spring.mvc.async.request-timeout}, for bodies such as a {@code StreamingResponseBody}
+ * that have no way of carrying their own. The handler calls {@link #extend} and the timeout is
+ * applied just before the request goes async.
+ */
+public class RequestAsyncTimeout implements CallableProcessingInterceptor {
+
+  private static final String ATTRIBUTE = RequestAsyncTimeout.class.getName() + ".timeout";
+
+  public static void extend(HttpServletRequest request, Duration timeout) {
+    request.setAttribute(ATTRIBUTE, timeout);
+  }
+
+  @Override
+  public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+    Object timeout = request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    if (timeout instanceof Duration duration && request instanceof AsyncWebRequest async) {
+      async.setTimeout(duration.toMillis());
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package com.checkout.payment.gateway.enums;
+
+public enum AmountError {
+  EMPTY("Amount is required"),
+  INVALID_FORMAT("Amount must be a valid number [i.e. 0.01 , 10, 10.60]"),
+  NOT_POSITIVE("Amount must be greater than 0"),
+  TOO_MANY_DECIMALS("Amount must have max %d decimal places"),
+  OVERFLOW("Amount is too large");
+
+  private final String message;
+
+  AmountError(String message) {
+    this.message = message;
+  }
+
+  public String getMessage(int exponent) {
+    return this == TOO_MANY_DECIMALS ? String.format(message, exponent) : message;
+  }
+}
@@ -0,0 +1,21 @@
+package com.checkout.payment.gateway.enums;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+public enum BatchOutcome {
+  AUTHORIZED("Authorized"),
+  DECLINED("Declined"),
+  REJECTED("Rejected"),
+  INVALID("Invalid");
+
+  private final String name;
+
+  BatchOutcome(String name) {
+    this.name = name;
+  }
+
+  @JsonValue
+  public String getName() {
+    return this.name;
+  }
+}
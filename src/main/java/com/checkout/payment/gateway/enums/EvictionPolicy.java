@@ -0,0 +1,7 @@
+package com.checkout.payment.gateway.enums;
+
+public enum EvictionPolicy {
+  LRU,
+  SIZE,
+  TTL
+}
@@ -0,0 +1,18 @@
+package com.checkout.payment.gateway.enums;
+
+public enum PaymentStage {
+  VALIDATE("validate"),
+  AUTHORISE("authorise"),
+  MAP("map"),
+  PERSIST("persist");
+
+  private final String name;
+
+  PaymentStage(String name) {
+    this.name = name;
+  }
+
+  public String getName() {
+    return this.name;
+  }
+}
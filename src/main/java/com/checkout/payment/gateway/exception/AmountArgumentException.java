@@ -1,9 +1,13 @@
 package com.checkout.payment.gateway.exception;
 
+/**
+ * Stackless: raised for client input, where a stack trace says nothing and costs more than the
+ * parse that failed. Instances carry no mutable state and can be shared.
+ */
 public class AmountArgumentException extends RuntimeException {
 
   public AmountArgumentException(String message) {
-    super(message);
+    super(message, null, false, false);
   }
 
 }
@@ -1,15 +1,19 @@
 package com.checkout.payment.gateway.exception;
 
 import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.logging.RateLimitedLogger;
 import com.checkout.payment.gateway.model.ErrorResponse;
 import com.checkout.payment.gateway.model.ServiceUnavailableResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -18,24 +22,37 @@ public class CommonExceptionHandler {
 
   private static final Logger LOG = LoggerFactory.getLogger(CommonExceptionHandler.class);
 
+  // client errors are expected traffic: no stack traces, and a flood logs one line per interval
+  private final RateLimitedLogger clientErrors;
+
+  public CommonExceptionHandler(
+      @Value("${logging.client-errors.interval:10s}") Duration clientErrorLogInterval) {
+    this.clientErrors = new RateLimitedLogger(LOG, clientErrorLogInterval);
+  }
+
   @ExceptionHandler(EventProcessingException.class)
   public ResponseEntity<ErrorResponse> handleException(EventProcessingException ex) {
-    LOG.error("Exception happened", ex);
+    clientErrors.warn("not-found", "Payment not found", ex.getMessage());
     return new ResponseEntity<>(new ErrorResponse("Page not found"),
         HttpStatus.NOT_FOUND);
   }
 
   @ExceptionHandler(ValidationException.class)
   public ResponseEntity<ErrorResponse> handleException(ValidationException ex) {
-    LOG.error("Exception happened", ex);
+    clientErrors.warn("validation", "Invalid payment request", ex.getMessage());
 
-    return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), HttpStatus.BAD_REQUEST);
+    ErrorResponse body = ex.getErrors().size() > 1
+        ? new ErrorResponse(ex.getMessage(), ex.getErrors())
+        : new ErrorResponse(ex.getMessage());
+    return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
   }
 
   @ExceptionHandler(MethodArgumentNotValidException.class)
   public ResponseEntity<?> handleValidation(MethodArgumentNotValidException ex) {
 
-    LOG.error("Exception happened", ex);
+    // rejected values are left out, they may hold card data
+    clientErrors.warn("binding", "Payment request failed field validation",
+        ex.getFieldError() == null ? null : ex.getFieldError().getField());
     Map<String, String> errors = new HashMap<>();
 
     ex.getBindingResult().getFieldErrors()
@@ -46,6 +63,27 @@ public class CommonExceptionHandler {
     return ResponseEntity.badRequest().body(errors);
   }
 
+  @ExceptionHandler(MissingFieldsException.class)
+  public ResponseEntity<Map<String, String>> handleMissingFields(MissingFieldsException ex) {
+    clientErrors.warn("binding", "Payment request failed field validation",
+        ex.getErrors().keySet().iterator().next());
+    return ResponseEntity.badRequest().body(ex.getErrors());
+  }
+
+  @ExceptionHandler(PayloadTooLargeException.class)
+  public ResponseEntity<ErrorResponse> handlePayloadTooLarge(PayloadTooLargeException ex) {
+    clientErrors.warn("too-large", "Payment request rejected", ex.getMessage());
+    return new ResponseEntity<>(new ErrorResponse(ex.getMessage()), HttpStatus.PAYLOAD_TOO_LARGE);
+  }
+
+  @ExceptionHandler(RateLimitedException.class)
+  public ResponseEntity<ErrorResponse> handleRateLimited(RateLimitedException ex) {
+    clientErrors.warn("rate-limited", "Payment request rejected", ex.getMessage());
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+        .body(new ErrorResponse(ex.getMessage()));
+  }
+
   @ExceptionHandler(ServiceUnavailableException.class)
   public ResponseEntity<ServiceUnavailableResponse> handle503(ServiceUnavailableException ex) {
     return new ResponseEntity<>(
@@ -53,8 +91,16 @@ public class CommonExceptionHandler {
         HttpStatus.SERVICE_UNAVAILABLE);
   }
 
+  @ExceptionHandler(RepositoryFullException.class)
+  public ResponseEntity<ErrorResponse> handleRepositoryFull(RepositoryFullException ex) {
+    LOG.error("Payment could not be stored: {}", ex.getMessage());
+    return new ResponseEntity<>(new ErrorResponse(ex.getMessage()),
+        HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   @ExceptionHandler(AmountArgumentException.class)
   public ResponseEntity<ErrorResponse> handleAmountArgument(AmountArgumentException ex) {
+    clientErrors.warn("amount", "Invalid payment amount", ex.getMessage());
     return new ResponseEntity<>(
         new ErrorResponse(ex.getMessage()),
         HttpStatus.BAD_REQUEST);
@@ -0,0 +1,22 @@
+package com.checkout.payment.gateway.exception;
+
+import java.util.Map;
+
+/**
+ * Required fields absent from a payment request body, keyed by field name. Answered with the same
+ * body as a failed {@code @Valid} binding, so clients see one shape for missing fields.
+ */
+public class MissingFieldsException extends RuntimeException {
+
+  private final Map<String, String> errors;
+
+  public MissingFieldsException(Map<String, String> errors) {
+    super("Payment request is missing " + errors.keySet(), null, false, false);
+    this.errors = errors;
+  }
+
+  public Map<String, String> getErrors() {
+    return errors;
+  }
+
+}
@@ -0,0 +1,12 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * A request body over the configured limit, detected from Content-Length or while it streams in.
+ */
+public class PayloadTooLargeException extends RuntimeException {
+
+  public PayloadTooLargeException(String message) {
+    super(message, null, false, false);
+  }
+
+}
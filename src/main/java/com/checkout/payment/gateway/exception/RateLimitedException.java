@@ -0,0 +1,19 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * A merchant over its request rate. Stackless: being throttled is expected traffic.
+ */
+public class RateLimitedException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  public RateLimitedException(String message, long retryAfterSeconds) {
+    super(message, null, false, false);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+
+}
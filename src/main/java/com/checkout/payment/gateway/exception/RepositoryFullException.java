@@ -0,0 +1,13 @@
+package com.checkout.payment.gateway.exception;
+
+/**
+ * The payment store has no room for another payment. The store does not free space by itself,
+ * so this is an operational fault rather than a transient one, answered with 503.
+ */
+public class RepositoryFullException extends RuntimeException {
+
+  public RepositoryFullException(String message) {
+    super(message);
+  }
+
+}
@@ -1,16 +1,40 @@
 package com.checkout.payment.gateway.exception;
 
+import java.util.Map;
+
+/**
+ * Stackless, like {@link AmountArgumentException}: an invalid request is an expected outcome, not a
+ * fault to trace. Single-field instances can be preallocated and shared.
+ */
 public class ValidationException extends RuntimeException {
 
   private final String field;
+  private final Map<String, String> errors;
 
   public ValidationException(String field, String message) {
-    super(message);
+    super(message, null, false, false);
     this.field = field;
+    this.errors = Map.of(field, message);
+  }
+
+  /**
+   * One exception for every invalid field, in the order they were checked. With a single error it
+   * is indistinguishable from {@link #ValidationException(String, String)}.
+   */
+  public ValidationException(Map<String, String> errors) {
+    super(errors.size() == 1
+        ? errors.values().iterator().next()
+        : "Payment request has " + errors.size() + " invalid fields", null, false, false);
+    this.field = errors.keySet().iterator().next();
+    this.errors = errors;
   }
 
   public String getField() {
     return field;
   }
 
+  public Map<String, String> getErrors() {
+    return errors;
+  }
+
 }
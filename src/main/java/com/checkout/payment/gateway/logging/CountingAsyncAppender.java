@@ -0,0 +1,89 @@
+package com.checkout.payment.gateway.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, non-blocking async appender that counts what it drops. The calling thread only captures
+ * its name and MDC and enqueues the event; the message is formatted on the worker, so arguments
+ * must not change after they are logged. Once the queue is 80% full TRACE to INFO events are
+ * dropped, and when it is full everything is, instead of the caller waiting on console I/O. Drops
+ * are reported through the same queue as one WARN at most every ten seconds.
+ *
+ * <p>The queue's own offer drops silently when it is full, so producers check for room and enqueue
+ * under one lock: a slot seen free stays free until it is taken, and every drop is counted. The
+ * queue already serialises offers on its own lock, so this adds little.
+ */
+public class CountingAsyncAppender extends AsyncAppender {
+
+  static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+  private final LongAdder dropped = new LongAdder();
+  private final AtomicLong unreported = new AtomicLong();
+  private final AtomicLong nextReport = new AtomicLong(System.nanoTime());
+  private final ReentrantLock enqueueLock = new ReentrantLock();
+
+  @Override
+  public void start() {
+    setNeverBlock(true);
+    super.start();
+  }
+
+  @Override
+  protected void append(ILoggingEvent event) {
+    if (!isStarted()) {
+      return;
+    }
+    enqueueLock.lock();
+    try {
+      // the worker only frees slots, so room seen here is still there for the offer below
+      int remaining = getRemainingCapacity();
+      if (remaining == 0 || remaining < getDiscardingThreshold() && isDiscardable(event)) {
+        dropped.increment();
+        unreported.incrementAndGet();
+        return;
+      }
+      super.append(event);
+      if (unreported.get() > 0 && getRemainingCapacity() > 0) {
+        reportDropped();
+      }
+    } finally {
+      enqueueLock.unlock();
+    }
+  }
+
+  @Override
+  protected void preprocess(ILoggingEvent event) {
+    // what LoggingEvent.prepareForDeferredProcessing captures, minus formatting the message
+    event.getThreadName();
+    event.getMDCPropertyMap();
+    if (isIncludeCallerData()) {
+      event.getCallerData();
+    }
+  }
+
+  public long droppedCount() {
+    return dropped.sum();
+  }
+
+  private void reportDropped() {
+    long now = System.nanoTime();
+    long due = nextReport.get();
+    if (now - due < 0 || !nextReport.compareAndSet(due, now + REPORT_INTERVAL_NANOS)) {
+      return;
+    }
+    long count = unreported.getAndSet(0);
+    LoggerContext context = (LoggerContext) getContext();
+    super.append(new LoggingEvent(CountingAsyncAppender.class.getName(),
+        context.getLogger(CountingAsyncAppender.class), Level.WARN,
+        "Dropped {} log events, async queue of {} was full", null,
+        new Object[]{count, getQueueSize()}));
+  }
+}
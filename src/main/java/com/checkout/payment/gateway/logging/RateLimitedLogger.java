@@ -0,0 +1,63 @@
+package com.checkout.payment.gateway.logging;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+
+/**
+ * Writes at most one line per key every {@code interval}: the first occurrence is logged straight
+ * away, later ones are only counted and the next line that gets through carries a sample detail
+ * and how many occurrences it stands for. For errors caused by client input, where a flood of
+ * identical lines costs I/O and adds nothing. Keys must come from a small fixed set, such as
+ * exception types.
+ */
+public class RateLimitedLogger {
+
+  private final Logger log;
+  private final long intervalNanos;
+  private final LongSupplier nanoClock;
+  private final ConcurrentMap<String, Window> windows = new ConcurrentHashMap<>();
+
+  public RateLimitedLogger(Logger log, Duration interval) {
+    this(log, interval, System::nanoTime);
+  }
+
+  RateLimitedLogger(Logger log, Duration interval, LongSupplier nanoClock) {
+    this.log = log;
+    this.intervalNanos = interval.toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  public void warn(String key, String message, Object sample) {
+    Window window = windows.get(key);
+    if (window == null) {
+      window = windows.computeIfAbsent(key, k -> new Window(nanoClock.getAsLong() - intervalNanos));
+    }
+    window.occurrences.increment();
+    long now = nanoClock.getAsLong();
+    long last = window.lastLogged.get();
+    if (now - last >= intervalNanos && window.lastLogged.compareAndSet(last, now)) {
+      long occurrences = window.occurrences.sumThenReset();
+      if (occurrences == 1) {
+        log.warn("{}: {}", message, sample);
+      } else {
+        log.warn("{}: {} ({} times in the last {} ms)", message, sample, occurrences,
+            Duration.ofNanos(now - last).toMillis());
+      }
+    }
+  }
+
+  private static final class Window {
+
+    private final AtomicLong lastLogged;
+    private final LongAdder occurrences = new LongAdder();
+
+    private Window(long lastLogged) {
+      this.lastLogged = new AtomicLong(lastLogged);
+    }
+  }
+}
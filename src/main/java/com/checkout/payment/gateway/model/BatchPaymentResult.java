@@ -0,0 +1,43 @@
+package com.checkout.payment.gateway.model;
+
+import com.checkout.payment.gateway.enums.BatchOutcome;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Map;
+
+/**
+ * Outcome of one item of a batch submission. {@code payment} is set for authorised and declined
+ * items, {@code message} (and {@code field} for validation errors) otherwise. An item with more
+ * than one invalid field also lists every one in {@code errors}, as the error body of POST /payment
+ * does.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchPaymentResult(
+    int index,
+    BatchOutcome outcome,
+    PostPaymentResponse payment,
+    String field,
+    String message,
+    Map<String, String> errors
+) {
+
+  public static BatchPaymentResult processed(int index, BatchOutcome outcome,
+      PostPaymentResponse payment) {
+    return new BatchPaymentResult(index, outcome, payment, null, null, null);
+  }
+
+  public static BatchPaymentResult failed(int index, BatchOutcome outcome, String field,
+      String message) {
+    return new BatchPaymentResult(index, outcome, null, field, message, null);
+  }
+
+
+  /**
+   * A validation failure: {@code errors} holds every invalid field when there is more than one,
+   * and is left out otherwise.
+   */
+  public static BatchPaymentResult invalid(int index, String field, String message,
+      Map<String, String> errors) {
+    return new BatchPaymentResult(index, BatchOutcome.INVALID, null, field, message,
+        errors.size() > 1 ? errors : null);
+  }
+}
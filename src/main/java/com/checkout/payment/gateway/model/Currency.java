@@ -1,16 +1,26 @@
 package com.checkout.payment.gateway.model;
 
 public enum Currency {
-  USD("USD", "US Dollar"),
-  EUR("EUR", "Euro"),
-  GBP("GBP", "British Pound");
+  USD("USD", "US Dollar", 2),
+  EUR("EUR", "Euro", 2),
+  GBP("GBP", "British Pound", 2);
+
+  private static final Currency[] BY_CODE = new Currency[26 * 26 * 26];
+
+  static {
+    for (Currency currency : values()) {
+      BY_CODE[index(currency.code)] = currency;
+    }
+  }
 
   private final String code;
   private final String description;
+  private final int exponent;
 
-  Currency(String code, String description) {
+  Currency(String code, String description, int exponent) {
     this.code = code;
     this.description = description;
+    this.exponent = exponent;
   }
 
   public String getCode() {
@@ -20,4 +30,28 @@ public enum Currency {
   public String getDescription() {
     return description;
   }
+
+  /** ISO 4217 minor unit exponent: digits after the decimal point, e.g. 2 for GBP, 0 for JPY. */
+  public int getExponent() {
+    return exponent;
+  }
+
+  /** Constant-time, allocation-free lookup by ISO code; {@code null} for anything unsupported. */
+  public static Currency fromCode(String code) {
+    if (code == null || code.length() != 3) {
+      return null;
+    }
+    int index = index(code);
+    return index < 0 ? null : BY_CODE[index];
+  }
+
+  private static int index(String code) {
+    int first = code.charAt(0) - 'A';
+    int second = code.charAt(1) - 'A';
+    int third = code.charAt(2) - 'A';
+    if ((first | second | third) < 0 || first >= 26 || second >= 26 || third >= 26) {
+      return -1;
+    }
+    return (first * 26 + second) * 26 + third;
+  }
 }
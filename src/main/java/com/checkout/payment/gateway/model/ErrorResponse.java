@@ -1,20 +1,35 @@
 package com.checkout.payment.gateway.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ErrorResponse {
   private final String message;
+  private final Map<String, String> errors;
 
   public ErrorResponse(String message) {
+    this(message, null);
+  }
+
+  public ErrorResponse(String message, Map<String, String> errors) {
     this.message = message;
+    this.errors = errors;
   }
 
   public String getMessage() {
     return message;
   }
 
+  public Map<String, String> getErrors() {
+    return errors;
+  }
+
   @Override
   public String toString() {
     return "ErrorResponse{" +
         "message='" + message + '\'' +
+        ", errors=" + errors +
         '}';
   }
 }
@@ -0,0 +1,16 @@
+package com.checkout.payment.gateway.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * One page of a payment search. {@code nextCursor} is only set on a full page, and is passed back
+ * as {@code cursor} with the same filters to read the next one.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PaymentPage(
+    List<PostPaymentResponse> payments,
+    String nextCursor
+) {
+
+}
@@ -8,7 +8,12 @@ import java.io.Serializable;
 
 public class ProcessPaymentRequest implements Serializable {
 
-  @NotBlank(message = "minimum 14 digit card number required")
+  public static final String CARD_NUMBER_REQUIRED = "minimum 14 digit card number required";
+  public static final String CURRENCY_REQUIRED = "Currency cannot be null";
+  public static final String AMOUNT_REQUIRED = "amount is required";
+  public static final String CVV_REQUIRED = "3 digit cvv required";
+
+  @NotBlank(message = CARD_NUMBER_REQUIRED)
   @JsonProperty("card_number")
   private String cardNumber;
   @NotNull(message = "2 digit expiry month required")
@@ -17,11 +22,11 @@ public class ProcessPaymentRequest implements Serializable {
   @NotNull(message = "2 digit expiry year required")
   @JsonProperty("expiry_year")
   private int expiryYear;
-  @NotBlank(message = "Currency cannot be null")
+  @NotBlank(message = CURRENCY_REQUIRED)
   private String currency;
-  @NotBlank(message = "amount is required")
+  @NotBlank(message = AMOUNT_REQUIRED)
   private String amount;
-  @NotBlank(message = "3 digit cvv required")
+  @NotBlank(message = CVV_REQUIRED)
   private String cvv;
 
   public int getExpiryMonth() {
@@ -72,15 +77,22 @@ public class ProcessPaymentRequest implements Serializable {
     this.cardNumber = cardNumber;
   }
 
+  /**
+   * Safe to log: the card number is reduced to its last four digits and the CVV is left out.
+   */
   @Override
   public String toString() {
     return "PostPaymentRequest{" +
-        "cardNumberLastFour=" + cardNumber +
+        "cardNumberLastFour=" + lastFour(cardNumber) +
         ", expiryMonth=" + expiryMonth +
         ", expiryYear=" + expiryYear +
         ", currency='" + currency + '\'' +
         ", amount=" + amount +
-        ", cvv=" + cvv +
         '}';
   }
+
+  private static String lastFour(String cardNumber) {
+    return cardNumber == null || cardNumber.length() < 8
+        ? null : cardNumber.substring(cardNumber.length() - 4);
+  }
 }
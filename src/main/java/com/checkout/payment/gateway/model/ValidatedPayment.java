@@ -0,0 +1,29 @@
+package com.checkout.payment.gateway.model;
+
+/**
+ * A payment request that has passed every field check, with the amount already in minor units and
+ * the expiry as ints, so nothing downstream parses or validates it again.
+ */
+public record ValidatedPayment(
+    String cardNumber,
+    int expiryMonth,
+    int expiryYear,
+    Currency currency,
+    int amount,
+    String cvv
+) {
+
+  /**
+   * Safe to log: the card number is reduced to its last four digits and the CVV is left out.
+   */
+  @Override
+  public String toString() {
+    return "ValidatedPayment{" +
+        "cardNumberLastFour=" + cardNumber.substring(cardNumber.length() - 4) +
+        ", expiryMonth=" + expiryMonth +
+        ", expiryYear=" + expiryYear +
+        ", currency=" + currency +
+        ", amount=" + amount +
+        '}';
+  }
+}
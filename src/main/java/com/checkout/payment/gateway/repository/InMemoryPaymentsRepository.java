@@ -0,0 +1,102 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.configuration.PaymentsRepositoryProperties;
+import com.checkout.payment.gateway.enums.EvictionPolicy;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.utils.BoundedStripedMap;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Default payment store, kept in a {@link BoundedStripedMap} (see there for how stripes, eviction
+ * order and capacity work). On top of the map it chooses the eviction policy and TTL from
+ * {@code payments.repository}, stores each payment with its JSON encoded once at write time, and
+ * counts hits and misses for the {@link RepositoryStats} behind the repository gauges.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "payments.repository", name = "type", havingValue = "in-memory",
+    matchIfMissing = true)
+public class InMemoryPaymentsRepository implements PaymentsRepository {
+
+  private final BoundedStripedMap<UUID, Entry> entries;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  @Autowired
+  public InMemoryPaymentsRepository(PaymentsRepositoryProperties properties) {
+    this(properties, System::nanoTime);
+  }
+
+  InMemoryPaymentsRepository(PaymentsRepositoryProperties properties, LongSupplier nanoClock) {
+    if (properties.maxCapacity() <= 0) {
+      throw new IllegalArgumentException("payments.repository.max-capacity must be positive");
+    }
+    EvictionPolicy evictionPolicy = properties.evictionPolicy();
+    this.entries = new BoundedStripedMap<>(properties.maxCapacity(),
+        properties.concurrencyLevel(), evictionPolicy == EvictionPolicy.LRU,
+        evictionPolicy == EvictionPolicy.TTL ? properties.ttl() : null, entry -> true, nanoClock);
+  }
+
+  @Override
+  public void add(PostPaymentResponse payment) {
+    // encoded once here so reads serve the bytes instead of running Jackson on every GET
+    byte[] json = PaymentJsonCodec.encode(payment);
+    entries.put(payment.getId(), new Entry(payment, json));
+  }
+
+  @Override
+  public Optional<PostPaymentResponse> get(UUID id) {
+    Entry entry = lookup(id);
+    return entry == null ? Optional.empty() : Optional.of(entry.payment);
+  }
+
+  @Override
+  public Optional<byte[]> getJson(UUID id) {
+    Entry entry = lookup(id);
+    return entry == null ? Optional.empty() : Optional.of(entry.json);
+  }
+
+  @Override
+  public Optional<PostPaymentResponse> peek(UUID id) {
+    Entry entry = entries.peek(id);
+    return entry == null ? Optional.empty() : Optional.of(entry.payment);
+  }
+
+  @Override
+  public Optional<byte[]> peekJson(UUID id) {
+    Entry entry = entries.peek(id);
+    return entry == null ? Optional.empty() : Optional.of(entry.json);
+  }
+
+  @Override
+  public long size() {
+    return entries.size();
+  }
+
+  @Override
+  public RepositoryStats stats() {
+    return new RepositoryStats(size(), hits.sum(), misses.sum(), entries.evictionCount(),
+        entries.expirationCount());
+  }
+
+  private Entry lookup(UUID id) {
+    Entry entry = entries.get(id);
+    if (entry == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return entry;
+  }
+
+  private record Entry(PostPaymentResponse payment, byte[] json) {
+
+  }
+
+}
@@ -0,0 +1,86 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.configuration.PaymentJournalProperties;
+import com.checkout.payment.gateway.configuration.PaymentsRepositoryProperties;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Durable payment store: every payment is appended to the journal before it becomes visible, and
+ * the off-heap index is rebuilt from the journal segments on startup. Recovered payments are put
+ * back in the {@link PaymentSearchIndex} too, at the time the journal recorded for each.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "payments.repository", name = "type", havingValue = "journal")
+public class JournaledPaymentsRepository implements PaymentsRepository, AutoCloseable {
+
+  private final OffHeapPaymentsRepository index;
+  private final PaymentJournal journal;
+  private final boolean fsync;
+
+  public JournaledPaymentsRepository(PaymentsRepositoryProperties repositoryProperties,
+      PaymentJournalProperties journalProperties, PaymentSearchIndex searchIndex) {
+    this.index = new OffHeapPaymentsRepository(repositoryProperties);
+    this.fsync = journalProperties.fsync();
+    this.journal = PaymentJournal.open(Path.of(journalProperties.directory()),
+        journalProperties.segmentSize().toBytes(), journalProperties.fsync(),
+        (payment, storedAt) -> {
+          index.add(payment);
+          // records from before the journal kept a time cannot be placed in a time range
+          if (storedAt >= 0) {
+            searchIndex.add(payment, storedAt);
+          }
+        });
+  }
+
+  @Override
+  public void add(PostPaymentResponse payment) {
+    PaymentRecordCodec.validate(payment);
+    journal.append(payment);
+    index.add(payment);
+  }
+
+  @Override
+  public Optional<PostPaymentResponse> get(UUID id) {
+    return index.get(id);
+  }
+
+  @Override
+  public Optional<byte[]> getJson(UUID id) {
+    return index.getJson(id);
+  }
+
+  @Override
+  public Optional<PostPaymentResponse> peek(UUID id) {
+    return index.peek(id);
+  }
+
+  @Override
+  public Optional<byte[]> peekJson(UUID id) {
+    return index.peekJson(id);
+  }
+
+  @Override
+  public long size() {
+    return index.size();
+  }
+
+  @Override
+  public RepositoryStats stats() {
+    return index.stats();
+  }
+
+  @Override
+  public boolean blockingWrites() {
+    return fsync;
+  }
+
+  @Override
+  public void close() {
+    journal.close();
+  }
+}
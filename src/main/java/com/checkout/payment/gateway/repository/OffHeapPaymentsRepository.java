@@ -0,0 +1,244 @@
+package com.checkout.payment.gateway.repository;
+
+import static com.checkout.payment.gateway.repository.PaymentRecordCodec.RECORD_SIZE;
+
+import com.checkout.payment.gateway.configuration.PaymentsRepositoryProperties;
+import com.checkout.payment.gateway.exception.RepositoryFullException;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Keeps payments as fixed-width records in direct memory, in open-addressing tables keyed on the
+ * two halves of the payment id. Nothing but the table buffers lives on the heap, so retained
+ * payments do not add to GC work. Payments are never evicted: max-capacity only presizes the
+ * tables, which double when they pass the load factor. A table that would have to grow past
+ * {@code MAX_SLOTS} refuses the payment with a {@link RepositoryFullException}.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "payments.repository", name = "type", havingValue = "off-heap")
+public class OffHeapPaymentsRepository implements PaymentsRepository {
+
+  private static final float LOAD_FACTOR = 0.75f;
+  private static final int MIN_SLOTS = 16;
+  // 1 GiB of records per table keeps slot offsets within int range
+  private static final int MAX_SLOTS = 1 << 25;
+
+  private final Table[] tables;
+  private final int tableMask;
+
+  // kept beside the tables so size() and the metrics it feeds take no table lock
+  private final AtomicLong stored = new AtomicLong();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public OffHeapPaymentsRepository(PaymentsRepositoryProperties properties) {
+    this(properties, MAX_SLOTS);
+  }
+
+  OffHeapPaymentsRepository(PaymentsRepositoryProperties properties, int maxSlots) {
+    int target = Math.max(1, properties.concurrencyLevel());
+    int tableCount = target == 1 ? 1 : Integer.highestOneBit(target - 1) << 1;
+    long expectedPerTable = Math.max(1, properties.maxCapacity() / tableCount);
+    int slots = slotsFor((long) Math.ceil(expectedPerTable / LOAD_FACTOR), maxSlots);
+    this.tables = new Table[tableCount];
+    this.tableMask = tableCount - 1;
+    for (int i = 0; i < tableCount; i++) {
+      tables[i] = new Table(slots, maxSlots);
+    }
+  }
+
+  @Override
+  public void add(PostPaymentResponse payment) {
+    PaymentRecordCodec.validate(payment);
+    long msb = payment.getId().getMostSignificantBits();
+    long lsb = payment.getId().getLeastSignificantBits();
+    long hash = mix(msb, lsb);
+    Table table = tables[(int) (hash >>> 32) & tableMask];
+    table.lock.lock();
+    try {
+      if (table.put(hash, msb, lsb, payment)) {
+        stored.incrementAndGet();
+      }
+    } finally {
+      table.lock.unlock();
+    }
+  }
+
+  @Override
+  public Optional<PostPaymentResponse> get(UUID id) {
+    return find(id, PaymentRecordCodec::read, true);
+  }
+
+  /**
+   * Records stay 32 bytes, so the JSON is written straight from the record on each read, without
+   * building a PostPaymentResponse or going through Jackson.
+   */
+  @Override
+  public Optional<byte[]> getJson(UUID id) {
+    return find(id, PaymentRecordCodec::readJson, true);
+  }
+
+  // nothing is evicted here, so a peek only differs from a get in leaving the lookup counts alone
+  @Override
+  public Optional<PostPaymentResponse> peek(UUID id) {
+    return find(id, PaymentRecordCodec::read, false);
+  }
+
+  @Override
+  public Optional<byte[]> peekJson(UUID id) {
+    return find(id, PaymentRecordCodec::readJson, false);
+  }
+
+  private <T> Optional<T> find(UUID id, RecordReader<T> reader, boolean counted) {
+    long msb = id.getMostSignificantBits();
+    long lsb = id.getLeastSignificantBits();
+    long hash = mix(msb, lsb);
+    Table table = tables[(int) (hash >>> 32) & tableMask];
+    T value;
+    table.lock.lock();
+    try {
+      int offset = table.find(hash, msb, lsb);
+      value = offset < 0 ? null : reader.read(table.buffer, offset);
+    } finally {
+      table.lock.unlock();
+    }
+    if (counted) {
+      (value == null ? misses : hits).increment();
+    }
+    return Optional.ofNullable(value);
+  }
+
+  @Override
+  public long size() {
+    return stored.get();
+  }
+
+  @Override
+  public RepositoryStats stats() {
+    return new RepositoryStats(size(), hits.sum(), misses.sum(), 0, 0);
+  }
+
+  public long reservedBytes() {
+    long bytes = 0;
+    for (Table table : tables) {
+      table.lock.lock();
+      try {
+        bytes += table.buffer.capacity();
+      } finally {
+        table.lock.unlock();
+      }
+    }
+    return bytes;
+  }
+
+  private static int slotsFor(long wanted, int maxSlots) {
+    long slots = MIN_SLOTS;
+    while (slots < wanted && slots < maxSlots) {
+      slots <<= 1;
+    }
+    return (int) slots;
+  }
+
+  // murmur3 fmix64 over both halves so version/variant bits do not cluster slots
+  private static long mix(long msb, long lsb) {
+    long h = msb ^ Long.rotateLeft(lsb, 32);
+    h ^= h >>> 33;
+    h *= 0xff51afd7ed558ccdL;
+    h ^= h >>> 33;
+    h *= 0xc4ceb9fe1a85ec53L;
+    h ^= h >>> 33;
+    return h;
+  }
+
+  private interface RecordReader<T> {
+
+    T read(ByteBuffer buffer, int offset);
+  }
+
+  private static final class Table {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int maxSlots;
+    private ByteBuffer buffer;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    private Table(int slots, int maxSlots) {
+      this.maxSlots = maxSlots;
+      allocate(slots);
+    }
+
+    /**
+     * @return whether the payment took a new slot rather than replacing its earlier record
+     */
+    private boolean put(long hash, long msb, long lsb, PostPaymentResponse payment) {
+      int offset = find(hash, msb, lsb);
+      if (offset >= 0) {
+        PaymentRecordCodec.write(buffer, offset, payment);
+        return false;
+      }
+      if (size >= resizeThreshold) {
+        grow();
+      }
+      PaymentRecordCodec.write(buffer, freeSlot(hash), payment);
+      size++;
+      return true;
+    }
+
+    private int find(long hash, long msb, long lsb) {
+      int slot = (int) hash & mask;
+      while (true) {
+        int offset = slot * RECORD_SIZE;
+        if (!PaymentRecordCodec.isUsed(buffer, offset)) {
+          return -1;
+        }
+        if (PaymentRecordCodec.msb(buffer, offset) == msb
+            && PaymentRecordCodec.lsb(buffer, offset) == lsb) {
+          return offset;
+        }
+        slot = (slot + 1) & mask;
+      }
+    }
+
+    private int freeSlot(long hash) {
+      int slot = (int) hash & mask;
+      while (PaymentRecordCodec.isUsed(buffer, slot * RECORD_SIZE)) {
+        slot = (slot + 1) & mask;
+      }
+      return slot * RECORD_SIZE;
+    }
+
+    private void grow() {
+      int slots = mask + 1;
+      if (slots >= maxSlots) {
+        // thrown before anything is written, so the table stays as it was
+        throw new RepositoryFullException("Payment repository is full");
+      }
+      ByteBuffer old = buffer;
+      allocate(slots << 1);
+      for (int offset = 0; offset < old.capacity(); offset += RECORD_SIZE) {
+        if (PaymentRecordCodec.isUsed(old, offset)) {
+          long msb = PaymentRecordCodec.msb(old, offset);
+          long lsb = PaymentRecordCodec.lsb(old, offset);
+          int target = freeSlot(mix(msb, lsb));
+          buffer.put(target, old, offset, RECORD_SIZE);
+        }
+      }
+    }
+
+    private void allocate(int slots) {
+      buffer = ByteBuffer.allocateDirect(slots * RECORD_SIZE);
+      mask = slots - 1;
+      resizeThreshold = (int) (slots * LOAD_FACTOR);
+    }
+  }
+
+}
@@ -0,0 +1,327 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only journal of payment records in memory-mapped, fixed-size segment files.
+ *
+ * <p>Appends copy the record into the active segment under a short lock. When fsync is enabled the
+ * caller then waits for a single flusher thread, which forces every segment written since its last
+ * pass; writers that arrive while a force is running share the next one (group commit).
+ *
+ * <pre>
+ *  0  int    MAGIC
+ *  4  int    CRC32C of the payment record
+ *  8  32 B   payment record, see PaymentRecordCodec, with the time it was appended
+ * </pre>
+ */
+final class PaymentJournal implements AutoCloseable {
+
+  private static final Logger LOG = LoggerFactory.getLogger(PaymentJournal.class);
+
+  static final int ENTRY_SIZE = 8 + PaymentRecordCodec.RECORD_SIZE;
+
+  private static final int MAGIC = 0x50415931;
+  private static final String SEGMENT_PREFIX = "payments-";
+  private static final String SEGMENT_SUFFIX = ".journal";
+
+  private final Path directory;
+  private final int segmentBytes;
+  private final boolean fsync;
+
+  private final ReentrantLock appendLock = new ReentrantLock();
+  private final ByteBuffer scratch = ByteBuffer.allocate(ENTRY_SIZE);
+  private final CRC32C crc = new CRC32C();
+  private final List<MappedByteBuffer> rolled = new ArrayList<>();
+  private MappedByteBuffer active;
+  private long activeSequence;
+  private int position;
+  private volatile long written;
+
+  private final ReentrantLock syncLock = new ReentrantLock();
+  private final Condition syncRequested = syncLock.newCondition();
+  private final Condition synced = syncLock.newCondition();
+  private volatile long durable;
+  private volatile RuntimeException syncFailure;
+  private volatile boolean running = true;
+  private final Thread flusher;
+
+  private PaymentJournal(Path directory, int segmentBytes, boolean fsync) {
+    this.directory = directory;
+    this.segmentBytes = segmentBytes;
+    this.fsync = fsync;
+    this.flusher = new Thread(this::flushLoop, "payment-journal-flusher");
+    this.flusher.setDaemon(true);
+  }
+
+  static PaymentJournal open(Path directory, long segmentSize, boolean fsync,
+      ObjLongConsumer<PostPaymentResponse> recovered) {
+    if (segmentSize < ENTRY_SIZE || segmentSize > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("payments.journal.segment-size out of range");
+    }
+    int segmentBytes = (int) (segmentSize / ENTRY_SIZE * ENTRY_SIZE);
+    PaymentJournal journal = new PaymentJournal(directory, segmentBytes, fsync);
+    try {
+      Files.createDirectories(directory);
+      journal.recover(recovered);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to open payment journal in " + directory, e);
+    }
+    journal.flusher.start();
+    return journal;
+  }
+
+  void append(PostPaymentResponse payment) {
+    long ticket;
+    appendLock.lock();
+    try {
+      if (!running) {
+        throw new IllegalStateException("Payment journal is closed");
+      }
+      if (position + ENTRY_SIZE > active.capacity()) {
+        roll();
+      }
+      PaymentRecordCodec.write(scratch, 8, payment);
+      PaymentRecordCodec.writeStoredAt(scratch, 8, System.currentTimeMillis());
+      crc.reset();
+      crc.update(scratch.array(), 8, PaymentRecordCodec.RECORD_SIZE);
+      scratch.putInt(4, (int) crc.getValue());
+      scratch.putInt(0, MAGIC);
+      active.put(position, scratch, 0, ENTRY_SIZE);
+      position += ENTRY_SIZE;
+      ticket = ++written;
+    } finally {
+      appendLock.unlock();
+    }
+    if (fsync) {
+      awaitDurable(ticket);
+    }
+  }
+
+  long recordCount() {
+    return written;
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    syncLock.lock();
+    try {
+      syncRequested.signalAll();
+    } finally {
+      syncLock.unlock();
+    }
+    try {
+      flusher.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    long target;
+    appendLock.lock();
+    try {
+      rolled.forEach(MappedByteBuffer::force);
+      rolled.clear();
+      active.force();
+      target = written;
+    } finally {
+      appendLock.unlock();
+    }
+    markDurable(target, null);
+  }
+
+  private void awaitDurable(long ticket) {
+    syncLock.lock();
+    try {
+      syncRequested.signal();
+      while (durable < ticket) {
+        if (syncFailure != null) {
+          throw new IllegalStateException("Payment journal sync failed", syncFailure);
+        }
+        synced.await();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted waiting for payment journal sync", e);
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  private void flushLoop() {
+    while (running && syncFailure == null) {
+      syncLock.lock();
+      try {
+        while (running && durable >= written) {
+          syncRequested.await();
+        }
+      } catch (InterruptedException e) {
+        return;
+      } finally {
+        syncLock.unlock();
+      }
+
+      long target;
+      List<MappedByteBuffer> segments;
+      appendLock.lock();
+      try {
+        target = written;
+        segments = new ArrayList<>(rolled);
+        segments.add(active);
+        rolled.clear();
+      } finally {
+        appendLock.unlock();
+      }
+
+      RuntimeException failure = null;
+      try {
+        segments.forEach(MappedByteBuffer::force);
+      } catch (RuntimeException e) {
+        LOG.error("Payment journal sync failed", e);
+        failure = e;
+      }
+      markDurable(target, failure);
+    }
+  }
+
+  private void markDurable(long target, RuntimeException failure) {
+    syncLock.lock();
+    try {
+      if (failure == null) {
+        durable = Math.max(durable, target);
+      } else {
+        syncFailure = failure;
+      }
+      synced.signalAll();
+    } finally {
+      syncLock.unlock();
+    }
+  }
+
+  /**
+   * Replays every complete record to {@code recovered} with the epoch millis it was appended at,
+   * or -1 for records written before the journal kept that.
+   */
+  private void recover(ObjLongConsumer<PostPaymentResponse> recovered) throws IOException {
+    long started = System.nanoTime();
+    List<Path> segments = listSegments();
+    if (segments.isEmpty()) {
+      activeSequence = 0;
+      active = map(segmentPath(0));
+      position = 0;
+      return;
+    }
+    byte[] entry = new byte[ENTRY_SIZE];
+    ByteBuffer entryBuffer = ByteBuffer.wrap(entry);
+    long count = 0;
+    int last = segments.size() - 1;
+    for (int i = 0; i <= last; i++) {
+      Path segment = segments.get(i);
+      // at its own size: a full segment written under a smaller segment-size must stay full
+      MappedByteBuffer buffer = mapExisting(segment);
+      int offset = 0;
+      while (offset + ENTRY_SIZE <= buffer.capacity() && buffer.getInt(offset) == MAGIC) {
+        buffer.get(offset, entry);
+        crc.reset();
+        crc.update(entry, 8, PaymentRecordCodec.RECORD_SIZE);
+        if ((int) crc.getValue() != entryBuffer.getInt(4)) {
+          break;
+        }
+        recovered.accept(PaymentRecordCodec.read(entryBuffer, 8),
+            PaymentRecordCodec.storedAt(entryBuffer, 8));
+        offset += ENTRY_SIZE;
+        count++;
+      }
+      if (offset + ENTRY_SIZE > buffer.capacity() && i < last) {
+        continue;
+      }
+      // the end of the log: a torn record, or the free space of the last segment. Appends are
+      // ordered and a sync covers everything before it, so nothing after this was acknowledged
+      if (offset + ENTRY_SIZE <= buffer.capacity() && buffer.getInt(offset) != 0) {
+        LOG.warn("Discarding torn journal data in {} at offset {}", segment, offset);
+        for (int zero = offset; zero < buffer.capacity(); zero += Long.BYTES) {
+          buffer.putLong(zero, 0L);
+        }
+        buffer.force();
+      }
+      for (Path later : segments.subList(i + 1, segments.size())) {
+        LOG.warn("Discarding journal segment {} after the end of the log in {}", later, segment);
+        Files.delete(later);
+      }
+      activeSequence = sequenceOf(segment);
+      active = buffer;
+      position = offset;
+      break;
+    }
+    written = count;
+    durable = count;
+    LOG.info("Recovered {} payments from {} journal segments in {} ms", count, segments.size(),
+        (System.nanoTime() - started) / 1_000_000);
+  }
+
+  private void roll() {
+    rolled.add(active);
+    activeSequence++;
+    try {
+      active = map(segmentPath(activeSequence));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to roll payment journal segment", e);
+    }
+    position = 0;
+  }
+
+  private MappedByteBuffer map(Path segment) throws IOException {
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.CREATE,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      long size = Math.max(channel.size(), segmentBytes);
+      return channel.map(MapMode.READ_WRITE, 0, size - size % ENTRY_SIZE);
+    }
+  }
+
+  private static MappedByteBuffer mapExisting(Path segment) throws IOException {
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      long size = channel.size();
+      return channel.map(MapMode.READ_WRITE, 0, size - size % ENTRY_SIZE);
+    }
+  }
+
+  private List<Path> listSegments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .filter(path -> {
+            String name = path.getFileName().toString();
+            return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+          })
+          .sorted()
+          .toList();
+    }
+  }
+
+  private Path segmentPath(long sequence) {
+    return directory.resolve(String.format("%s%016d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+  }
+
+  private static long sequenceOf(Path segment) {
+    String name = segment.getFileName().toString();
+    return Long.parseLong(
+        name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+  }
+}
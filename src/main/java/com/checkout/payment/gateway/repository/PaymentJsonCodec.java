@@ -0,0 +1,118 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.utils.JsonBytes;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Writes the GET /payment/{id} body for a stored payment as compact UTF-8 JSON, byte for byte what
+ * Jackson writes for {@link PostPaymentResponse}: same property order, null id, status and
+ * currency left out. Used to encode a payment once when it is stored instead of on every read.
+ */
+final class PaymentJsonCodec {
+
+  private static final byte[] HEX = ascii("0123456789abcdef");
+  private static final byte[] ID = ascii("\"id\":\"");
+  private static final byte[] STATUS = ascii("\"status\":\"");
+  private static final byte[] LAST_FOUR = ascii("\"cardNumberLastFour\":");
+  private static final byte[] EXPIRY_MONTH = ascii("\"expiryMonth\":");
+  private static final byte[] EXPIRY_YEAR = ascii("\"expiryYear\":");
+  private static final byte[] CURRENCY = ascii("\"currency\":");
+  private static final byte[] AMOUNT = ascii("\"amount\":");
+  private static final byte[][] STATUS_NAMES = statusNames();
+  // braces, six commas, every name, the id and status values and four ints at their widest
+  private static final int MAX_FIXED_LENGTH = 2 + 6 + ID.length + 36 + 1 + STATUS.length
+      + Arrays.stream(STATUS_NAMES).mapToInt(name -> name.length).max().orElse(0) + 1
+      + LAST_FOUR.length + EXPIRY_MONTH.length + EXPIRY_YEAR.length + CURRENCY.length
+      + AMOUNT.length + 4 * JsonBytes.MAX_INT_LENGTH;
+
+  private PaymentJsonCodec() {
+  }
+
+  static byte[] encode(PostPaymentResponse payment) {
+    return encode(payment.getId(), payment.getStatus(), payment.getCardNumberLastFour(),
+        payment.getExpiryMonth(), payment.getExpiryYear(), payment.getCurrency(),
+        payment.getAmount());
+  }
+
+  static byte[] encode(UUID id, PaymentStatus status, int cardNumberLastFour, int expiryMonth,
+      int expiryYear, String currency, int amount) {
+    byte[] currencyJson = currency == null ? null : JsonBytes.string(currency);
+    byte[] out = new byte[MAX_FIXED_LENGTH + (currencyJson == null ? 0 : currencyJson.length)];
+    int pos = 0;
+    out[pos++] = '{';
+    if (id != null) {
+      pos = put(out, pos, ID);
+      pos = putUuid(out, pos, id);
+      out[pos++] = '"';
+      out[pos++] = ',';
+    }
+    if (status != null) {
+      pos = put(out, pos, STATUS);
+      pos = put(out, pos, STATUS_NAMES[status.ordinal()]);
+      out[pos++] = '"';
+      out[pos++] = ',';
+    }
+    pos = put(out, pos, LAST_FOUR);
+    pos = JsonBytes.putInt(out, pos, cardNumberLastFour);
+    out[pos++] = ',';
+    pos = put(out, pos, EXPIRY_MONTH);
+    pos = JsonBytes.putInt(out, pos, expiryMonth);
+    out[pos++] = ',';
+    pos = put(out, pos, EXPIRY_YEAR);
+    pos = JsonBytes.putInt(out, pos, expiryYear);
+    out[pos++] = ',';
+    if (currencyJson != null) {
+      pos = put(out, pos, CURRENCY);
+      pos = put(out, pos, currencyJson);
+      out[pos++] = ',';
+    }
+    pos = put(out, pos, AMOUNT);
+    pos = JsonBytes.putInt(out, pos, amount);
+    out[pos++] = '}';
+    return Arrays.copyOf(out, pos);
+  }
+
+  private static int put(byte[] out, int pos, byte[] bytes) {
+    System.arraycopy(bytes, 0, out, pos, bytes.length);
+    return pos + bytes.length;
+  }
+
+  private static int putUuid(byte[] out, int pos, UUID id) {
+    long msb = id.getMostSignificantBits();
+    long lsb = id.getLeastSignificantBits();
+    pos = putHex(out, pos, msb >>> 32, 8);
+    out[pos++] = '-';
+    pos = putHex(out, pos, msb >>> 16, 4);
+    out[pos++] = '-';
+    pos = putHex(out, pos, msb, 4);
+    out[pos++] = '-';
+    pos = putHex(out, pos, lsb >>> 48, 4);
+    out[pos++] = '-';
+    return putHex(out, pos, lsb, 12);
+  }
+
+  private static int putHex(byte[] out, int pos, long value, int digits) {
+    for (int i = digits - 1; i >= 0; i--) {
+      out[pos + i] = HEX[(int) (value & 0xF)];
+      value >>>= 4;
+    }
+    return pos + digits;
+  }
+
+  private static byte[][] statusNames() {
+    PaymentStatus[] statuses = PaymentStatus.values();
+    byte[][] names = new byte[statuses.length][];
+    for (PaymentStatus status : statuses) {
+      names[status.ordinal()] = ascii(status.getName());
+    }
+    return names;
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+}
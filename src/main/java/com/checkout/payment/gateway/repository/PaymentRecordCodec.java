@@ -0,0 +1,116 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.Currency;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Fixed-width binary layout of a stored payment. A record is the payment id followed by its
+ * payload; a zero status byte marks an unused record.
+ *
+ * <pre>
+ *  0  long   id most significant bits
+ *  8  long   id least significant bits
+ * 16  byte   status ordinal + 1
+ * 17  byte   currency ordinal, or NO_CURRENCY
+ * 18  short  card number last four
+ * 20  short  expiry year
+ * 22  byte   expiry month
+ * 23  byte   unused
+ * 24  int    amount in minor units
+ * 28  int    stored at, unsigned epoch seconds, or 0 if not recorded (journal entries only)
+ * </pre>
+ */
+final class PaymentRecordCodec {
+
+  static final int RECORD_SIZE = 32;
+
+  private static final int MSB = 0;
+  private static final int LSB = 8;
+  private static final int STATUS = 16;
+  private static final int CURRENCY = 17;
+  private static final int LAST_FOUR = 18;
+  private static final int EXPIRY_YEAR = 20;
+  private static final int EXPIRY_MONTH = 22;
+  private static final int AMOUNT = 24;
+  private static final int STORED_AT = 28;
+
+  private static final byte NO_CURRENCY = (byte) 0xFF;
+  private static final PaymentStatus[] STATUSES = PaymentStatus.values();
+  private static final Currency[] CURRENCIES = Currency.values();
+
+  private PaymentRecordCodec() {
+  }
+
+  static void write(ByteBuffer buffer, int offset, PostPaymentResponse payment) {
+    buffer.putLong(offset + MSB, payment.getId().getMostSignificantBits());
+    buffer.putLong(offset + LSB, payment.getId().getLeastSignificantBits());
+    buffer.put(offset + CURRENCY, encodeCurrency(payment.getCurrency()));
+    buffer.putShort(offset + LAST_FOUR, (short) payment.getCardNumberLastFour());
+    buffer.putShort(offset + EXPIRY_YEAR, (short) payment.getExpiryYear());
+    buffer.put(offset + EXPIRY_MONTH, (byte) payment.getExpiryMonth());
+    buffer.putInt(offset + AMOUNT, payment.getAmount());
+    buffer.put(offset + STATUS, (byte) (payment.getStatus().ordinal() + 1));
+  }
+
+  static PostPaymentResponse read(ByteBuffer buffer, int offset) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(new UUID(msb(buffer, offset), lsb(buffer, offset)));
+    payment.setStatus(STATUSES[buffer.get(offset + STATUS) - 1]);
+    byte currency = buffer.get(offset + CURRENCY);
+    payment.setCurrency(currency == NO_CURRENCY ? null : CURRENCIES[currency].getCode());
+    payment.setCardNumberLastFour(buffer.getShort(offset + LAST_FOUR));
+    payment.setExpiryYear(buffer.getShort(offset + EXPIRY_YEAR));
+    payment.setExpiryMonth(buffer.get(offset + EXPIRY_MONTH));
+    payment.setAmount(buffer.getInt(offset + AMOUNT));
+    return payment;
+  }
+
+  static byte[] readJson(ByteBuffer buffer, int offset) {
+    byte currency = buffer.get(offset + CURRENCY);
+    return PaymentJsonCodec.encode(new UUID(msb(buffer, offset), lsb(buffer, offset)),
+        STATUSES[buffer.get(offset + STATUS) - 1], buffer.getShort(offset + LAST_FOUR),
+        buffer.get(offset + EXPIRY_MONTH), buffer.getShort(offset + EXPIRY_YEAR),
+        currency == NO_CURRENCY ? null : CURRENCIES[currency].getCode(),
+        buffer.getInt(offset + AMOUNT));
+  }
+
+  static void writeStoredAt(ByteBuffer buffer, int offset, long epochMillis) {
+    buffer.putInt(offset + STORED_AT, (int) (epochMillis / 1000));
+  }
+
+  /**
+   * When the record was stored, to the second, or -1 if that was not recorded.
+   */
+  static long storedAt(ByteBuffer buffer, int offset) {
+    long seconds = Integer.toUnsignedLong(buffer.getInt(offset + STORED_AT));
+    return seconds == 0 ? -1 : seconds * 1000;
+  }
+
+  static boolean isUsed(ByteBuffer buffer, int offset) {
+    return buffer.get(offset + STATUS) != 0;
+  }
+
+  static long msb(ByteBuffer buffer, int offset) {
+    return buffer.getLong(offset + MSB);
+  }
+
+  static long lsb(ByteBuffer buffer, int offset) {
+    return buffer.getLong(offset + LSB);
+  }
+
+  static void validate(PostPaymentResponse payment) {
+    if (payment.getId() == null || payment.getStatus() == null) {
+      throw new IllegalArgumentException("Payment id and status are required");
+    }
+    if (payment.getCurrency() != null) {
+      Currency.valueOf(payment.getCurrency());
+    }
+  }
+
+  private static byte encodeCurrency(String currency) {
+    return currency == null ? NO_CURRENCY : (byte) Currency.valueOf(currency).ordinal();
+  }
+}
@@ -0,0 +1,323 @@
+package com.checkout.payment.gateway.repository;
+
+import com.checkout.payment.gateway.configuration.PaymentSearchProperties;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.Currency;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Secondary index over stored payments, for GET /payments: payment ids by the time they were
+ * stored, status and currency, kept beside whichever {@link PaymentsRepository} holds the payments
+ * themselves.
+ *
+ * <p>Time is cut into buckets of {@code payments.search.bucket-size}, kept in a sorted map so a
+ * time range is a sub-map. A bucket is append-only: ids and millisecond offsets in parallel arrays,
+ * plus one bitmap per status and per currency over the same positions. A query ANDs the bitmaps a
+ * word at a time and only reads the ids of matches, so it never touches the primary store or the
+ * entries it filters out. Because positions never move, (bucket, position) is a stable cursor.
+ *
+ * <p>Buckets older than {@code payments.search.retention} are dropped as new payments arrive. That
+ * window is what the index is sized for: {@code payments.search.max-entries} only guards memory,
+ * dropping the oldest buckets while more ids than that are held, and the bucket being written is
+ * always kept. The index does not follow the repository's own eviction, so it may name payments
+ * the repository no longer holds; callers skip those. Payments recovered from a journal are
+ * indexed at the time the journal recorded for them.
+ */
+@Component
+public class PaymentSearchIndex {
+
+  private static final int INITIAL_CAPACITY = 256;
+  private static final int STATUSES = PaymentStatus.values().length;
+  private static final int CURRENCIES = Currency.values().length;
+
+  private final ConcurrentSkipListMap<Long, Bucket> buckets = new ConcurrentSkipListMap<>();
+  private final long bucketMillis;
+  private final long retentionMillis;
+  private final long maxEntries;
+  private final LongSupplier epochClock;
+  // ids in the buckets still in the map
+  private final AtomicLong entries = new AtomicLong();
+
+  @Autowired
+  public PaymentSearchIndex(PaymentSearchProperties properties) {
+    this(properties, System::currentTimeMillis);
+  }
+
+  PaymentSearchIndex(PaymentSearchProperties properties, LongSupplier epochClock) {
+    this.bucketMillis = properties.bucketSize().toMillis();
+    this.retentionMillis = properties.retention().toMillis();
+    this.maxEntries = properties.maxEntries();
+    this.epochClock = epochClock;
+  }
+
+  /**
+   * Indexes a payment as stored now. Payments never change once stored, so an entry is never
+   * updated, only dropped with its bucket.
+   */
+  public void add(PostPaymentResponse payment) {
+    long now = epochClock.getAsLong();
+    add(payment, now, now);
+  }
+
+  /**
+   * Indexes a payment stored at {@code storedAtMillis}, such as one replayed from the journal at
+   * startup. Payments must be added in the order they were stored; one already past the retention
+   * window is skipped.
+   */
+  public void add(PostPaymentResponse payment, long storedAtMillis) {
+    long now = epochClock.getAsLong();
+    if (bucketStart(storedAtMillis) + bucketMillis <= now - retentionMillis) {
+      return;
+    }
+    add(payment, storedAtMillis, now);
+  }
+
+  private void add(PostPaymentResponse payment, long storedAtMillis, long now) {
+    long start = bucketStart(storedAtMillis);
+    int offset = (int) (storedAtMillis - start);
+    Currency currency = Currency.fromCode(payment.getCurrency());
+    Bucket bucket;
+    do {
+      // a bucket dropped between the lookup and the append refuses it; it is out of the map by
+      // then, so the next lookup makes a new one
+      bucket = buckets.computeIfAbsent(start, Bucket::new);
+    } while (!bucket.add(payment.getId(), offset, payment.getStatus(), currency));
+    entries.incrementAndGet();
+    expire(now);
+  }
+
+  /**
+   * Ids currently indexed.
+   */
+  public long size() {
+    return entries.get();
+  }
+
+  /**
+   * Up to {@code limit} ids of payments stored in {@code [fromMillis, toMillis)}, oldest bucket
+   * first and in storing order within a bucket, optionally of one status and currency. A full page
+   * carries the cursor of the position after its last id; an empty or partial one is the end.
+   *
+   * @param cursor where the previous page stopped, or {@code null} to start at {@code fromMillis}
+   */
+  public Page search(long fromMillis, long toMillis, PaymentStatus status, Currency currency,
+      Cursor cursor, int limit) {
+    List<UUID> ids = new ArrayList<>(Math.min(limit, INITIAL_CAPACITY));
+    // nothing is stored before the epoch, and bucket arithmetic near Long.MIN_VALUE would overflow
+    fromMillis = Math.max(fromMillis, 0);
+    if (fromMillis >= toMillis) {
+      return new Page(ids, null);
+    }
+    long first = bucketStart(fromMillis);
+    int position = 0;
+    if (cursor != null && cursor.bucket() >= first) {
+      first = cursor.bucket();
+      position = cursor.position();
+    }
+    long last = bucketStart(toMillis - 1);
+    if (first > last) {
+      return new Page(ids, null);
+    }
+    for (Map.Entry<Long, Bucket> entry : buckets.subMap(first, true, last, true).entrySet()) {
+      Bucket bucket = entry.getValue();
+      // the cursor's bucket may have expired, in which case the next one is read from its start
+      int from = entry.getKey() == first ? position : 0;
+      int next = bucket.collect(from, fromMillis - bucket.start, toMillis - bucket.start, status,
+          currency, limit, ids);
+      if (ids.size() == limit) {
+        return new Page(ids, new Cursor(bucket.start, next));
+      }
+    }
+    return new Page(ids, null);
+  }
+
+  private long bucketStart(long epochMillis) {
+    return Math.floorDiv(epochMillis, bucketMillis) * bucketMillis;
+  }
+
+  private void expire(long now) {
+    Map.Entry<Long, Bucket> oldest;
+    while ((oldest = buckets.firstEntry()) != null && isDroppable(oldest.getKey(), now)) {
+      if (buckets.remove(oldest.getKey(), oldest.getValue())) {
+        entries.addAndGet(-oldest.getValue().retire());
+      }
+    }
+  }
+
+  private boolean isDroppable(long bucket, long now) {
+    if (bucket + bucketMillis <= now - retentionMillis) {
+      return true;
+    }
+    Map.Entry<Long, Bucket> newest = buckets.lastEntry();
+    return entries.get() > maxEntries && newest != null && bucket < newest.getKey();
+  }
+
+  public record Page(List<UUID> ids, Cursor next) {
+
+  }
+
+  /**
+   * A position in one bucket, passed to clients as twelve bytes of URL-safe Base64.
+   */
+  public record Cursor(long bucket, int position) {
+
+    private static final int BYTES = Long.BYTES + Integer.BYTES;
+
+    public String encode() {
+      ByteBuffer bytes = ByteBuffer.allocate(BYTES).putLong(bucket).putInt(position);
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    /**
+     * The cursor {@code value} encodes, or {@code null} if it is not one this index wrote.
+     */
+    public static Cursor decode(String value) {
+      byte[] bytes;
+      try {
+        bytes = Base64.getUrlDecoder().decode(value);
+      } catch (IllegalArgumentException ex) {
+        return null;
+      }
+      if (bytes.length != BYTES) {
+        return null;
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      long bucket = buffer.getLong();
+      int position = buffer.getInt();
+      return position < 0 ? null : new Cursor(bucket, position);
+    }
+  }
+
+  /**
+   * One time slice. Appends and reads take the lock; a read holds it for one page at most.
+   */
+  private static final class Bucket {
+
+    private final long start;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] mostSignificant = new long[INITIAL_CAPACITY];
+    private long[] leastSignificant = new long[INITIAL_CAPACITY];
+    private int[] offsets = new int[INITIAL_CAPACITY];
+    private final long[][] byStatus = new long[STATUSES][INITIAL_CAPACITY / 64];
+    private final long[][] byCurrency = new long[CURRENCIES][INITIAL_CAPACITY / 64];
+    private int size;
+    private boolean retired;
+
+    private Bucket(long start) {
+      this.start = start;
+    }
+
+    /**
+     * Appends an id, or returns false if the bucket has been dropped from the index.
+     */
+    private boolean add(UUID id, int offset, PaymentStatus status, Currency currency) {
+      lock.lock();
+      try {
+        if (retired) {
+          return false;
+        }
+        int position = size;
+        if (position == offsets.length) {
+          grow();
+        }
+        mostSignificant[position] = id.getMostSignificantBits();
+        leastSignificant[position] = id.getLeastSignificantBits();
+        offsets[position] = offset;
+        if (status != null) {
+          byStatus[status.ordinal()][position >>> 6] |= 1L << position;
+        }
+        if (currency != null) {
+          byCurrency[currency.ordinal()][position >>> 6] |= 1L << position;
+        }
+        size = position + 1;
+        return true;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Refuses further appends and returns how many ids the bucket held.
+     */
+    private int retire() {
+      lock.lock();
+      try {
+        retired = true;
+        return size;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /**
+     * Appends matches from {@code from} on until {@code out} holds {@code limit} ids, and returns
+     * the position to resume at.
+     */
+    private int collect(int from, long fromOffset, long toOffset, PaymentStatus status,
+        Currency currency, int limit, List<UUID> out) {
+      lock.lock();
+      try {
+        long[] statusWords = status == null ? null : byStatus[status.ordinal()];
+        long[] currencyWords = currency == null ? null : byCurrency[currency.ordinal()];
+        int end = size;
+        for (int word = from >>> 6; word << 6 < end; word++) {
+          long bits = -1L;
+          if (statusWords != null) {
+            bits &= statusWords[word];
+          }
+          if (currencyWords != null) {
+            bits &= currencyWords[word];
+          }
+          if (word == from >>> 6) {
+            bits &= -1L << from;
+          }
+          int remaining = end - (word << 6);
+          if (remaining < 64) {
+            bits &= (1L << remaining) - 1;
+          }
+          while (bits != 0) {
+            int position = word << 6 | Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            // only the first and last bucket of a range hold entries outside it
+            int offset = offsets[position];
+            if (offset >= fromOffset && offset < toOffset) {
+              out.add(new UUID(mostSignificant[position], leastSignificant[position]));
+              if (out.size() == limit) {
+                return position + 1;
+              }
+            }
+          }
+        }
+        return Math.max(from, end);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void grow() {
+      int capacity = offsets.length * 2;
+      mostSignificant = Arrays.copyOf(mostSignificant, capacity);
+      leastSignificant = Arrays.copyOf(leastSignificant, capacity);
+      offsets = Arrays.copyOf(offsets, capacity);
+      for (int i = 0; i < STATUSES; i++) {
+        byStatus[i] = Arrays.copyOf(byStatus[i], capacity / 64);
+      }
+      for (int i = 0; i < CURRENCIES; i++) {
+        byCurrency[i] = Arrays.copyOf(byCurrency[i], capacity / 64);
+      }
+    }
+  }
+}
@@ -1,22 +1,47 @@
 package com.checkout.payment.gateway.repository;
 
 import com.checkout.payment.gateway.model.PostPaymentResponse;
-import java.util.HashMap;
 import java.util.Optional;
 import java.util.UUID;
-import org.springframework.stereotype.Repository;
 
-@Repository
-public class PaymentsRepository {
+public interface PaymentsRepository {
 
-  private final HashMap<UUID, PostPaymentResponse> payments = new HashMap<>();
+  void add(PostPaymentResponse payment);
 
-  public void add(PostPaymentResponse payment) {
-    payments.put(payment.getId(), payment);
+  Optional<PostPaymentResponse> get(UUID id);
+
+  /**
+   * The payment as the GET /payment/{id} body: compact UTF-8 JSON, identical to what Jackson writes
+   * for {@link #get}. Stores that keep the encoded form return it as is, so callers must not modify
+   * the array.
+   */
+  default Optional<byte[]> getJson(UUID id) {
+    return get(id).map(PaymentJsonCodec::encode);
+  }
+
+  /**
+   * {@link #get} for bulk reads such as search and export: eviction order and lookup statistics
+   * are left as they are, so reading a day of payments neither keeps them nor skews the hit rate.
+   */
+  Optional<PostPaymentResponse> peek(UUID id);
+
+  /**
+   * {@link #getJson} without the side effects {@link #peek} avoids.
+   */
+  default Optional<byte[]> peekJson(UUID id) {
+    return peek(id).map(PaymentJsonCodec::encode);
   }
 
-  public Optional<PostPaymentResponse> get(UUID id) {
-    return Optional.ofNullable(payments.get(id));
+  long size();
+
+  RepositoryStats stats();
+
+  /**
+   * Whether {@link #add} waits on I/O, in which case callers on a non-blocking thread must hand the
+   * write to a scheduler that tolerates blocking.
+   */
+  default boolean blockingWrites() {
+    return false;
   }
 
 }
@@ -0,0 +1,11 @@
+package com.checkout.payment.gateway.repository;
+
+public record RepositoryStats(
+    long size,
+    long hits,
+    long misses,
+    long evictions,
+    long expirations
+) {
+
+}
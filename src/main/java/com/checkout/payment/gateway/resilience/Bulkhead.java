@@ -0,0 +1,57 @@
+package com.checkout.payment.gateway.resilience;
+
+import com.checkout.payment.gateway.configuration.BulkheadProperties;
+import com.checkout.payment.gateway.exception.ServiceUnavailableException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caps the number of bank calls in flight. Calls over the cap are rejected immediately rather than
+ * queued, so a slow bank cannot absorb every request the gateway is handling.
+ */
+public class Bulkhead {
+
+  private final int maxConcurrentCalls;
+  private final AtomicInteger activeCalls = new AtomicInteger();
+  private final LongAdder rejectedCalls = new LongAdder();
+
+  public Bulkhead(BulkheadProperties properties) {
+    this.maxConcurrentCalls = properties.maxConcurrentCalls();
+  }
+
+  public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+    return Mono.defer(() -> {
+      if (!tryAcquire()) {
+        return Mono.error(new ServiceUnavailableException("Acquiring bank bulkhead is full"));
+      }
+      return Mono.defer(call).doFinally(signal -> activeCalls.decrementAndGet());
+    });
+  }
+
+  public int activeCalls() {
+    return activeCalls.get();
+  }
+
+  public int maxConcurrentCalls() {
+    return maxConcurrentCalls;
+  }
+
+  public long rejectedCount() {
+    return rejectedCalls.sum();
+  }
+
+  private boolean tryAcquire() {
+    while (true) {
+      int active = activeCalls.get();
+      if (active >= maxConcurrentCalls) {
+        rejectedCalls.increment();
+        return false;
+      }
+      if (activeCalls.compareAndSet(active, active + 1)) {
+        return true;
+      }
+    }
+  }
+}
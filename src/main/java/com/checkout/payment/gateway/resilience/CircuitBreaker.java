@@ -0,0 +1,238 @@
+package com.checkout.payment.gateway.resilience;
+
+import com.checkout.payment.gateway.configuration.CircuitBreakerProperties;
+import com.checkout.payment.gateway.exception.ServiceUnavailableException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Count-based circuit breaker. While CLOSED the outcome of the last {@code slidingWindowSize}
+ * calls is kept in a lock-free ring; once {@code minimumCalls} are recorded and either the failure
+ * rate or the slow-call rate reaches its threshold the circuit OPENs and every call is rejected
+ * without touching the bank. After {@code openDuration} the next caller moves it to HALF_OPEN,
+ * which lets {@code halfOpenCalls} probes through: all must succeed quickly to CLOSE it, any
+ * failure re-OPENs. A cancelled probe hands its permit back so another caller can probe instead.
+ */
+public class CircuitBreaker {
+
+  public enum State {
+    CLOSED,
+    OPEN,
+    HALF_OPEN
+  }
+
+  private static final int RECORDED = 1;
+  private static final int FAILURE = 2;
+  private static final int SLOW = 4;
+
+  // what acquire() grants when it is not a probe, which is tagged with its HALF_OPEN generation
+  private static final int REJECTED = -1;
+  private static final int NOT_A_PROBE = -2;
+
+  private final boolean enabled;
+  private final int minimumCalls;
+  private final int failureRateThreshold;
+  private final int slowCallRateThreshold;
+  private final long slowCallNanos;
+  private final long openNanos;
+  private final int halfOpenCalls;
+  private final LongSupplier nanoClock;
+
+  private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+  private final AtomicIntegerArray window;
+  private final AtomicLong windowCursor = new AtomicLong();
+  private final AtomicInteger recordedCalls = new AtomicInteger();
+  private final AtomicInteger failedCalls = new AtomicInteger();
+  private final AtomicInteger slowCalls = new AtomicInteger();
+  private volatile long openedAt;
+  private final AtomicInteger halfOpenPermits = new AtomicInteger();
+  // bumped on every OPEN so a probe cancelled late cannot free a permit of the next HALF_OPEN
+  private final AtomicInteger halfOpenGeneration = new AtomicInteger();
+  private final AtomicInteger halfOpenSuccesses = new AtomicInteger();
+
+  private final LongAdder[][] transitions = new LongAdder[3][3];
+  private final LongAdder rejectedCalls = new LongAdder();
+
+  public CircuitBreaker(CircuitBreakerProperties properties) {
+    this(properties, System::nanoTime);
+  }
+
+  public CircuitBreaker(CircuitBreakerProperties properties, LongSupplier nanoClock) {
+    this.enabled = properties.enabled();
+    this.window = new AtomicIntegerArray(Math.max(1, properties.slidingWindowSize()));
+    this.minimumCalls = Math.max(1, Math.min(properties.minimumCalls(), window.length()));
+    this.failureRateThreshold = properties.failureRateThreshold();
+    this.slowCallRateThreshold = properties.slowCallRateThreshold();
+    this.slowCallNanos = properties.slowCallDuration().toNanos();
+    this.openNanos = properties.openDuration().toNanos();
+    this.halfOpenCalls = Math.max(1, properties.halfOpenCalls());
+    this.nanoClock = nanoClock;
+    for (LongAdder[] from : transitions) {
+      for (int to = 0; to < from.length; to++) {
+        from[to] = new LongAdder();
+      }
+    }
+  }
+
+  /**
+   * Runs {@code call} if the circuit permits it and records its latency and outcome. Errors for
+   * which {@code isFailure} is false (e.g. the bank rejecting a malformed request) count as healthy
+   * responses.
+   */
+  public <T> Mono<T> execute(Supplier<Mono<T>> call, Predicate<Throwable> isFailure) {
+    return Mono.defer(() -> {
+      int permit = acquire();
+      if (permit == REJECTED) {
+        return Mono.error(
+            new ServiceUnavailableException("Acquiring bank circuit breaker is open"));
+      }
+      long started = nanoClock.getAsLong();
+      return Mono.defer(call)
+          .doOnSuccess(value -> onResult(nanoClock.getAsLong() - started, false))
+          .doOnError(ex -> onResult(nanoClock.getAsLong() - started, isFailure.test(ex)))
+          .doOnCancel(() -> onCancelled(permit));
+    });
+  }
+
+  public boolean tryAcquirePermission() {
+    return acquire() != REJECTED;
+  }
+
+  /**
+   * @return {@link #REJECTED}, {@link #NOT_A_PROBE}, or the generation a HALF_OPEN probe permit
+   *     was taken from
+   */
+  private int acquire() {
+    if (!enabled) {
+      return NOT_A_PROBE;
+    }
+    State current = state.get();
+    if (current == State.CLOSED) {
+      return NOT_A_PROBE;
+    }
+    if (current == State.OPEN) {
+      if (nanoClock.getAsLong() - openedAt < openNanos) {
+        rejectedCalls.increment();
+        return REJECTED;
+      }
+      transition(State.OPEN, State.HALF_OPEN);
+    }
+    int generation = halfOpenGeneration.get();
+    if (state.get() == State.HALF_OPEN && tryTakeProbe()) {
+      return generation;
+    }
+    rejectedCalls.increment();
+    return REJECTED;
+  }
+
+  // bounded so rejected callers never push the count past halfOpenCalls
+  private boolean tryTakeProbe() {
+    while (true) {
+      int taken = halfOpenPermits.get();
+      if (taken >= halfOpenCalls) {
+        return false;
+      }
+      if (halfOpenPermits.compareAndSet(taken, taken + 1)) {
+        return true;
+      }
+    }
+  }
+
+  public void onResult(long durationNanos, boolean failure) {
+    if (!enabled) {
+      return;
+    }
+    boolean slow = durationNanos >= slowCallNanos;
+    State current = state.get();
+    if (current == State.HALF_OPEN) {
+      if (failure || slow) {
+        open(State.HALF_OPEN);
+      } else if (halfOpenSuccesses.incrementAndGet() >= halfOpenCalls) {
+        clearWindow();
+        transition(State.HALF_OPEN, State.CLOSED);
+      }
+    } else if (current == State.CLOSED) {
+      record(failure, slow);
+      int recorded = recordedCalls.get();
+      if (recorded >= minimumCalls
+          && (failedCalls.get() * 100 >= failureRateThreshold * recorded
+          || slowCalls.get() * 100 >= slowCallRateThreshold * recorded)) {
+        open(State.CLOSED);
+      }
+    }
+  }
+
+  private void onCancelled(int permit) {
+    if (permit >= 0 && permit == halfOpenGeneration.get() && state.get() == State.HALF_OPEN) {
+      halfOpenPermits.decrementAndGet();
+    }
+  }
+
+  public State state() {
+    return state.get();
+  }
+
+  public double failureRate() {
+    int recorded = recordedCalls.get();
+    return recorded == 0 ? 0 : (double) failedCalls.get() / recorded;
+  }
+
+  public double slowCallRate() {
+    int recorded = recordedCalls.get();
+    return recorded == 0 ? 0 : (double) slowCalls.get() / recorded;
+  }
+
+  public long transitionCount(State from, State to) {
+    return transitions[from.ordinal()][to.ordinal()].sum();
+  }
+
+  public long rejectedCount() {
+    return rejectedCalls.sum();
+  }
+
+  private void record(boolean failure, boolean slow) {
+    int outcome = RECORDED | (failure ? FAILURE : 0) | (slow ? SLOW : 0);
+    int slot = (int) (windowCursor.getAndIncrement() % window.length());
+    int previous = window.getAndSet(slot, outcome);
+    if ((previous & RECORDED) == 0) {
+      recordedCalls.incrementAndGet();
+    }
+    failedCalls.addAndGet(bit(outcome, FAILURE) - bit(previous, FAILURE));
+    slowCalls.addAndGet(bit(outcome, SLOW) - bit(previous, SLOW));
+  }
+
+  private void open(State from) {
+    // reset probes before publishing OPEN so the later move to HALF_OPEN starts from zero
+    halfOpenGeneration.incrementAndGet();
+    halfOpenPermits.set(0);
+    halfOpenSuccesses.set(0);
+    openedAt = nanoClock.getAsLong();
+    transition(from, State.OPEN);
+  }
+
+  private void clearWindow() {
+    for (int i = 0; i < window.length(); i++) {
+      window.set(i, 0);
+    }
+    recordedCalls.set(0);
+    failedCalls.set(0);
+    slowCalls.set(0);
+  }
+
+  private void transition(State from, State to) {
+    if (state.compareAndSet(from, to)) {
+      transitions[from.ordinal()][to.ordinal()].increment();
+    }
+  }
+
+  private static int bit(int outcome, int flag) {
+    return (outcome & flag) == 0 ? 0 : 1;
+  }
+}
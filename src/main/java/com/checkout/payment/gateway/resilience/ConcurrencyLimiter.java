@@ -0,0 +1,149 @@
+package com.checkout.payment.gateway.resilience;
+
+import com.checkout.payment.gateway.configuration.ConcurrencyLimitProperties;
+import com.checkout.payment.gateway.exception.ServiceUnavailableException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adaptive cap on bank calls in flight, set from their round-trip time with a gradient rule. Each
+ * successful call's RTT is compared with a long moving average of it. While the bank answers
+ * within {@code rttTolerance} of that average the limit grows by about its square root; as RTT
+ * climbs past it, queueing has started somewhere and the limit moves toward the ratio of the two,
+ * smoothed over several samples. A failure that took longer than the tolerated RTT, such as a
+ * timeout, cuts the limit by {@code backoffRatio}. Fast failures, like an open circuit or a 4xx,
+ * say nothing about load and are ignored.
+ *
+ * <p>Calls over the limit are rejected at once with a 503 instead of waiting behind slow ones.
+ * Samples taken while fewer than half the permits are in use leave the limit alone, since
+ * latency at low load says nothing about where the limit should be. The {@link Bulkhead} stays
+ * behind this as the fixed upper bound.
+ */
+public class ConcurrencyLimiter {
+
+  private final boolean enabled;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double rttTolerance;
+  private final double smoothing;
+  private final double longWindowFactor;
+  private final double backoffRatio;
+  private final LongSupplier nanoClock;
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder shedCalls = new LongAdder();
+  private final LongAdder drops = new LongAdder();
+  private final ReentrantLock lock = new ReentrantLock();
+  private volatile double limit;
+  // guarded by lock
+  private double longRttNanos;
+
+  public ConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+    this(properties, System::nanoTime);
+  }
+
+  public ConcurrencyLimiter(ConcurrencyLimitProperties properties, LongSupplier nanoClock) {
+    this.enabled = properties.enabled();
+    this.minLimit = Math.max(1, properties.minLimit());
+    this.maxLimit = Math.max(minLimit, properties.maxLimit());
+    this.rttTolerance = properties.rttTolerance();
+    this.smoothing = properties.smoothing();
+    this.longWindowFactor = 2.0 / (Math.max(1, properties.longWindow()) + 1);
+    this.backoffRatio = properties.backoffRatio();
+    this.nanoClock = nanoClock;
+    this.limit = clamp(properties.initialLimit());
+  }
+
+  public <T> Mono<T> execute(Supplier<Mono<T>> call) {
+    if (!enabled) {
+      return Mono.defer(call);
+    }
+    return Mono.defer(() -> {
+      if (!tryAcquire()) {
+        return Mono.error(new ServiceUnavailableException(
+            "Acquiring bank concurrency limit of " + limit() + " reached"));
+      }
+      long started = nanoClock.getAsLong();
+      return Mono.defer(call)
+          .doOnSuccess(value -> onSuccess(nanoClock.getAsLong() - started))
+          .doOnError(ex -> onFailure(nanoClock.getAsLong() - started))
+          .doFinally(signal -> release());
+    });
+  }
+
+  public boolean tryAcquire() {
+    while (true) {
+      int current = inFlight.get();
+      if (current >= (int) limit) {
+        shedCalls.increment();
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  public void release() {
+    inFlight.decrementAndGet();
+  }
+
+  public void onSuccess(long rttNanos) {
+    int busy = inFlight.get();
+    // the estimate only needs some of the samples, so a contended one is skipped, not queued
+    if (!lock.tryLock()) {
+      return;
+    }
+    try {
+      double rtt = Math.max(1, rttNanos);
+      longRttNanos = longRttNanos == 0
+          ? rtt
+          : longRttNanos + (rtt - longRttNanos) * longWindowFactor;
+      double current = limit;
+      if (busy * 2 < current) {
+        return;
+      }
+      double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / rtt));
+      double target = current * gradient + Math.sqrt(current);
+      limit = clamp(current * (1 - smoothing) + target * smoothing);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public void onFailure(long rttNanos) {
+    lock.lock();
+    try {
+      if (longRttNanos > 0 && rttNanos > rttTolerance * longRttNanos) {
+        limit = clamp(limit * backoffRatio);
+        drops.increment();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  public int limit() {
+    return (int) limit;
+  }
+
+  public int inFlight() {
+    return inFlight.get();
+  }
+
+  public long shedCount() {
+    return shedCalls.sum();
+  }
+
+  public long dropCount() {
+    return drops.sum();
+  }
+
+  private double clamp(double value) {
+    return Math.max(minLimit, Math.min(maxLimit, value));
+  }
+}
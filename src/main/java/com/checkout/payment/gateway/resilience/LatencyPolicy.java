@@ -0,0 +1,116 @@
+package com.checkout.payment.gateway.resilience;
+
+import com.checkout.payment.gateway.configuration.BankLatencyProperties;
+import com.checkout.payment.gateway.configuration.BankLatencyProperties.Hedging;
+import com.checkout.payment.gateway.configuration.BankLatencyProperties.Timeout;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Derives per-call limits from recent bank latency. The timeout is the configured percentile times
+ * a multiplier, clamped to [min, max]; the hedge delay is the hedging percentile. Until the window
+ * holds {@code minimumSamples} calls the timeout is max and no hedges are sent. Both are recomputed
+ * at most every 100 ms so the histogram is not scanned on every call.
+ */
+public class LatencyPolicy {
+
+  private static final long REFRESH_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final LatencyTracker tracker;
+  private final long minimumSamples;
+  private final Timeout timeout;
+  private final Hedging hedging;
+  private final LongSupplier nanoClock;
+  private volatile Limits limits;
+
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder hedges = new LongAdder();
+  private final LongAdder hedgeWins = new LongAdder();
+
+  public LatencyPolicy(BankLatencyProperties properties, LatencyTracker tracker) {
+    this(properties, tracker, System::nanoTime);
+  }
+
+  public LatencyPolicy(BankLatencyProperties properties, LatencyTracker tracker,
+      LongSupplier nanoClock) {
+    this.tracker = tracker;
+    this.minimumSamples = properties.minimumSamples();
+    this.timeout = properties.timeout();
+    this.hedging = properties.hedging();
+    this.nanoClock = nanoClock;
+  }
+
+  public LatencyTracker tracker() {
+    return tracker;
+  }
+
+  public Duration timeout() {
+    return currentLimits().timeout();
+  }
+
+  /** Delay before a hedged attempt, or {@code null} when hedging is off or not yet warmed up. */
+  public Duration hedgeDelay() {
+    return currentLimits().hedgeDelay();
+  }
+
+  public void onTimeout() {
+    timeouts.increment();
+  }
+
+  public void onHedge() {
+    hedges.increment();
+  }
+
+  public void onHedgeWin() {
+    hedgeWins.increment();
+  }
+
+  public long timeoutCount() {
+    return timeouts.sum();
+  }
+
+  public long hedgeCount() {
+    return hedges.sum();
+  }
+
+  public long hedgeWinCount() {
+    return hedgeWins.sum();
+  }
+
+  private Limits currentLimits() {
+    long now = nanoClock.getAsLong();
+    Limits current = limits;
+    if (current != null && now - current.computedAt() < REFRESH_NANOS) {
+      return current;
+    }
+    // concurrent refreshes compute the same answer, so no lock is taken
+    current = computeLimits(now);
+    limits = current;
+    return current;
+  }
+
+  private Limits computeLimits(long now) {
+    if (tracker.count() < minimumSamples) {
+      return new Limits(now, timeout.max(), null);
+    }
+    Duration callTimeout = timeout.max();
+    if (timeout.adaptive()) {
+      long nanos = (long) (tracker.percentile(timeout.percentile()).toNanos()
+          * timeout.multiplier());
+      callTimeout = Duration.ofNanos(
+          Math.max(timeout.min().toNanos(), Math.min(timeout.max().toNanos(), nanos)));
+    }
+    Duration hedgeDelay = null;
+    if (hedging.enabled()) {
+      Duration observed = tracker.percentile(hedging.percentile());
+      hedgeDelay = observed.compareTo(hedging.minDelay()) < 0 ? hedging.minDelay() : observed;
+    }
+    return new Limits(now, callTimeout, hedgeDelay);
+  }
+
+  private record Limits(long computedAt, Duration timeout, Duration hedgeDelay) {
+
+  }
+}
@@ -0,0 +1,137 @@
+package com.checkout.payment.gateway.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Rolling latency histogram over the last {@code window}, split into {@code slices} so old samples
+ * age out a slice at a time. Buckets are log-linear in microseconds (8 sub-buckets per power of
+ * two, so a percentile is at most 12.5% above the true value) and recording is a single atomic
+ * add.
+ */
+public class LatencyTracker {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+  // 2^37 us is over a day; anything slower lands in the last bucket
+  private static final int MAX_EXPONENT = 37;
+  private static final int BUCKETS =
+      LINEAR_LIMIT + (MAX_EXPONENT - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+  private final Slice[] slices;
+  private final long sliceNanos;
+  private final LongSupplier nanoClock;
+
+  public LatencyTracker(Duration window, int slices) {
+    this(window, slices, System::nanoTime);
+  }
+
+  public LatencyTracker(Duration window, int slices, LongSupplier nanoClock) {
+    int count = Math.max(1, slices);
+    this.slices = new Slice[count];
+    this.sliceNanos = Math.max(1, window.toNanos() / count);
+    this.nanoClock = nanoClock;
+    for (int i = 0; i < count; i++) {
+      this.slices[i] = new Slice();
+    }
+  }
+
+  public void record(long durationNanos) {
+    long epoch = nanoClock.getAsLong() / sliceNanos;
+    Slice slice = slices[(int) Math.floorMod(epoch, slices.length)];
+    slice.roll(epoch);
+    slice.counts.incrementAndGet(bucketOf(TimeUnit.NANOSECONDS.toMicros(durationNanos)));
+  }
+
+  /** Samples currently inside the window. */
+  public long count() {
+    long epoch = nanoClock.getAsLong() / sliceNanos;
+    long count = 0;
+    for (Slice slice : slices) {
+      if (slice.isLive(epoch, slices.length)) {
+        for (int i = 0; i < BUCKETS; i++) {
+          count += slice.counts.get(i);
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Upper bound of the bucket holding the {@code quantile} sample, or {@code null} with no samples
+   * in the window.
+   */
+  public Duration percentile(double quantile) {
+    long epoch = nanoClock.getAsLong() / sliceNanos;
+    long[] merged = new long[BUCKETS];
+    long total = 0;
+    for (Slice slice : slices) {
+      if (slice.isLive(epoch, slices.length)) {
+        for (int i = 0; i < BUCKETS; i++) {
+          long count = slice.counts.get(i);
+          merged[i] += count;
+          total += count;
+        }
+      }
+    }
+    if (total == 0) {
+      return null;
+    }
+    long rank = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += merged[i];
+      if (seen >= rank) {
+        return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(upperBoundOf(i)));
+      }
+    }
+    return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(upperBoundOf(BUCKETS - 1)));
+  }
+
+  static int bucketOf(long micros) {
+    if (micros < LINEAR_LIMIT) {
+      return (int) Math.max(0, micros);
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(micros);
+    if (exponent >= MAX_EXPONENT) {
+      return BUCKETS - 1;
+    }
+    int subBucket = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+    return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+  }
+
+  static long upperBoundOf(int bucket) {
+    if (bucket < LINEAR_LIMIT) {
+      return bucket;
+    }
+    int offset = bucket - LINEAR_LIMIT;
+    int shift = offset / SUB_BUCKETS + 1;
+    long lower = (long) (SUB_BUCKETS + offset % SUB_BUCKETS) << shift;
+    return lower + (1L << shift) - 1;
+  }
+
+  private static final class Slice {
+
+    private final AtomicLong epoch = new AtomicLong(Long.MIN_VALUE);
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private void roll(long current) {
+      long seen = epoch.get();
+      // a sample racing with the reset may be lost, which a rolling estimate can afford
+      if (seen != current && epoch.compareAndSet(seen, current)) {
+        for (int i = 0; i < BUCKETS; i++) {
+          counts.set(i, 0);
+        }
+      }
+    }
+
+    private boolean isLive(long current, int slices) {
+      long seen = epoch.get();
+      return seen != Long.MIN_VALUE && current - seen < slices;
+    }
+  }
+}
@@ -0,0 +1,114 @@
+package com.checkout.payment.gateway.resilience;
+
+import com.checkout.payment.gateway.configuration.RateLimitProperties;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * One token bucket per merchant: {@code permitsPerSecond} refilled continuously, up to
+ * {@code burst} saved. Each bucket is kept as a single timestamp, the time it would next be full
+ * (GCRA), so taking a permit is one compare-and-set with no refill bookkeeping and no lock.
+ *
+ * <p>At most {@code maxMerchants} buckets are kept. Once that many exist, merchants without one
+ * share a single overflow bucket. A bucket whose timestamp has passed is full, the same as a new
+ * one, so idle merchants can be dropped without changing any outcome; when the map is full they
+ * are swept out, by one thread and no more often than a bucket takes to refill, so a stream of
+ * new merchants costs one scan per refill period rather than one per request.
+ */
+public class MerchantRateLimiter {
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final long intervalNanos;
+  private final long burstNanos;
+  private final int maxMerchants;
+  private final LongSupplier nanoClock;
+  private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+  // buckets in the map, reserved before each insert so the map never exceeds maxMerchants
+  private final AtomicInteger bucketCount = new AtomicInteger();
+  private final AtomicLong overflow;
+  private final AtomicLong nextSweep;
+  private final LongAdder limitedRequests = new LongAdder();
+
+  public MerchantRateLimiter(RateLimitProperties properties) {
+    this(properties, System::nanoTime);
+  }
+
+  public MerchantRateLimiter(RateLimitProperties properties, LongSupplier nanoClock) {
+    this.intervalNanos = NANOS_PER_SECOND / Math.max(1, properties.permitsPerSecond());
+    this.burstNanos = intervalNanos * Math.max(1, properties.burst());
+    this.maxMerchants = Math.max(0, properties.maxMerchants());
+    this.nanoClock = nanoClock;
+    long now = nanoClock.getAsLong();
+    this.overflow = new AtomicLong(now);
+    this.nextSweep = new AtomicLong(now);
+  }
+
+  /**
+   * Takes a permit for {@code merchant}.
+   *
+   * @return 0 when the request may go ahead, otherwise the nanoseconds until the next permit
+   */
+  public long tryAcquire(String merchant) {
+    long now = nanoClock.getAsLong();
+    AtomicLong fullAt = buckets.get(merchant);
+    if (fullAt == null) {
+      fullAt = newBucket(merchant, now);
+    }
+    while (true) {
+      long current = fullAt.get();
+      long next = Math.max(current - now, 0) + intervalNanos;
+      if (next > burstNanos) {
+        limitedRequests.increment();
+        return next - burstNanos;
+      }
+      if (fullAt.compareAndSet(current, now + next)) {
+        return 0;
+      }
+    }
+  }
+
+  private AtomicLong newBucket(String merchant, long now) {
+    if (bucketCount.get() >= maxMerchants) {
+      sweepIdle(now);
+    }
+    AtomicLong bucket = buckets.computeIfAbsent(merchant, key -> reserve() ? new AtomicLong(now)
+        : null);
+    return bucket == null ? overflow : bucket;
+  }
+
+  private boolean reserve() {
+    if (bucketCount.incrementAndGet() <= maxMerchants) {
+      return true;
+    }
+    bucketCount.decrementAndGet();
+    return false;
+  }
+
+  private void sweepIdle(long now) {
+    long due = nextSweep.get();
+    if (now - due < 0 || !nextSweep.compareAndSet(due, now + burstNanos)) {
+      return;
+    }
+    Iterator<Map.Entry<String, AtomicLong>> entries = buckets.entrySet().iterator();
+    while (entries.hasNext()) {
+      Map.Entry<String, AtomicLong> entry = entries.next();
+      if (entry.getValue().get() - now <= 0 && buckets.remove(entry.getKey(), entry.getValue())) {
+        bucketCount.decrementAndGet();
+      }
+    }
+  }
+
+  public int merchants() {
+    return buckets.size();
+  }
+
+  public long limitedCount() {
+    return limitedRequests.sum();
+  }
+}
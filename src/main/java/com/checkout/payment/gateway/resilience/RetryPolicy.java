@@ -0,0 +1,190 @@
+package com.checkout.payment.gateway.resilience;
+
+import com.checkout.payment.gateway.configuration.BankRetryProperties;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Retries calls that failed in a way worth trying again, up to {@code maxAttempts} attempts in
+ * all. Before retry n the call waits a random time between zero and {@code baseDelay * 2^(n-1)},
+ * capped at {@code maxDelay} (exponential backoff with full jitter), so callers that failed
+ * together do not come back together. No retry is scheduled that would start after
+ * {@code deadline} from the first attempt.
+ *
+ * <p>Retries are paid for from a budget shared by every call. Each call deposits
+ * {@code budget.percent} of a retry and each retry withdraws a whole one, so retries stay within
+ * that percentage of live traffic however many calls fail; when the bank is down, load on it
+ * grows by the budget and not by {@code maxAttempts} times. {@code budget.min-per-second} keeps a
+ * few retries available at low traffic, and the balance never exceeds {@code budget.burst}
+ * retries, which is also where it starts. Hedged requests are paid from the same budget, so
+ * retries and hedges together stay within it.
+ */
+public class RetryPolicy {
+
+  // the balance is kept in thousandths of a retry so small percentages still add up
+  private static final long ONE_RETRY = 1_000;
+
+  private final boolean enabled;
+  private final int maxAttempts;
+  private final double baseDelayNanos;
+  private final double maxDelayNanos;
+  private final long deadlineNanos;
+  private final long deposit;
+  private final double refillPerNano;
+  private final long maxBalance;
+  private final LongSupplier nanoClock;
+  private final DoubleSupplier random;
+
+  private final AtomicLong balance;
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder budgetExhausted = new LongAdder();
+  private final LongAdder deadlineExceeded = new LongAdder();
+  private final ReentrantLock refillLock = new ReentrantLock();
+  // guarded by refillLock
+  private long lastRefill;
+
+  public RetryPolicy(BankRetryProperties properties) {
+    this(properties, System::nanoTime, () -> ThreadLocalRandom.current().nextDouble());
+  }
+
+  public RetryPolicy(BankRetryProperties properties, LongSupplier nanoClock,
+      DoubleSupplier random) {
+    this.enabled = properties.enabled();
+    this.maxAttempts = Math.max(1, properties.maxAttempts());
+    this.baseDelayNanos = properties.baseDelay().toNanos();
+    this.maxDelayNanos = properties.maxDelay().toNanos();
+    this.deadlineNanos = properties.deadline().toNanos();
+    this.deposit = Math.round(properties.budget().percent() / 100 * ONE_RETRY);
+    this.refillPerNano = properties.budget().minPerSecond() * ONE_RETRY / 1e9;
+    this.maxBalance = Math.max(0, properties.budget().burst()) * ONE_RETRY;
+    this.nanoClock = nanoClock;
+    this.random = random;
+    this.balance = new AtomicLong(maxBalance);
+    this.lastRefill = nanoClock.getAsLong();
+  }
+
+  public <T> Mono<T> execute(Supplier<Mono<T>> call, Predicate<Throwable> isRetryable) {
+    if (!enabled) {
+      return Mono.defer(call);
+    }
+    return Mono.defer(() -> {
+      onCall();
+      return attempt(call, isRetryable, 1, nanoClock.getAsLong());
+    });
+  }
+
+  private <T> Mono<T> attempt(Supplier<Mono<T>> call, Predicate<Throwable> isRetryable,
+      int attempt, long started) {
+    return Mono.defer(call).onErrorResume(isRetryable, ex -> {
+      long delay = backoff(attempt, started);
+      if (delay < 0) {
+        return Mono.error(ex);
+      }
+      return Mono.delay(Duration.ofNanos(delay))
+          .then(attempt(call, isRetryable, attempt + 1, started));
+    });
+  }
+
+  /**
+   * Adds this call's share of a retry to the budget.
+   */
+  public void onCall() {
+    balance.accumulateAndGet(deposit, (current, amount) -> Math.min(maxBalance, current + amount));
+  }
+
+  /**
+   * Takes a hedged request from the budget, or counts a refusal. With retries disabled there is no
+   * budget and hedges are always allowed.
+   */
+  public boolean tryHedge() {
+    if (!enabled) {
+      return true;
+    }
+    if (!withdraw()) {
+      budgetExhausted.increment();
+      return false;
+    }
+    return true;
+  }
+
+  /**
+   * Nanoseconds to wait before retrying a call whose attempt {@code attempt} just failed, or -1 if
+   * it is not retried. A positive answer has already taken the retry from the budget.
+   *
+   * @param started when the call's first attempt started, on the policy's clock
+   */
+  public long backoff(int attempt, long started) {
+    if (attempt >= maxAttempts) {
+      return -1;
+    }
+    double ceiling = Math.min(maxDelayNanos, baseDelayNanos * Math.pow(2, attempt - 1));
+    long delay = (long) (random.getAsDouble() * ceiling);
+    if (nanoClock.getAsLong() + delay - started > deadlineNanos) {
+      deadlineExceeded.increment();
+      return -1;
+    }
+    if (!withdraw()) {
+      budgetExhausted.increment();
+      return -1;
+    }
+    retries.increment();
+    return delay;
+  }
+
+  private boolean withdraw() {
+    refill();
+    while (true) {
+      long current = balance.get();
+      if (current < ONE_RETRY) {
+        return false;
+      }
+      if (balance.compareAndSet(current, current - ONE_RETRY)) {
+        return true;
+      }
+    }
+  }
+
+  private void refill() {
+    // only failing or hedged calls get here, so the time-based top-up is not on the path of
+    // healthy ones
+    refillLock.lock();
+    try {
+      long now = nanoClock.getAsLong();
+      long earned = (long) ((now - lastRefill) * refillPerNano);
+      if (earned > 0) {
+        lastRefill = now;
+        balance.accumulateAndGet(earned,
+            (current, amount) -> Math.min(maxBalance, current + amount));
+      }
+    } finally {
+      refillLock.unlock();
+    }
+  }
+
+  /**
+   * Whole retries the budget can pay for right now.
+   */
+  public long available() {
+    return balance.get() / ONE_RETRY;
+  }
+
+  public long retryCount() {
+    return retries.sum();
+  }
+
+  public long budgetExhaustedCount() {
+    return budgetExhausted.sum();
+  }
+
+  public long deadlineExceededCount() {
+    return deadlineExceeded.sum();
+  }
+}
@@ -1,31 +1,180 @@
 package com.checkout.payment.gateway.service;
 
+import com.checkout.payment.gateway.exception.ServiceUnavailableException;
 import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentRequest;
 import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentResponse;
-import org.springframework.beans.factory.annotation.Value;
+import com.checkout.payment.gateway.resilience.Bulkhead;
+import com.checkout.payment.gateway.resilience.CircuitBreaker;
+import com.checkout.payment.gateway.resilience.ConcurrencyLimiter;
+import com.checkout.payment.gateway.resilience.LatencyPolicy;
+import com.checkout.payment.gateway.resilience.RetryPolicy;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.TimeoutException;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 
+/**
+ * Client for the acquiring bank's POST /payments. Every payment is sent under one
+ * {@value #IDEMPOTENCY_KEY_HEADER}, which its hedges and retries reuse. Retrying a 5xx relies on
+ * the bank honouring that key: a 5xx does not say whether the bank acted on the request, and only
+ * its deduplication keeps a retry from authorising twice. Connection failures are retried only
+ * when the connection was never opened. Whatever failure is left after the retries is a 503.
+ */
 @Component
 public class AcquiringBankService {
 
+  static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
   private final WebClient webClient;
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+  private final LatencyPolicy latencyPolicy;
+  private final ConcurrencyLimiter concurrencyLimiter;
+  private final RetryPolicy retryPolicy;
+
+  public AcquiringBankService(WebClient acquiringBankWebClient, CircuitBreaker circuitBreaker,
+      Bulkhead bulkhead, LatencyPolicy latencyPolicy, ConcurrencyLimiter concurrencyLimiter,
+      RetryPolicy retryPolicy) {
+    this.webClient = acquiringBankWebClient;
+    this.circuitBreaker = circuitBreaker;
+    this.bulkhead = bulkhead;
+    this.latencyPolicy = latencyPolicy;
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.retryPolicy = retryPolicy;
+  }
+
+  public Mono<BankPaymentResponse> authorise(BankPaymentRequest request) {
+    // retries are outermost, so a call backing off holds no permit and each attempt is its own RTT
+    // sample for the adaptive limit. That limit sheds first; the bulkhead behind it is the fixed
+    // ceiling, and sits outside the breaker so calls it sheds do not count as bank failures. Every
+    // attempt counts towards the breaker, and the 503 it fails fast with ends the retries. All
+    // attempts share one idempotency key, so a retry of a request the bank did process is answered
+    // from its record instead of authorising twice
+    return Mono.defer(() -> {
+      String idempotencyKey = UUID.randomUUID().toString();
+      return retryPolicy.execute(() -> concurrencyLimiter.execute(() -> bulkhead.execute(
+              () -> circuitBreaker.execute(() -> hedged(request, idempotencyKey),
+                  AcquiringBankService::isBankFailure))),
+          AcquiringBankService::isTransient);
+    }).onErrorMap(AcquiringBankService::isBankUnavailable,
+        ex -> new ServiceUnavailableException("Acquiring bank unavailable: " + ex.getMessage()));
+  }
 
-  public AcquiringBankService(
-      WebClient.Builder webClientBuilder,
-      @Value("${acquiring.bank.base-url}") String baseUrl
-  ) {
-    this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+  /**
+   * Sends the request and, once the hedge delay passes without an answer, the same request again
+   * under the same idempotency key. The first response wins and the other attempt is cancelled, so
+   * the caller still sees exactly one authorisation. A primary that fails before the delay ends the
+   * call with its error: the hedge is there for a slow bank, not to send a failed request again.
+   * With the retry budget spent, no hedge is sent and the primary runs alone.
+   */
+  private Mono<BankPaymentResponse> hedged(BankPaymentRequest request, String idempotencyKey) {
+    Duration hedgeDelay = latencyPolicy.hedgeDelay();
+    if (hedgeDelay == null) {
+      return attempt(request, idempotencyKey);
+    }
+    Sinks.One<Throwable> primaryFailed = Sinks.one();
+    Mono<BankPaymentResponse> primary = attempt(request, idempotencyKey)
+        .doOnError(primaryFailed::tryEmitValue);
+    Mono<BankPaymentResponse> hedge = Mono.delay(hedgeDelay)
+        .takeUntilOther(primaryFailed.asMono())
+        // a hedge loads the bank like a retry, so it is paid from the same budget
+        .filter(tick -> retryPolicy.tryHedge())
+        .flatMap(tick -> {
+          latencyPolicy.onHedge();
+          return attempt(request, idempotencyKey);
+        })
+        .doOnNext(response -> latencyPolicy.onHedgeWin());
+    return Mono.firstWithValue(primary, hedge)
+        .onErrorMap(NoSuchElementException.class, AcquiringBankService::firstAttemptError);
   }
 
-  public BankPaymentResponse authorise(BankPaymentRequest request) {
+  private Mono<BankPaymentResponse> attempt(BankPaymentRequest request, String idempotencyKey) {
+    return Mono.defer(() -> {
+      long started = System.nanoTime();
+      Duration timeout = latencyPolicy.timeout();
+      return call(request, idempotencyKey)
+          .timeout(timeout)
+          .doOnSuccess(response -> latencyPolicy.tracker().record(System.nanoTime() - started))
+          // timed out and cancelled attempts took at least this long; leaving them out would
+          // hide the tail and shrink the next timeout
+          .doOnCancel(() -> latencyPolicy.tracker().record(System.nanoTime() - started))
+          .onErrorMap(TimeoutException.class, ex -> {
+            latencyPolicy.tracker().record(System.nanoTime() - started);
+            latencyPolicy.onTimeout();
+            return new ServiceUnavailableException(
+                "Acquiring bank did not respond within " + timeout.toMillis() + " ms");
+          });
+    });
+  }
+
+  private Mono<BankPaymentResponse> call(BankPaymentRequest request, String idempotencyKey) {
     return webClient.post()
         .uri("/payments")
         .contentType(MediaType.APPLICATION_JSON)
+        .header(IDEMPOTENCY_KEY_HEADER, idempotencyKey)
         .bodyValue(request)
         .retrieve()
         .bodyToMono(BankPaymentResponse.class)
-        .block();
+        .onErrorMap(AcquiringBankService::isPoolExhausted,
+            ex -> new ServiceUnavailableException("Acquiring bank connection pool exhausted"));
+  }
+
+  private static Throwable firstAttemptError(NoSuchElementException ex) {
+    // firstWithValue reports "every attempt failed" with the attempt errors as a composite cause
+    List<Throwable> errors = Exceptions.unwrapMultiple(ex.getCause());
+    return errors.isEmpty() ? ex : errors.get(0);
+  }
+
+  private static boolean isBankFailure(Throwable ex) {
+    // a 4xx means the bank answered and rejected our request, which says nothing about its health
+    return !(ex instanceof WebClientResponseException response
+        && response.getStatusCode().is4xxClientError());
+  }
+
+  private static boolean isTransient(Throwable ex) {
+    // a 5xx, or a connection that could not be opened, so the request was never sent. A reset
+    // after the request was written is not retried even though the key would cover it, since
+    // whether the bank acted on it is unknown. Timeouts are not retried either: the bank is slow
+    // rather than failing, and another attempt would only add to its queue
+    if (ex instanceof WebClientResponseException response) {
+      return response.getStatusCode().is5xxServerError();
+    }
+    if (ex instanceof WebClientRequestException) {
+      for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+        if (cause instanceof ConnectException) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static boolean isBankUnavailable(Throwable ex) {
+    return ex instanceof WebClientResponseException response
+        ? response.getStatusCode().is5xxServerError()
+        : ex instanceof WebClientRequestException;
+  }
+
+  private static boolean isPoolExhausted(Throwable ex) {
+    // Reactor Netty only exposes these from its shaded, internal copy of reactor-pool, so they
+    // are matched by name; WebClient wraps them in a WebClientRequestException
+    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+      String name = cause.getClass().getSimpleName();
+      if (name.equals("PoolAcquirePendingLimitException")
+          || name.equals("PoolAcquireTimeoutException")) {
+        return true;
+      }
+    }
+    return false;
   }
 }
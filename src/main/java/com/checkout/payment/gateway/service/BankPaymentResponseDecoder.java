@@ -0,0 +1,64 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentResponse;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.Map;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.AbstractDataBufferDecoder;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeType;
+
+/**
+ * Reads a {@link BankPaymentResponse} token by token from the joined response buffer, matching its
+ * two fields by name, without an ObjectMapper, a deserialization context or a reflective record
+ * constructor. Unknown fields are skipped and absent ones default the way Jackson defaults them.
+ */
+public class BankPaymentResponseDecoder extends AbstractDataBufferDecoder<BankPaymentResponse> {
+
+  private static final JsonFactory JSON = new JsonFactory();
+
+  public BankPaymentResponseDecoder() {
+    super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+  }
+
+  @Override
+  public boolean canDecode(ResolvableType elementType, MimeType mimeType) {
+    return elementType.toClass() == BankPaymentResponse.class
+        && super.canDecode(elementType, mimeType);
+  }
+
+  @Override
+  public BankPaymentResponse decode(DataBuffer buffer, ResolvableType targetType,
+      MimeType mimeType, Map<String, Object> hints) {
+    try (JsonParser parser = JSON.createParser(buffer.asInputStream())) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new DecodingException("Acquiring bank response is not a JSON object");
+      }
+      boolean authorized = false;
+      String authorizationCode = null;
+      String field;
+      while ((field = parser.nextFieldName()) != null) {
+        parser.nextToken();
+        switch (field) {
+          case "authorized" -> authorized = parser.getValueAsBoolean();
+          case "authorization_code" -> authorizationCode = parser.getValueAsString();
+          default -> {
+          }
+        }
+        // unknown fields, and objects or arrays where a value belongs, are stepped over
+        parser.skipChildren();
+      }
+      return new BankPaymentResponse(authorized, authorizationCode);
+    } catch (IOException ex) {
+      throw new DecodingException("Malformed acquiring bank response: " + ex.getMessage(), ex);
+    } finally {
+      DataBufferUtils.release(buffer);
+    }
+  }
+}
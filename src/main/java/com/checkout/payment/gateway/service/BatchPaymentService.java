@@ -0,0 +1,100 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.configuration.BatchProperties;
+import com.checkout.payment.gateway.enums.BatchOutcome;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.AmountArgumentException;
+import com.checkout.payment.gateway.exception.ServiceUnavailableException;
+import com.checkout.payment.gateway.exception.ValidationException;
+import com.checkout.payment.gateway.model.BatchPaymentResult;
+import com.checkout.payment.gateway.model.ProcessPaymentRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Processes a batch of payments through {@link PaymentGatewayService}, at most
+ * {@code payments.batch.parallelism} bank authorisations at a time. Results are emitted in request
+ * order as each one (and every one before it) completes; a failing item never fails the batch.
+ */
+@Service
+public class BatchPaymentService {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BatchPaymentService.class);
+
+  private final PaymentGatewayService paymentGatewayService;
+  private final Validator validator;
+  private final BatchProperties properties;
+
+  public BatchPaymentService(PaymentGatewayService paymentGatewayService, Validator validator,
+      BatchProperties properties) {
+    this.paymentGatewayService = paymentGatewayService;
+    this.validator = validator;
+    this.properties = properties;
+  }
+
+  public Flux<BatchPaymentResult> processBatch(List<ProcessPaymentRequest> requests) {
+    if (requests == null || requests.isEmpty() || requests.size() > properties.maxSize()) {
+      throw new ValidationException("payments",
+          "Batch must contain between 1 and " + properties.maxSize() + " payments");
+    }
+    LOG.info("Processing batch of {} payments", requests.size());
+    return Flux.range(0, requests.size())
+        .flatMapSequential(index -> processItem(index, requests.get(index)),
+            properties.parallelism());
+  }
+
+  private Mono<BatchPaymentResult> processItem(int index, ProcessPaymentRequest request) {
+    if (request == null) {
+      return Mono.just(BatchPaymentResult.failed(index, BatchOutcome.INVALID, null,
+          "payment is required"));
+    }
+    // the annotations @Valid enforces on POST /payment, checked per item so one bad entry
+    // does not reject the whole batch
+    Set<ConstraintViolation<ProcessPaymentRequest>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      // every violation, as POST /payment reports them; sorted since the set has no order
+      Map<String, String> errors = new LinkedHashMap<>();
+      violations.stream()
+          .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+          .forEach(violation -> errors.putIfAbsent(violation.getPropertyPath().toString(),
+              violation.getMessage()));
+      return Mono.just(invalid(index, new ValidationException(errors)));
+    }
+    return Mono.defer(() -> paymentGatewayService.processPayment(request))
+        .map(payment -> BatchPaymentResult.processed(index,
+            payment.getStatus() == PaymentStatus.AUTHORIZED
+                ? BatchOutcome.AUTHORIZED : BatchOutcome.DECLINED,
+            payment))
+        .onErrorResume(ex -> Mono.just(failure(index, ex)));
+  }
+
+  private static BatchPaymentResult failure(int index, Throwable ex) {
+    if (ex instanceof ValidationException validation) {
+      return invalid(index, validation);
+    }
+    if (ex instanceof AmountArgumentException) {
+      return BatchPaymentResult.failed(index, BatchOutcome.INVALID, "amount", ex.getMessage());
+    }
+    if (ex instanceof ServiceUnavailableException) {
+      return BatchPaymentResult.failed(index, BatchOutcome.REJECTED, null, ex.getMessage());
+    }
+    LOG.error("Batch payment {} failed", index, ex);
+    return BatchPaymentResult.failed(index, BatchOutcome.REJECTED, null,
+        "Payment could not be processed");
+  }
+
+  private static BatchPaymentResult invalid(int index, ValidationException validation) {
+    return BatchPaymentResult.invalid(index, validation.getField(), validation.getMessage(),
+        validation.getErrors());
+  }
+}
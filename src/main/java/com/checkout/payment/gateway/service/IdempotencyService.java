@@ -0,0 +1,163 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.configuration.IdempotencyProperties;
+import com.checkout.payment.gateway.exception.ValidationException;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.model.ValidatedPayment;
+import com.checkout.payment.gateway.utils.BoundedStripedMap;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Deduplicates POST /payment by Idempotency-Key. The first request for a key runs
+ * {@link PaymentGatewayService#processPayment} and publishes its result through a shared future;
+ * repeats get the stored response and concurrent duplicates wait on the in-flight one, so a key
+ * reaches the bank at most once while its entry lives. Failed attempts are dropped so the client
+ * can retry them.
+ *
+ * <p>Entries live in a {@link BoundedStripedMap} in insertion order, bounded and expired after the
+ * TTL like {@code InMemoryPaymentsRepository}. An entry whose payment is still in flight is never
+ * evicted or expired, since a retry of its key would then reach the bank a second time.
+ */
+@Service
+public class IdempotencyService {
+
+  private static final int SALT_BYTES = 16;
+
+  private final PaymentGatewayService paymentGatewayService;
+  private final BoundedStripedMap<String, Entry> entries;
+  private final int maxKeyLength;
+  // mixed into every fingerprint, so digests of card data cannot be matched against outside ones
+  private final byte[] salt = new byte[SALT_BYTES];
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  @Autowired
+  public IdempotencyService(PaymentGatewayService paymentGatewayService,
+      IdempotencyProperties properties) {
+    this(paymentGatewayService, properties, System::nanoTime);
+  }
+
+  IdempotencyService(PaymentGatewayService paymentGatewayService,
+      IdempotencyProperties properties, LongSupplier nanoClock) {
+    if (properties.maxEntries() <= 0) {
+      throw new IllegalArgumentException("payments.idempotency.max-entries must be positive");
+    }
+    this.paymentGatewayService = paymentGatewayService;
+    this.entries = new BoundedStripedMap<>(properties.maxEntries(), properties.concurrencyLevel(),
+        false, properties.ttl(), entry -> entry.result.isDone(), nanoClock);
+    this.maxKeyLength = properties.maxKeyLength();
+    new SecureRandom().nextBytes(salt);
+  }
+
+  public Mono<PostPaymentResponse> processPayment(String idempotencyKey,
+      ValidatedPayment request) {
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > maxKeyLength) {
+      throw new ValidationException("Idempotency-Key",
+          "Idempotency-Key must be between 1 and " + maxKeyLength + " characters");
+    }
+    byte[] fingerprint = fingerprint(request);
+    Entry created = new Entry(fingerprint);
+    Entry existing = entries.putIfAbsent(idempotencyKey, created);
+    boolean owner = existing == null;
+    Entry entry = owner ? created : existing;
+
+    if (owner) {
+      misses.increment();
+      run(idempotencyKey, entry, request);
+    } else if (!MessageDigest.isEqual(entry.fingerprint, fingerprint)) {
+      throw new ValidationException("Idempotency-Key",
+          "Idempotency-Key was already used for a different payment");
+    } else if (entry.result.isDone()) {
+      hits.increment();
+    } else {
+      coalesced.increment();
+    }
+    // callers going away must not cancel the shared attempt other duplicates are waiting on
+    return Mono.fromFuture(entry.result, true);
+  }
+
+  public long size() {
+    return entries.size();
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long coalescedCount() {
+    return coalesced.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long evictionCount() {
+    return entries.evictionCount();
+  }
+
+  public long expirationCount() {
+    return entries.expirationCount();
+  }
+
+  private void run(String idempotencyKey, Entry entry, ValidatedPayment request) {
+    // subscribed here rather than by the first caller, so the payment still completes (and is
+    // found by the client's retry) if that caller disconnects
+    Mono.defer(() -> paymentGatewayService.processPayment(request))
+        .subscribe(entry.result::complete, error -> {
+          entries.remove(idempotencyKey, entry);
+          entry.result.completeExceptionally(error);
+        });
+  }
+
+  /**
+   * SHA-256 over the payment's fields, so a reused key is told apart from a repeat without the
+   * cache holding card numbers or CVVs. Strings are length-prefixed, so no two payments share an
+   * encoding.
+   */
+  private byte[] fingerprint(ValidatedPayment request) {
+    byte[] cardNumber = request.cardNumber().getBytes(StandardCharsets.US_ASCII);
+    byte[] cvv = request.cvv().getBytes(StandardCharsets.US_ASCII);
+    ByteBuffer fields = ByteBuffer.allocate(6 * Integer.BYTES + cardNumber.length + cvv.length)
+        .putInt(cardNumber.length).put(cardNumber)
+        .putInt(request.expiryMonth())
+        .putInt(request.expiryYear())
+        .putInt(request.currency().ordinal())
+        .putInt(request.amount())
+        .putInt(cvv.length).put(cvv);
+    MessageDigest digest = sha256();
+    digest.update(salt);
+    return digest.digest(fields.array());
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform is required to provide SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static final class Entry {
+
+    private final byte[] fingerprint;
+    private final CompletableFuture<PostPaymentResponse> result = new CompletableFuture<>();
+
+    private Entry(byte[] fingerprint) {
+      this.fingerprint = fingerprint;
+    }
+  }
+}
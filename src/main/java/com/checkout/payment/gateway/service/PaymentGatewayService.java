@@ -1,17 +1,24 @@
 package com.checkout.payment.gateway.service;
 
+import com.checkout.payment.gateway.enums.PaymentStage;
 import com.checkout.payment.gateway.enums.PaymentStatus;
 import com.checkout.payment.gateway.exception.EventProcessingException;
 import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentRequest;
 import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentResponse;
+import com.checkout.payment.gateway.model.Currency;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
 import com.checkout.payment.gateway.model.ProcessPaymentRequest;
+import com.checkout.payment.gateway.model.ValidatedPayment;
+import com.checkout.payment.gateway.repository.PaymentSearchIndex;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
-import java.util.UUID;
 import com.checkout.payment.gateway.utils.AmountUtil;
+import com.checkout.payment.gateway.utils.ExpiryDateUtil;
+import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 
 @Service
@@ -22,80 +29,184 @@ public class PaymentGatewayService {
   private final PaymentsRepository paymentsRepository;
   private final AcquiringBankService bankClient;
   private final PaymentRequestValidatorService paymentRequestValidatorService;
+  private final PaymentMetrics metrics;
+  private final PaymentIdGenerator idGenerator;
+  private final PaymentSearchIndex searchIndex;
 
 
   public PaymentGatewayService(PaymentsRepository paymentsRepository,
       AcquiringBankService bankClient,
-      PaymentRequestValidatorService paymentRequestValidatorService) {
+      PaymentRequestValidatorService paymentRequestValidatorService,
+      PaymentMetrics metrics, PaymentIdGenerator idGenerator, PaymentSearchIndex searchIndex) {
     this.paymentsRepository = paymentsRepository;
     this.bankClient = bankClient;
     this.paymentRequestValidatorService = paymentRequestValidatorService;
+    this.metrics = metrics;
+    this.idGenerator = idGenerator;
+    this.searchIndex = searchIndex;
   }
 
   public PostPaymentResponse getPaymentById(UUID id) {
-    LOG.debug("Requesting access to to payment with ID {}", id);
-    System.out.println("Starting get Id");
+    LOG.debug("Requesting access to payment with ID {}", id);
     return paymentsRepository.get(id).orElseThrow(() -> new EventProcessingException("Invalid ID"));
   }
 
-  public PostPaymentResponse processPayment(ProcessPaymentRequest paymentRequest) {
-    LOG.info("Requesting access to to payment {}", paymentRequest);
+  /**
+   * The stored payment as its JSON response body, already encoded by the repository.
+   */
+  public byte[] getPaymentJsonById(UUID id) {
+    LOG.debug("Requesting access to payment with ID {}", id);
+    return paymentsRepository.getJson(id)
+        .orElseThrow(() -> new EventProcessingException("Invalid ID"));
+  }
+
+  public Mono<PostPaymentResponse> processPayment(ProcessPaymentRequest paymentRequest) {
+    LOG.debug("Processing payment {}", paymentRequest);
 
-    paymentRequestValidatorService.validate(paymentRequest);
+    long started = PaymentMetrics.start();
+    ValidatedPayment payment = validate(paymentRequest);
+    return authorise(payment, metrics.record(PaymentStage.VALIDATE, started));
+  }
+
+  /**
+   * Processes a payment whose fields were already checked as its body was read, so only the bank
+   * simulator's card rule is left to apply before the bank call.
+   */
+  public Mono<PostPaymentResponse> processPayment(ValidatedPayment payment) {
+    LOG.debug("Processing payment {}", payment);
 
-    LOG.info("Calling acquiring bank with request {}", paymentRequest);
+    long started = PaymentMetrics.start();
+    checkBankAvailable(payment);
+    return authorise(payment, started);
+  }
 
-    BankPaymentResponse response = bankClient.authorise(buildBankPaymentRequest(paymentRequest));
+  /**
+   * Same flow as {@link #processPayment} written as straight-line blocking code, for the
+   * virtual-thread execution mode where parking the request thread on the bank call is cheap.
+   */
+  public PostPaymentResponse processPaymentBlocking(ProcessPaymentRequest paymentRequest) {
+    LOG.debug("Processing payment {}", paymentRequest);
 
-    PostPaymentResponse postPaymentResponse = getPostPaymentResponse(response, paymentRequest);
+    long started = PaymentMetrics.start();
+    ValidatedPayment payment = validate(paymentRequest);
+    return authoriseBlocking(payment, metrics.record(PaymentStage.VALIDATE, started));
+  }
+
+  public PostPaymentResponse processPaymentBlocking(ValidatedPayment payment) {
+    LOG.debug("Processing payment {}", payment);
+
+    long started = PaymentMetrics.start();
+    checkBankAvailable(payment);
+    return authoriseBlocking(payment, started);
+  }
+
+  private Mono<PostPaymentResponse> authorise(ValidatedPayment payment, long validated) {
+    Mono<PostPaymentResponse> postPaymentResponse = bankClient.authorise(
+            buildBankPaymentRequest(payment))
+        .doOnError(metrics::recordFailure)
+        .map(response -> toPostPaymentResponse(response, payment, validated));
+
+    if (paymentsRepository.blockingWrites()) {
+      // keep synced writes off the bank client's event loop
+      postPaymentResponse = postPaymentResponse.publishOn(Schedulers.boundedElastic());
+    }
+
+    return postPaymentResponse.doOnNext(this::persist);
+  }
 
-    paymentsRepository.add(postPaymentResponse);
+  private PostPaymentResponse authoriseBlocking(ValidatedPayment payment, long validated) {
+    BankPaymentResponse response;
+    try {
+      response = bankClient.authorise(buildBankPaymentRequest(payment)).block();
+    } catch (RuntimeException ex) {
+      metrics.recordFailure(ex);
+      throw ex;
+    }
 
+    PostPaymentResponse postPaymentResponse = toPostPaymentResponse(response, payment, validated);
+
+    persist(postPaymentResponse);
+
+    return postPaymentResponse;
+  }
+
+  private ValidatedPayment validate(ProcessPaymentRequest paymentRequest) {
+    try {
+      paymentRequestValidatorService.validate(paymentRequest);
+      // currency has already been validated
+      Currency currency = Currency.fromCode(paymentRequest.getCurrency());
+      return new ValidatedPayment(
+          paymentRequest.getCardNumber(),
+          paymentRequest.getExpiryMonth(),
+          paymentRequest.getExpiryYear(),
+          currency,
+          AmountUtil.toMinorUnits(paymentRequest.getAmount(), currency),
+          paymentRequest.getCvv()
+      );
+    } catch (RuntimeException ex) {
+      metrics.recordFailure(ex);
+      throw ex;
+    }
+  }
+
+  private void checkBankAvailable(ValidatedPayment payment) {
+    try {
+      paymentRequestValidatorService.checkBankAvailable(payment.cardNumber());
+    } catch (RuntimeException ex) {
+      metrics.recordFailure(ex);
+      throw ex;
+    }
+  }
+
+  private PostPaymentResponse toPostPaymentResponse(BankPaymentResponse bankPaymentResponse,
+      ValidatedPayment payment, long validated) {
+    long authorised = metrics.record(PaymentStage.AUTHORISE, validated);
+    PostPaymentResponse postPaymentResponse = getPostPaymentResponse(bankPaymentResponse, payment);
+    metrics.record(PaymentStage.MAP, authorised);
     return postPaymentResponse;
   }
 
+  private void persist(PostPaymentResponse payment) {
+    long started = PaymentMetrics.start();
+    paymentsRepository.add(payment);
+    searchIndex.add(payment);
+    metrics.record(PaymentStage.PERSIST, started);
+    metrics.recordOutcome(payment.getStatus());
+    LOG.info("Payment {} {}", payment.getId(), payment.getStatus());
+  }
 
-  private BankPaymentRequest buildBankPaymentRequest(ProcessPaymentRequest paymentRequest) {
+  private BankPaymentRequest buildBankPaymentRequest(ValidatedPayment payment) {
     return new BankPaymentRequest(
-        paymentRequest.getCardNumber(),
-        formatExpiry(paymentRequest.getExpiryMonth(), paymentRequest.getExpiryYear()),
-        paymentRequest.getCurrency(),
-        getMinorUnits(paymentRequest.getAmount()),
-        paymentRequest.getCvv()
+        payment.cardNumber(),
+        ExpiryDateUtil.format(payment.expiryMonth(), payment.expiryYear()),
+        payment.currency().getCode(),
+        payment.amount(),
+        payment.cvv()
     );
   }
 
   private PostPaymentResponse getPostPaymentResponse(BankPaymentResponse bankPaymentResponse,
-      ProcessPaymentRequest paymentRequest) {
+      ValidatedPayment payment) {
 
-    String paymentId = bankPaymentResponse.authorized()
-        ? bankPaymentResponse.authorization_code()
-        : UUID.randomUUID().toString();
+    UUID paymentId = bankPaymentResponse.authorized()
+        ? UUID.fromString(bankPaymentResponse.authorization_code())
+        : idGenerator.nextId();
     PaymentStatus paymentStatus =
         bankPaymentResponse.authorized() ? PaymentStatus.AUTHORIZED : PaymentStatus.DECLINED;
     PostPaymentResponse postPaymentResponse = new PostPaymentResponse();
-    postPaymentResponse.setId(UUID.fromString(paymentId));
+    postPaymentResponse.setId(paymentId);
     postPaymentResponse.setStatus(paymentStatus);
-    postPaymentResponse.setCardNumberLastFour(maskCard(paymentRequest.getCardNumber()));
-    postPaymentResponse.setExpiryMonth(paymentRequest.getExpiryMonth());
-    postPaymentResponse.setExpiryYear(paymentRequest.getExpiryYear());
-    postPaymentResponse.setCurrency(paymentRequest.getCurrency());
-    postPaymentResponse.setAmount(getMinorUnits(paymentRequest.getAmount()));
+    postPaymentResponse.setCardNumberLastFour(maskCard(payment.cardNumber()));
+    postPaymentResponse.setExpiryMonth(payment.expiryMonth());
+    postPaymentResponse.setExpiryYear(payment.expiryYear());
+    postPaymentResponse.setCurrency(payment.currency().getCode());
+    postPaymentResponse.setAmount(payment.amount());
     return postPaymentResponse;
   }
 
-  private String formatExpiry(int month, int twoDigitYear) {
-    int fullYear = 2000 + twoDigitYear;
-    return String.format("%02d/%d", month, fullYear);
-  }
-
   private int maskCard(String cardNumber) {
     String last4 = cardNumber.substring(cardNumber.length() - 4);
     return Integer.parseInt(last4);
   }
 
-  private int getMinorUnits(String amount) {
-    return AmountUtil.toMinorUnits(amount);
-  }
-
 }
@@ -0,0 +1,12 @@
+package com.checkout.payment.gateway.service;
+
+import java.util.UUID;
+
+/**
+ * Ids for payments the gateway names itself: declined payments, which get no authorization code
+ * from the bank. Chosen with {@code payments.id.generator}.
+ */
+public interface PaymentIdGenerator {
+
+  UUID nextId();
+}
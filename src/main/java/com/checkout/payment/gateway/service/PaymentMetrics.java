@@ -0,0 +1,103 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.enums.PaymentStage;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.AmountArgumentException;
+import com.checkout.payment.gateway.exception.MissingFieldsException;
+import com.checkout.payment.gateway.exception.ServiceUnavailableException;
+import com.checkout.payment.gateway.exception.ValidationException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stage timers and outcome counters for {@code POST /payment}. Every meter on the success path is
+ * registered up front and indexed by enum ordinal, so timing a stage costs one
+ * {@link System#nanoTime()} and one histogram update, with no registry lookup or allocation.
+ */
+public class PaymentMetrics {
+
+  private final MeterRegistry registry;
+  private final Timer[] stageTimers = new Timer[PaymentStage.values().length];
+  private final Counter[] outcomes = new Counter[PaymentStatus.values().length];
+  private final ConcurrentMap<String, Counter> validationErrors = new ConcurrentHashMap<>();
+
+  public PaymentMetrics(MeterRegistry registry) {
+    this.registry = registry;
+    for (PaymentStage stage : PaymentStage.values()) {
+      // validation runs in microseconds and the bank in up to seconds: one range covers both
+      stageTimers[stage.ordinal()] = Timer.builder("payments.stage")
+          .tag("stage", stage.getName())
+          .publishPercentileHistogram()
+          .minimumExpectedValue(Duration.ofNanos(1_000))
+          .maximumExpectedValue(Duration.ofSeconds(30))
+          .register(registry);
+    }
+    for (PaymentStatus status : PaymentStatus.values()) {
+      outcomes[status.ordinal()] = Counter.builder("payments.outcome")
+          .tag("status", status.getName())
+          .register(registry);
+    }
+  }
+
+  public static long start() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Records {@code stage} as having run from {@code startedNanos} until now and returns now, so
+   * consecutive stages can be chained without reading the clock twice.
+   */
+  public long record(PaymentStage stage, long startedNanos) {
+    long now = System.nanoTime();
+    stageTimers[stage.ordinal()].record(now - startedNanos, TimeUnit.NANOSECONDS);
+    return now;
+  }
+
+  public void recordOutcome(PaymentStatus status) {
+    outcomes[status.ordinal()].increment();
+  }
+
+  /**
+   * Counts a payment that did not reach the bank or was refused on the way: one validation error
+   * per invalid or missing field (one against {@code body} for malformed JSON), or a rejection for
+   * anything answered with 503.
+   */
+  public void recordFailure(Throwable ex) {
+    if (ex instanceof ValidationException validation) {
+      validation.getErrors().keySet().forEach(this::recordValidationError);
+    } else if (ex instanceof MissingFieldsException missing) {
+      missing.getErrors().keySet().forEach(this::recordValidationError);
+    } else if (ex instanceof AmountArgumentException) {
+      recordValidationError("amount");
+    } else if (ex instanceof JsonProcessingException) {
+      recordValidationError("body");
+    } else if (ex instanceof ServiceUnavailableException) {
+      recordOutcome(PaymentStatus.REJECTED);
+    }
+  }
+
+  public Timer stageTimer(PaymentStage stage) {
+    return stageTimers[stage.ordinal()];
+  }
+
+  public double outcomeCount(PaymentStatus status) {
+    return outcomes[status.ordinal()].count();
+  }
+
+  public double validationErrorCount(String field) {
+    Counter counter = validationErrors.get(field);
+    return counter == null ? 0 : counter.count();
+  }
+
+  private void recordValidationError(String field) {
+    validationErrors.computeIfAbsent(field, name -> Counter.builder("payments.validation.errors")
+        .tag("field", name)
+        .register(registry)).increment();
+  }
+}
@@ -1,69 +1,174 @@
 package com.checkout.payment.gateway.service;
 
+import com.checkout.payment.gateway.configuration.ValidationProperties;
 import com.checkout.payment.gateway.exception.ServiceUnavailableException;
 import com.checkout.payment.gateway.exception.ValidationException;
 import com.checkout.payment.gateway.model.Currency;
 import com.checkout.payment.gateway.model.ProcessPaymentRequest;
-import org.springframework.stereotype.Service;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
 
+/**
+ * Checks every field of a payment request and reports all invalid fields together. The card number
+ * is read once for digits, length and Luhn; nothing is allocated unless more than one field is
+ * invalid. The current month is cached with the instant the next one starts, so the
+ * expiry check reads the clock but only recomputes the calendar month when that boundary has
+ * passed.
+ */
 @Service
 public class PaymentRequestValidatorService {
 
+  // a request with one bad field, the usual case, is rejected without allocating
+  private static final ValidationException CARD_DIGITS = new ValidationException("cardNumber",
+      "Card Number must be must be digits value");
+  private static final ValidationException CARD_LENGTH = new ValidationException("cardNumber",
+      "Card Number must be between 14 and 19 digits");
+  private static final ValidationException CARD_LUHN = new ValidationException("cardNumber",
+      "Card Number is not valid");
+  private static final ValidationException EXPIRY_MONTH = new ValidationException("expiryMonth",
+      "Expiry month must be between 1 and 12");
+  private static final ValidationException EXPIRY_PAST = new ValidationException(
+      "expiryMonth/expiryYear", "MM/YY must be in future");
+  private static final ValidationException CURRENCY = new ValidationException("currency",
+      "currency is not valid");
+  private static final ValidationException CVV = new ValidationException("cvv",
+      "CVV must be between 3 and 4 digit");
+
+  private final boolean luhnCheck;
+  private final Clock clock;
+  private volatile CurrentMonth currentMonth;
+
+  @Autowired
+  public PaymentRequestValidatorService(ValidationProperties properties) {
+    this(properties, Clock.systemDefaultZone());
+  }
+
+  PaymentRequestValidatorService(ValidationProperties properties, Clock clock) {
+    this.luhnCheck = properties.luhnCheck();
+    this.clock = clock;
+    this.currentMonth = monthOf(clock.millis());
+  }
+
   public void validate(ProcessPaymentRequest paymentRequest) {
-    if (!isDigit(paymentRequest.getCardNumber())) {
-      throw new ValidationException("cardNumber", "Card Number must be must be digits value");
-    }
+    ValidationException errors = checkCardNumber(paymentRequest.getCardNumber());
+    errors = combine(errors,
+        checkExpiry(paymentRequest.getExpiryMonth(), paymentRequest.getExpiryYear()));
+    errors = combine(errors, checkCurrency(Currency.fromCode(paymentRequest.getCurrency())));
+    errors = combine(errors, checkCvv(paymentRequest.getCvv()));
 
-    if (paymentRequest.getCardNumber().length() < 14
-        || paymentRequest.getCardNumber().length() > 19) {
-      throw new ValidationException("cardNumber", "Card Number must be between 14 and 19 digits");
+    if (errors != null) {
+      throw errors;
     }
 
-    if (paymentRequest.getExpiryMonth() < 1 || paymentRequest.getExpiryMonth() > 12) {
-      throw new ValidationException("expiryMonth", "Expiry month must be between 1 and 12");
-    }
+    checkBankAvailable(paymentRequest.getCardNumber());
+  }
 
-    if (!isMonthAndYearInFuture(paymentRequest.getExpiryYear(), paymentRequest.getExpiryMonth())) {
-      throw new ValidationException("expiryMonth/expiryYear", "MM/YY must be in future");
-    }
+  /*
+   * The single-field checks below return the field's shared error, or null when it is valid, so a
+   * caller validating fields as it reads them can combine the results in its own order.
+   */
 
-    if (!isCurrencyValid(paymentRequest.getCurrency())) {
-      throw new ValidationException("currency", "currency is not valid");
+  public ValidationException checkCardNumber(String cardNumber) {
+    int length = cardNumber == null ? 0 : cardNumber.length();
+    int luhnSum = 0;
+    for (int i = length - 1, position = 0; i >= 0; i--, position++) {
+      int digit = cardNumber.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        return CARD_DIGITS;
+      }
+      if ((position & 1) == 1) {
+        digit = digit < 5 ? digit * 2 : digit * 2 - 9;
+      }
+      luhnSum += digit;
     }
+    if (length < 14 || length > 19) {
+      return CARD_LENGTH;
+    }
+    if (luhnCheck && luhnSum % 10 != 0) {
+      return CARD_LUHN;
+    }
+    return null;
+  }
 
-    if (!paymentRequest.getCvv().matches("\\d{3,4}")) {
-      throw new ValidationException("cvv", "CVV must be between 3 and 4 digit");
+  public ValidationException checkExpiry(int month, int twoDigitYear) {
+    if (month < 1 || month > 12) {
+      return EXPIRY_MONTH;
+    }
+    if ((2000 + twoDigitYear) * 12 + month - 1 <= currentMonthIndex()) {
+      return EXPIRY_PAST;
     }
+    return null;
+  }
+
+  public ValidationException checkCurrency(Currency currency) {
+    return currency == null ? CURRENCY : null;
+  }
+
+  public ValidationException checkCvv(String cvv) {
+    return isCvv(cvv) ? null : CVV;
+  }
 
-    if (paymentRequest.getCardNumber().endsWith("0")) {
+  /**
+   * The bank simulator's rule for a card number that has passed {@link #checkCardNumber}.
+   */
+  public void checkBankAvailable(String cardNumber) {
+    if (cardNumber.charAt(cardNumber.length() - 1) == '0') {
       throw new ServiceUnavailableException("Bank payment unavailable for card number ends with 0");
     }
   }
 
-  private boolean isDigit(String input) {
-    for (char c : input.toCharArray()) {
-      if (!Character.isDigit(c)) {
-        return false;
-      }
+  /**
+   * {@code errors} with {@code error}'s fields added; a map is only built once two fields fail.
+   */
+  public static ValidationException combine(ValidationException errors,
+      ValidationException error) {
+    if (error == null) {
+      return errors;
     }
-    return true;
+    if (errors == null) {
+      return error;
+    }
+    Map<String, String> collected = new LinkedHashMap<>(errors.getErrors());
+    collected.putAll(error.getErrors());
+    return new ValidationException(collected);
   }
 
-  private boolean isMonthAndYearInFuture(int year, int month) {
-    int yearInYYYY = 2000 + year;
-    YearMonth yearMonth = YearMonth.of(yearInYYYY, month);
-    return yearMonth
-        .isAfter(YearMonth.now());
+  private int currentMonthIndex() {
+    long now = clock.millis();
+    CurrentMonth month = currentMonth;
+    if (now >= month.nextMonthStartMillis()) {
+      month = monthOf(now);
+      currentMonth = month;
+    }
+    return month.index();
+  }
+
+  private CurrentMonth monthOf(long millis) {
+    YearMonth month = YearMonth.from(Instant.ofEpochMilli(millis).atZone(clock.getZone()));
+    long nextMonthStart = month.plusMonths(1).atDay(1).atStartOfDay(clock.getZone()).toInstant()
+        .toEpochMilli();
+    return new CurrentMonth(month.getYear() * 12 + month.getMonthValue() - 1, nextMonthStart);
   }
 
-  private boolean isCurrencyValid(String input) {
-    for (Currency currency : Currency.values()) {
-      if (input.equals(currency.toString())) {
-        return true;
+  private static boolean isCvv(String cvv) {
+    if (cvv == null || cvv.length() < 3 || cvv.length() > 4) {
+      return false;
+    }
+    for (int i = 0; i < cvv.length(); i++) {
+      char c = cvv.charAt(i);
+      if (c < '0' || c > '9') {
+        return false;
       }
     }
-    return false;
+    return true;
   }
 
+  private record CurrentMonth(int index, long nextMonthStartMillis) {
+
+  }
 }
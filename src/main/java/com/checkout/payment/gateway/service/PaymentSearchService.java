@@ -0,0 +1,162 @@
+package com.checkout.payment.gateway.service;
+
+import com.checkout.payment.gateway.configuration.PaymentSearchProperties;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.ValidationException;
+import com.checkout.payment.gateway.model.Currency;
+import com.checkout.payment.gateway.model.PaymentPage;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentSearchIndex;
+import com.checkout.payment.gateway.repository.PaymentSearchIndex.Cursor;
+import com.checkout.payment.gateway.repository.PaymentSearchIndex.Page;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers GET /payments and GET /payments/export from {@link PaymentSearchIndex}, then reads only
+ * the matching payments from the repository by id, with {@link PaymentsRepository#peek} so a scan
+ * does not reorder the cache or count as lookups.
+ */
+@Service
+public class PaymentSearchService {
+
+  private static final ValidationException RANGE =
+      new ValidationException("to", "to must be after from");
+  private static final ValidationException STATUS =
+      new ValidationException("status", "Unknown payment status");
+  private static final ValidationException CURRENCY =
+      new ValidationException("currency", "Currency not supported");
+  private static final ValidationException CURSOR =
+      new ValidationException("cursor", "Cursor is not valid");
+
+  private final PaymentSearchIndex index;
+  private final PaymentsRepository paymentsRepository;
+  private final int defaultLimit;
+  private final ValidationException limitError;
+  private final int maxLimit;
+
+  public PaymentSearchService(PaymentSearchIndex index, PaymentsRepository paymentsRepository,
+      PaymentSearchProperties properties) {
+    this.index = index;
+    this.paymentsRepository = paymentsRepository;
+    this.defaultLimit = properties.defaultLimit();
+    this.maxLimit = properties.maxLimit();
+    this.limitError = new ValidationException("limit",
+        "limit must be between 1 and " + maxLimit);
+  }
+
+  /**
+   * Every argument is optional: the range defaults to all indexed time and the filters to any
+   * status and currency.
+   */
+  public PaymentPage search(Instant from, Instant to, String status, String currency,
+      String cursor, Integer limit) {
+    Cursor position = cursor == null ? null : Cursor.decode(cursor);
+    int pageSize = limit == null ? defaultLimit : limit;
+    ValidationException errors = cursor != null && position == null ? CURSOR : null;
+    if (pageSize < 1 || pageSize > maxLimit) {
+      errors = PaymentRequestValidatorService.combine(errors, limitError);
+    }
+    PaymentFilter filter = filter(from, to, status, currency, errors);
+
+    Page page = index.search(filter.fromMillis(), filter.toMillis(), filter.status(),
+        filter.currency(), position, pageSize);
+    List<PostPaymentResponse> payments = new ArrayList<>(page.ids().size());
+    for (UUID id : page.ids()) {
+      // evicted from the repository since it was indexed
+      paymentsRepository.peek(id).ifPresent(payments::add);
+    }
+    return new PaymentPage(payments, page.next() == null ? null : page.next().encode());
+  }
+
+  /**
+   * Checks the filters of an export up front, so an invalid one is refused before any of the
+   * response is written.
+   */
+  public PaymentFilter filter(Instant from, Instant to, String status, String currency) {
+    return filter(from, to, status, currency, null);
+  }
+
+  /**
+   * Writes every payment matching {@code filter} to {@code out} as newline-delimited JSON, one
+   * index page at a time, and returns how many were written. Each line is the JSON the repository
+   * encoded when the payment was stored, copied as is, so memory stays at one page of ids however
+   * many payments match; a slow reader blocks the write and with it the paging. Payments stored
+   * after the export started are left out, so it ends even while payments keep arriving.
+   */
+  public long export(PaymentFilter filter, OutputStream out) throws IOException {
+    long toMillis = Math.min(filter.toMillis(), System.currentTimeMillis() + 1);
+    long written = 0;
+    Cursor cursor = null;
+    do {
+      Page page = index.search(filter.fromMillis(), toMillis, filter.status(), filter.currency(),
+          cursor, maxLimit);
+      for (UUID id : page.ids()) {
+        Optional<byte[]> json = paymentsRepository.peekJson(id);
+        if (json.isPresent()) {
+          out.write(json.get());
+          out.write('\n');
+          written++;
+        }
+      }
+      cursor = page.next();
+    } while (cursor != null);
+    return written;
+  }
+
+  private PaymentFilter filter(Instant from, Instant to, String status, String currency,
+      ValidationException pageErrors) {
+    long fromMillis = from == null ? Long.MIN_VALUE : epochMillis(from);
+    long toMillis = to == null ? Long.MAX_VALUE : epochMillis(to);
+    PaymentStatus paymentStatus = status == null ? null : parseStatus(status);
+    Currency paymentCurrency = currency == null ? null : Currency.fromCode(currency);
+
+    ValidationException errors = fromMillis >= toMillis ? RANGE : null;
+    if (status != null && paymentStatus == null) {
+      errors = PaymentRequestValidatorService.combine(errors, STATUS);
+    }
+    if (currency != null && paymentCurrency == null) {
+      errors = PaymentRequestValidatorService.combine(errors, CURRENCY);
+    }
+    errors = PaymentRequestValidatorService.combine(errors, pageErrors);
+    if (errors != null) {
+      throw errors;
+    }
+    return new PaymentFilter(fromMillis, toMillis, paymentStatus, paymentCurrency);
+  }
+
+  // instants past the range of epoch milliseconds are clamped rather than failing the query
+  private static long epochMillis(Instant instant) {
+    try {
+      return instant.toEpochMilli();
+    } catch (ArithmeticException ex) {
+      return instant.isBefore(Instant.EPOCH) ? Long.MIN_VALUE : Long.MAX_VALUE;
+    }
+  }
+
+  // by response name or constant name, in any case: Declined, DECLINED, declined
+  private static PaymentStatus parseStatus(String status) {
+    for (PaymentStatus candidate : PaymentStatus.values()) {
+      if (candidate.getName().equalsIgnoreCase(status)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Checked search filters: stored time in {@code [fromMillis, toMillis)}, and a status and
+   * currency, each {@code null} for any.
+   */
+  public record PaymentFilter(long fromMillis, long toMillis, PaymentStatus status,
+      Currency currency) {
+
+  }
+}
@@ -0,0 +1,19 @@
+package com.checkout.payment.gateway.service;
+
+import java.util.UUID;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Version 4 UUIDs from the shared {@code SecureRandom}: unordered, and every call synchronises on
+ * the one generator.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payments.id", name = "generator", havingValue = "random")
+public class RandomPaymentIdGenerator implements PaymentIdGenerator {
+
+  @Override
+  public UUID nextId() {
+    return UUID.randomUUID();
+  }
+}
@@ -0,0 +1,114 @@
+package com.checkout.payment.gateway.service;
+
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * RFC 9562 version 7 UUIDs: 48 bits of Unix milliseconds, then 74 random bits (12 in rand_a, 62
+ * in rand_b) from {@link SecureRandom}. Ids sort by creation millisecond and a time range is a
+ * contiguous id range, see {@link #firstIdAt}; within a millisecond their order is random. Ids are
+ * served unauthenticated by GET /payment/{id}, so the random bits must not be guessable from an id
+ * seen nearby.
+ *
+ * <p>Time is read from {@link System#nanoTime()} anchored to the wall clock once at startup, so
+ * ids never go backwards when NTP steps the clock. Random bytes are drawn in blocks into buffers,
+ * each with its own SecureRandom and lock, and a thread uses the buffer its thread id maps to, so
+ * threads rarely meet on a lock and most of the cost is the block refill, shared by 100 ids.
+ */
+@Component
+@ConditionalOnProperty(prefix = "payments.id", name = "generator", havingValue = "time-ordered",
+    matchIfMissing = true)
+public class TimeOrderedPaymentIdGenerator implements PaymentIdGenerator {
+
+  private static final long NANOS_PER_MILLI = 1_000_000;
+  private static final long VERSION = 0x7000L;
+  private static final long VARIANT = 0x8000_0000_0000_0000L;
+  private static final long RAND_A_MASK = 0x0FFFL;
+  private static final long RAND_B_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+  // ten bytes per id: a short for rand_a and a long for rand_b
+  private static final int BLOCK_BYTES = 100 * (Short.BYTES + Long.BYTES);
+
+  private final long startEpochNanos;
+  private final long startNanoTime;
+  private final LongSupplier nanoClock;
+  private final RandomBlock[] blocks;
+  private final int blockMask;
+
+  @Autowired
+  public TimeOrderedPaymentIdGenerator() {
+    this(System.currentTimeMillis(), System::nanoTime);
+  }
+
+  TimeOrderedPaymentIdGenerator(long startEpochMillis, LongSupplier nanoClock) {
+    this.startEpochNanos = startEpochMillis * NANOS_PER_MILLI;
+    this.startNanoTime = nanoClock.getAsLong();
+    this.nanoClock = nanoClock;
+    int target = Runtime.getRuntime().availableProcessors();
+    int blockCount = target <= 1 ? 1 : Integer.highestOneBit(target - 1) << 1;
+    this.blocks = new RandomBlock[blockCount];
+    this.blockMask = blockCount - 1;
+    for (int i = 0; i < blockCount; i++) {
+      blocks[i] = new RandomBlock();
+    }
+  }
+
+  @Override
+  public UUID nextId() {
+    long epochNanos = startEpochNanos + (nanoClock.getAsLong() - startNanoTime);
+    long millis = epochNanos / NANOS_PER_MILLI;
+    RandomBlock block = blocks[(int) Thread.currentThread().threadId() & blockMask];
+    long randA;
+    long randB;
+    block.lock.lock();
+    try {
+      if (!block.bytes.hasRemaining()) {
+        block.random.nextBytes(block.bytes.array());
+        block.bytes.clear();
+      }
+      randA = block.bytes.getShort();
+      randB = block.bytes.getLong();
+    } finally {
+      block.lock.unlock();
+    }
+    return new UUID(millis << 16 | VERSION | randA & RAND_A_MASK, randB & RAND_B_MASK | VARIANT);
+  }
+
+  /**
+   * The Unix milliseconds a version 7 id was created at.
+   */
+  public static long epochMillis(UUID id) {
+    return id.getMostSignificantBits() >>> 16;
+  }
+
+  /**
+   * The lowest version 7 id for {@code epochMillis}: every id created at or after that millisecond
+   * compares greater or equal.
+   */
+  public static UUID firstIdAt(long epochMillis) {
+    return new UUID(epochMillis << 16 | VERSION, VARIANT);
+  }
+
+  private static SecureRandom drbg() {
+    try {
+      // the JDK's Hash_DRBG fills blocks about half again as fast as the default NativePRNG
+      return SecureRandom.getInstance("DRBG");
+    } catch (NoSuchAlgorithmException e) {
+      return new SecureRandom();
+    }
+  }
+
+  private static final class RandomBlock {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final SecureRandom random = drbg();
+    // starts used up, so the first id fills it
+    private final ByteBuffer bytes = ByteBuffer.allocate(BLOCK_BYTES).position(BLOCK_BYTES);
+  }
+}
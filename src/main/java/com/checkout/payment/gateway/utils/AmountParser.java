@@ -0,0 +1,102 @@
+package com.checkout.payment.gateway.utils;
+
+import com.checkout.payment.gateway.enums.AmountError;
+
+/**
+ * Parses a major-unit decimal amount ("10", "10.60", "0.5") into minor units in a single pass over
+ * the characters, without allocating. The result is the minor-unit value when positive, or an
+ * {@link AmountError} encoded as a negative code, see {@link #isError} and {@link #error}.
+ *
+ * <p>Accepts what {@code new BigDecimal(amount.trim())} accepts for plain decimals (an optional
+ * sign, digits with at most one point) and rejects exponent notation. Errors are reported in the
+ * order AmountUtil always checked them: format, then sign, then decimal places, then range.
+ */
+public final class AmountParser {
+
+  private static final AmountError[] ERRORS = AmountError.values();
+
+  private AmountParser() {
+  }
+
+  public static long parse(CharSequence amount, int exponent) {
+    if (amount == null) {
+      return code(AmountError.EMPTY);
+    }
+    int start = 0;
+    int end = amount.length();
+    while (start < end && amount.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && amount.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    if (start == end) {
+      return code(AmountError.EMPTY);
+    }
+
+    boolean negative = false;
+    char first = amount.charAt(start);
+    if (first == '+' || first == '-') {
+      negative = first == '-';
+      start++;
+    }
+
+    long value = 0;
+    int digits = 0;
+    int fractionDigits = -1;
+    boolean nonZero = false;
+    boolean tooManyDecimals = false;
+    boolean overflow = false;
+    for (int i = start; i < end; i++) {
+      char c = amount.charAt(i);
+      if (c >= '0' && c <= '9') {
+        int digit = c - '0';
+        digits++;
+        nonZero |= digit != 0;
+        if (fractionDigits >= 0 && ++fractionDigits > exponent) {
+          // keep scanning: a malformed character later on is reported first
+          tooManyDecimals = true;
+        } else if (!overflow) {
+          if (value > (Long.MAX_VALUE - digit) / 10) {
+            overflow = true;
+          } else {
+            value = value * 10 + digit;
+          }
+        }
+      } else if (c == '.' && fractionDigits < 0) {
+        fractionDigits = 0;
+      } else {
+        return code(AmountError.INVALID_FORMAT);
+      }
+    }
+    if (digits == 0) {
+      return code(AmountError.INVALID_FORMAT);
+    }
+    if (negative || !nonZero) {
+      return code(AmountError.NOT_POSITIVE);
+    }
+    if (tooManyDecimals) {
+      return code(AmountError.TOO_MANY_DECIMALS);
+    }
+    for (int scale = Math.max(0, fractionDigits); scale < exponent && !overflow; scale++) {
+      if (value > Long.MAX_VALUE / 10) {
+        overflow = true;
+      } else {
+        value *= 10;
+      }
+    }
+    return overflow ? code(AmountError.OVERFLOW) : value;
+  }
+
+  public static boolean isError(long result) {
+    return result < 0;
+  }
+
+  public static AmountError error(long result) {
+    return ERRORS[(int) (-result - 1)];
+  }
+
+  private static long code(AmountError error) {
+    return -(error.ordinal() + 1L);
+  }
+}
@@ -1,28 +1,39 @@
 package com.checkout.payment.gateway.utils;
 
+import com.checkout.payment.gateway.enums.AmountError;
 import com.checkout.payment.gateway.exception.AmountArgumentException;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import com.checkout.payment.gateway.model.Currency;
 
 public final class AmountUtil {
 
-  public static int toMinorUnits(String amountStr) {
-    try {
-      BigDecimal amount = new BigDecimal(amountStr.trim());
-      if (amount.signum() <= 0) {
-        throw new AmountArgumentException("Amount must be greater than 0");
-      }
+  // one shared exception per error and currency exponent, so rejecting an amount allocates nothing
+  private static final AmountArgumentException[][] ERRORS = errors();
 
-      if (amount.scale() > 2) {
-        throw new AmountArgumentException("Amount must have max 2 decimal places");
-      }
+  public static int toMinorUnits(String amountStr, Currency currency) {
+    long minorUnits = AmountParser.parse(amountStr, currency.getExponent());
+    if (AmountParser.isError(minorUnits)) {
+      throw ERRORS[AmountParser.error(minorUnits).ordinal()][currency.getExponent()];
+    }
+    if (minorUnits > Integer.MAX_VALUE) {
+      // the bank and the stored payment carry amounts as int
+      throw ERRORS[AmountError.OVERFLOW.ordinal()][currency.getExponent()];
+    }
+    return (int) minorUnits;
+  }
 
-      return amount
-          .movePointRight(2)
-          .setScale(0, RoundingMode.UNNECESSARY)
-          .intValueExact();
-    } catch (NumberFormatException ex) {
-      throw new AmountArgumentException("Amount must be a valid number [i.e. 0.01 , 10, 10.60]");
+  private static AmountArgumentException[][] errors() {
+    int maxExponent = 0;
+    for (Currency currency : Currency.values()) {
+      maxExponent = Math.max(maxExponent, currency.getExponent());
+    }
+    AmountError[] values = AmountError.values();
+    AmountArgumentException[][] errors = new AmountArgumentException[values.length][];
+    for (AmountError error : values) {
+      errors[error.ordinal()] = new AmountArgumentException[maxExponent + 1];
+      for (int exponent = 0; exponent <= maxExponent; exponent++) {
+        errors[error.ordinal()][exponent] = new AmountArgumentException(error.getMessage(exponent));
+      }
     }
+    return errors;
   }
 }
@@ -0,0 +1,226 @@
+package com.checkout.payment.gateway.utils;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Bounded map split into independently locked stripes, behind the in-memory payment store and the
+ * idempotency cache. Each stripe keeps its entries in eviction order (access order for LRU,
+ * insertion order otherwise) so evicting is always a removal from the head of the stripe. For
+ * LRU, {@link #get} moves the entry it reads to the tail itself, so {@link #peek} can read one
+ * without keeping it. With a TTL, entries that old are dropped from the head as new ones arrive
+ * and treated as absent when read. Capacity is enforced per stripe, so a skewed key distribution
+ * may evict slightly before the configured maximum is reached.
+ *
+ * <p>Entries {@code evictable} rejects are skipped by eviction and expiry alike, and may hold a
+ * stripe over its capacity until they become evictable.
+ *
+ * <p>The entry count is kept in a counter beside the stripes, so {@link #size()} takes no lock and
+ * metric scrapes never wait on writers.
+ */
+public final class BoundedStripedMap<K, V> {
+
+  private final Stripe<K, V>[] stripes;
+  private final int stripeMask;
+  private final int stripeCapacity;
+  private final boolean accessOrder;
+  private final long ttlNanos;
+  private final Predicate<? super V> evictable;
+  private final LongSupplier nanoClock;
+
+  private final AtomicLong count = new AtomicLong();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder expirations = new LongAdder();
+
+  /**
+   * @param ttl how long entries live, or {@code null} to keep them until evicted
+   */
+  @SuppressWarnings("unchecked")
+  public BoundedStripedMap(int maxEntries, int concurrencyLevel, boolean accessOrder, Duration ttl,
+      Predicate<? super V> evictable, LongSupplier nanoClock) {
+    int stripeCount = stripeCount(concurrencyLevel, maxEntries);
+    this.stripes = new Stripe[stripeCount];
+    this.stripeMask = stripeCount - 1;
+    this.stripeCapacity = (maxEntries + stripeCount - 1) / stripeCount;
+    this.accessOrder = accessOrder;
+    this.ttlNanos = ttl == null ? Long.MAX_VALUE : ttl.toNanos();
+    this.evictable = evictable;
+    this.nanoClock = nanoClock;
+    for (int i = 0; i < stripeCount; i++) {
+      stripes[i] = new Stripe<>();
+    }
+  }
+
+  /**
+   * The live value for {@code key}, or {@code null}. An expired entry is removed on the way.
+   */
+  public V get(K key) {
+    return read(key, accessOrder);
+  }
+
+  /**
+   * {@link #get} that leaves the eviction order alone, for reads that should not keep an entry.
+   */
+  public V peek(K key) {
+    return read(key, false);
+  }
+
+  private V read(K key, boolean touch) {
+    Stripe<K, V> stripe = stripeFor(key);
+    stripe.lock.lock();
+    try {
+      return live(stripe, key, nanoClock.getAsLong(), touch);
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  public void put(K key, V value) {
+    Stripe<K, V> stripe = stripeFor(key);
+    long now = nanoClock.getAsLong();
+    stripe.lock.lock();
+    try {
+      insert(stripe, key, value, now);
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * Stores {@code value} unless {@code key} already has a live one, which is returned instead.
+   *
+   * @return the existing value, or {@code null} if {@code value} was stored
+   */
+  public V putIfAbsent(K key, V value) {
+    Stripe<K, V> stripe = stripeFor(key);
+    long now = nanoClock.getAsLong();
+    stripe.lock.lock();
+    try {
+      V existing = live(stripe, key, now, accessOrder);
+      if (existing == null) {
+        insert(stripe, key, value, now);
+      }
+      return existing;
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  /**
+   * Removes {@code key} only while it still maps to this very {@code value}.
+   */
+  public boolean remove(K key, V value) {
+    Stripe<K, V> stripe = stripeFor(key);
+    stripe.lock.lock();
+    try {
+      Node<V> node = stripe.entries.get(key);
+      if (node == null || node.value != value) {
+        return false;
+      }
+      stripe.entries.remove(key);
+      count.decrementAndGet();
+      return true;
+    } finally {
+      stripe.lock.unlock();
+    }
+  }
+
+  public long size() {
+    return count.get();
+  }
+
+  public long evictionCount() {
+    return evictions.sum();
+  }
+
+  public long expirationCount() {
+    return expirations.sum();
+  }
+
+  private V live(Stripe<K, V> stripe, K key, long now, boolean touch) {
+    Node<V> node = stripe.entries.get(key);
+    if (node == null) {
+      return null;
+    }
+    if (isExpired(node, now)) {
+      stripe.entries.remove(key);
+      count.decrementAndGet();
+      expirations.increment();
+      return null;
+    }
+    if (touch) {
+      stripe.entries.putLast(key, node);
+    }
+    return node.value;
+  }
+
+  private void insert(Stripe<K, V> stripe, K key, V value, long now) {
+    Node<V> node = new Node<>(value, now);
+    Node<V> previous = accessOrder ? stripe.entries.putLast(key, node)
+        : stripe.entries.put(key, node);
+    if (previous == null) {
+      count.incrementAndGet();
+    }
+    if (ttlNanos != Long.MAX_VALUE) {
+      expireHead(stripe, now);
+    }
+    evictOverflow(stripe);
+  }
+
+  private void evictOverflow(Stripe<K, V> stripe) {
+    Iterator<Node<V>> eldest = stripe.entries.values().iterator();
+    while (stripe.entries.size() > stripeCapacity && eldest.hasNext()) {
+      if (evictable.test(eldest.next().value)) {
+        eldest.remove();
+        count.decrementAndGet();
+        evictions.increment();
+      }
+    }
+  }
+
+  private void expireHead(Stripe<K, V> stripe, long now) {
+    Iterator<Node<V>> eldest = stripe.entries.values().iterator();
+    while (eldest.hasNext()) {
+      Node<V> node = eldest.next();
+      if (now - node.insertedAtNanos < ttlNanos) {
+        return;
+      }
+      if (evictable.test(node.value)) {
+        eldest.remove();
+        count.decrementAndGet();
+        expirations.increment();
+      }
+    }
+  }
+
+  private boolean isExpired(Node<V> node, long now) {
+    return now - node.insertedAtNanos >= ttlNanos && evictable.test(node.value);
+  }
+
+  private Stripe<K, V> stripeFor(K key) {
+    int h = key.hashCode();
+    return stripes[(h ^ (h >>> 16)) & stripeMask];
+  }
+
+  private static int stripeCount(int concurrencyLevel, int maxEntries) {
+    int target = Math.max(1, Math.min(concurrencyLevel, maxEntries));
+    return target == 1 ? 1 : Integer.highestOneBit(target - 1) << 1;
+  }
+
+  private record Node<V>(V value, long insertedAtNanos) {
+
+  }
+
+  private static final class Stripe<K, V> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // insertion order; LRU reads move their entry to the tail with putLast
+    private final LinkedHashMap<K, Node<V>> entries = new LinkedHashMap<>();
+  }
+}
@@ -0,0 +1,30 @@
+package com.checkout.payment.gateway.utils;
+
+/**
+ * The bank's "MM/YYYY" expiry strings. Every month of 2000-2099 is formatted once up front (1,200
+ * shared strings), so a payment looks its expiry up instead of formatting it.
+ */
+public final class ExpiryDateUtil {
+
+  private static final String[] EXPIRY_DATES = expiryDates();
+
+  private ExpiryDateUtil() {
+  }
+
+  public static String format(int month, int twoDigitYear) {
+    if (month >= 1 && month <= 12 && twoDigitYear >= 0 && twoDigitYear <= 99) {
+      return EXPIRY_DATES[twoDigitYear * 12 + month - 1];
+    }
+    return String.format("%02d/%d", month, 2000 + twoDigitYear);
+  }
+
+  private static String[] expiryDates() {
+    String[] dates = new String[100 * 12];
+    for (int year = 0; year <= 99; year++) {
+      for (int month = 1; month <= 12; month++) {
+        dates[year * 12 + month - 1] = String.format("%02d/%d", month, 2000 + year);
+      }
+    }
+    return dates;
+  }
+}
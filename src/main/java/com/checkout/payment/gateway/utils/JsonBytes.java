@@ -0,0 +1,80 @@
+package com.checkout.payment.gateway.utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Pieces of compact JSON written the way Jackson writes them by default, for the encoders that
+ * produce Jackson's bytes without going through it.
+ */
+public final class JsonBytes {
+
+  /**
+   * Longest decimal int, {@link Integer#MIN_VALUE} with its sign.
+   */
+  public static final int MAX_INT_LENGTH = 11;
+
+  private static final char[] ESCAPE_HEX = "0123456789ABCDEF".toCharArray();
+
+  private JsonBytes() {
+  }
+
+  /**
+   * Writes {@code value} in decimal at {@code pos} and returns the position after it.
+   */
+  public static int putInt(byte[] out, int pos, int value) {
+    long remaining = value;
+    if (remaining < 0) {
+      out[pos++] = '-';
+      remaining = -remaining;
+    }
+    int digits = 1;
+    for (long bound = 10; bound <= remaining; bound *= 10) {
+      digits++;
+    }
+    for (int i = pos + digits - 1; i >= pos; i--) {
+      out[i] = (byte) ('0' + remaining % 10);
+      remaining /= 10;
+    }
+    return pos + digits;
+  }
+
+  /**
+   * Whether {@code c} is written as its single ASCII byte, with no escape and no UTF-8 encoding.
+   */
+  public static boolean isPlain(char c) {
+    return c >= 0x20 && c < 0x80 && c != '"' && c != '\\';
+  }
+
+  /**
+   * {@code value} quoted and escaped, as UTF-8.
+   */
+  public static byte[] string(String value) {
+    return ('"' + escape(value, 0) + '"').getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * {@code value} from {@code from} on, escaped but not quoted. Non-ASCII is left for the UTF-8
+   * encoding, as Jackson leaves it.
+   */
+  public static String escape(String value, int from) {
+    StringBuilder json = new StringBuilder(value.length() - from + 8);
+    for (int i = from; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c < 0x20) {
+        switch (c) {
+          case '\b' -> json.append("\\b");
+          case '\t' -> json.append("\\t");
+          case '\n' -> json.append("\\n");
+          case '\f' -> json.append("\\f");
+          case '\r' -> json.append("\\r");
+          default -> json.append("\\u00").append(ESCAPE_HEX[c >> 4]).append(ESCAPE_HEX[c & 0xF]);
+        }
+      } else {
+        json.append(c);
+      }
+    }
+    return json.toString();
+  }
+}
@@ -0,0 +1,56 @@
+package com.checkout.payment.gateway.utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Fails the read with {@code tooLarge} once more than {@code limit} bytes have come through, for
+ * request bodies sent chunked or with a Content-Length that understates them.
+ */
+public final class LimitedInputStream extends FilterInputStream {
+
+  private final RuntimeException tooLarge;
+  private long remaining;
+
+  public LimitedInputStream(InputStream in, long limit, RuntimeException tooLarge) {
+    super(in);
+    this.remaining = limit;
+    this.tooLarge = tooLarge;
+  }
+
+  @Override
+  public int read() throws IOException {
+    int b = super.read();
+    if (b >= 0) {
+      consumed(1);
+    }
+    return b;
+  }
+
+  @Override
+  public int read(byte[] b, int off, int len) throws IOException {
+    // one byte past the limit is enough to tell the body is too large
+    int n = super.read(b, off, (int) Math.min(len, remaining + 1));
+    if (n > 0) {
+      consumed(n);
+    }
+    return n;
+  }
+
+  @Override
+  public long skip(long n) throws IOException {
+    long skipped = super.skip(Math.min(n, remaining + 1));
+    if (skipped > 0) {
+      consumed(skipped);
+    }
+    return skipped;
+  }
+
+  private void consumed(long n) {
+    remaining -= n;
+    if (remaining < 0) {
+      throw tooLarge;
+    }
+  }
+}
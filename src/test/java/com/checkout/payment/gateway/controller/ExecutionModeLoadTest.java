@@ -0,0 +1,67 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.support.BankStub;
+import com.checkout.payment.gateway.support.LoadGenerator;
+import com.checkout.payment.gateway.support.LoadGenerator.Result;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Same load against the platform-thread (async) and virtual-thread (blocking) execution modes.
+ * Each run logs throughput and p50/p99 so the two modes can be compared from the test output.
+ */
+abstract class ExecutionModeLoadTest {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ExecutionModeLoadTest.class);
+
+  private static final int REQUESTS = 2_000;
+  private static final int CONCURRENCY = 32;
+  private static final long BANK_DELAY_MILLIS = 20;
+
+  private static final BankStub BANK = BankStub.start().withDelay(() -> BANK_DELAY_MILLIS);
+
+  @LocalServerPort
+  private int port;
+
+  @DynamicPropertySource
+  static void bank(DynamicPropertyRegistry registry) {
+    registry.add("acquiring.bank.base-url", BANK::baseUrl);
+  }
+
+  @Test
+  void whenUnderSustainedLoadThenEveryPaymentIsProcessed() {
+    HttpRequest request = LoadGenerator.postPayment(URI.create("http://localhost:" + port), """
+        {"card_number":"4532015112830367","expiry_month":12,"expiry_year":39,
+         "cvv":"123","currency":"GBP","amount":"10.60"}""");
+    LoadGenerator load = new LoadGenerator();
+
+    load.run(request, REQUESTS / 4, CONCURRENCY);
+    Result result = load.run(request, REQUESTS, CONCURRENCY);
+
+    LOG.info("{}: {}", getClass().getSimpleName(), result);
+    assertThat(result.errors()).isZero();
+  }
+
+  @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+  @TestPropertySource(properties = "spring.threads.virtual.enabled=false")
+  static class PlatformThreads extends ExecutionModeLoadTest {
+
+  }
+
+  @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+  @TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+  static class VirtualThreads extends ExecutionModeLoadTest {
+
+  }
+}
@@ -0,0 +1,122 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.checkout.payment.gateway.configuration.RateLimitProperties;
+import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentResponse;
+import com.checkout.payment.gateway.resilience.MerchantRateLimiter;
+import com.checkout.payment.gateway.service.AcquiringBankService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import reactor.core.publisher.Mono;
+
+@SpringBootTest(properties = {
+    "payments.rate-limit.enabled=true",
+    "payments.rate-limit.permits-per-second=1",
+    "payments.rate-limit.burst=2"
+})
+@AutoConfigureMockMvc
+class MerchantRateLimitInterceptorTest {
+
+  private static final String PAYMENT = """
+      {"card_number": "35231212224293937", "expiry_month": 12, "expiry_year": 27,
+       "cvv": "123", "currency": "GBP", "amount": 10.60}""";
+
+  @TestConfiguration
+  static class FrozenClock {
+
+    // no refill while a test runs, so every permit a request takes is visible
+    @Bean
+    @Primary
+    MerchantRateLimiter frozenRateLimiter(RateLimitProperties properties) {
+      return new MerchantRateLimiter(properties, () -> 0L);
+    }
+  }
+
+  @Autowired
+  private MockMvc mvc;
+  @Autowired
+  private MerchantRateLimiter rateLimiter;
+  @MockBean
+  private AcquiringBankService acquiringBankService;
+
+  @BeforeEach
+  void bankAuthorises() {
+    when(acquiringBankService.authorise(any())).thenReturn(
+        Mono.just(new BankPaymentResponse(true, "6b03b0d9-8053-4da7-87ed-0d27490f23e6")));
+  }
+
+  // completes the async handlers the way a servlet container does, through the ASYNC dispatch
+  private ResultActions perform(RequestBuilder request) throws Exception {
+    ResultActions actions = mvc.perform(request);
+    MvcResult result = actions.andReturn();
+    return result.getRequest().isAsyncStarted() ? mvc.perform(asyncDispatch(result)) : actions;
+  }
+
+  private ResultActions postPayment(String merchant) throws Exception {
+    return perform(MockMvcRequestBuilders.post("/payment")
+        .header("Merchant-Id", merchant).contentType(MediaType.APPLICATION_JSON)
+        .content(PAYMENT));
+  }
+
+  private ResultActions postBatch(String merchant) throws Exception {
+    return perform(MockMvcRequestBuilders.post("/payments/batch")
+        .header("Merchant-Id", merchant).contentType(MediaType.APPLICATION_JSON)
+        .accept(MediaType.APPLICATION_JSON).content("[" + PAYMENT + "]"));
+  }
+
+  private ResultActions export(String merchant) throws Exception {
+    return perform(MockMvcRequestBuilders.get("/payments/export")
+        .header("Merchant-Id", merchant));
+  }
+
+  @Test
+  void whenPaymentsArePostedThenEachTakesOnePermitAcrossItsAsyncDispatch() throws Exception {
+    long limited = rateLimiter.limitedCount();
+
+    postPayment("payment-merchant").andExpect(status().isOk());
+    postPayment("payment-merchant").andExpect(status().isOk());
+    postPayment("payment-merchant").andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "1"));
+
+    assertThat(rateLimiter.limitedCount() - limited).isEqualTo(1);
+  }
+
+  @Test
+  void whenBatchesArePostedThenEachTakesOnePermitAcrossItsAsyncDispatch() throws Exception {
+    long limited = rateLimiter.limitedCount();
+
+    postBatch("batch-merchant").andExpect(status().isOk());
+    postBatch("batch-merchant").andExpect(status().isOk());
+    postBatch("batch-merchant").andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "1"));
+    postBatch("other-merchant").andExpect(status().isOk());
+
+    assertThat(rateLimiter.limitedCount() - limited).isEqualTo(1);
+  }
+
+  @Test
+  void whenMerchantExceedsTheRateWithExportsThenExportIsRejected() throws Exception {
+    export("export-merchant").andExpect(status().isOk());
+    export("export-merchant").andExpect(status().isOk());
+    export("export-merchant").andExpect(status().isTooManyRequests());
+  }
+}
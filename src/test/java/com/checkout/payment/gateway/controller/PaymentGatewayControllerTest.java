@@ -1,30 +1,49 @@
 package com.checkout.payment.gateway.controller;
 
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.RepositoryFullException;
+import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentRequest;
 import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentResponse;
 import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.model.ProcessPaymentRequest;
 import com.checkout.payment.gateway.repository.PaymentsRepository;
 import com.checkout.payment.gateway.service.AcquiringBankService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import reactor.core.publisher.Mono;
 
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -32,13 +51,27 @@ class PaymentGatewayControllerTest {
 
   @Autowired
   private MockMvc mvc;
-  @Autowired
+  @SpyBean
   PaymentsRepository paymentsRepository;
   @Autowired
   ObjectMapper objectMapper;
   @MockBean
   private AcquiringBankService acquiringBankService;
 
+  private ResultActions postPayment(String body) throws Exception {
+    ResultActions actions = mvc.perform(MockMvcRequestBuilders.post("/payment")
+        .contentType(MediaType.APPLICATION_JSON).content(body));
+    MvcResult result = actions.andReturn();
+    return result.getRequest().isAsyncStarted() ? mvc.perform(asyncDispatch(result)) : actions;
+  }
+
+  private ResultActions postBatch(String body, MediaType accept) throws Exception {
+    ResultActions actions = mvc.perform(MockMvcRequestBuilders.post("/payments/batch")
+        .contentType(MediaType.APPLICATION_JSON).accept(accept).content(body));
+    MvcResult result = actions.andReturn();
+    return result.getRequest().isAsyncStarted() ? mvc.perform(asyncDispatch(result)) : actions;
+  }
+
   private ObjectNode basePayload() {
     ObjectNode json = objectMapper.createObjectNode();
     json.put("card_number", "4532015112830366");
@@ -73,6 +106,46 @@ class PaymentGatewayControllerTest {
         .andExpect(jsonPath("$.amount").value(payment.getAmount()));
   }
 
+  @Test
+  void whenPaymentIsFetchedThenStrongEtagAndImmutableCacheControlAreReturned() throws Exception {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    paymentsRepository.add(payment);
+
+    mvc.perform(MockMvcRequestBuilders.get("/payment/" + payment.getId()))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", "\"" + payment.getId() + "\""))
+        .andExpect(header().string("Cache-Control", "max-age=31536000, private, immutable"));
+  }
+
+  @Test
+  void whenIfNoneMatchMatchesThen304IsReturnedWithoutBody() throws Exception {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    paymentsRepository.add(payment);
+
+    mvc.perform(MockMvcRequestBuilders.get("/payment/" + payment.getId())
+            .header("If-None-Match", "\"" + payment.getId() + "\""))
+        .andExpect(status().isNotModified())
+        .andExpect(header().string("ETag", "\"" + payment.getId() + "\""))
+        .andExpect(content().string(""));
+
+    mvc.perform(MockMvcRequestBuilders.get("/payment/" + payment.getId())
+            .header("If-None-Match", "\"" + UUID.randomUUID() + "\""))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.id").value(payment.getId().toString()));
+  }
+
+  @Test
+  void whenIfNoneMatchIsSentForUnknownPaymentThen404IsReturned() throws Exception {
+    UUID id = UUID.randomUUID();
+    mvc.perform(MockMvcRequestBuilders.get("/payment/" + id)
+            .header("If-None-Match", "\"" + id + "\""))
+        .andExpect(status().isNotFound());
+  }
+
   @Test
   void whenPaymentWithIdDoesNotExistThen404IsReturned() throws Exception {
     mvc.perform(MockMvcRequestBuilders.get("/payment/" + UUID.randomUUID()))
@@ -89,29 +162,38 @@ class PaymentGatewayControllerTest {
     BankPaymentResponse bankResponse = new BankPaymentResponse(true,
         "6b03b0d9-8053-4da7-87ed-0d27490f23e6");
 
-    when(acquiringBankService.authorise(any())).thenReturn(bankResponse);
+    when(acquiringBankService.authorise(any())).thenReturn(Mono.just(bankResponse));
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-        .content(body)).andExpect(status().isServiceUnavailable()).andExpect(
+    postPayment(body).andExpect(status().isServiceUnavailable()).andExpect(
         jsonPath("$.message").value("Bank payment unavailable for card number ends with 0"))
         .andExpect(jsonPath("$.status").value("Rejected"));
 
     verify(acquiringBankService, never()).authorise(any());
   }
 
+  @Test
+  void whenRepositoryIsFullThenReturnServiceUnavailable() throws Exception {
+    when(acquiringBankService.authorise(any())).thenReturn(Mono.just(
+        new BankPaymentResponse(true, "6b03b0d9-8053-4da7-87ed-0d27490f23e6")));
+    doThrow(new RepositoryFullException("Payment repository is full"))
+        .when(paymentsRepository).add(any());
+
+    postPayment(basePayload().toString()).andExpect(status().isServiceUnavailable())
+        .andExpect(jsonPath("$.message").value("Payment repository is full"));
+  }
+
   @Test
   void whenPaymentCardNumberEndsInEvenNumberThenReturnUnauthorised() throws Exception {
 
     BankPaymentResponse bankResponse = new BankPaymentResponse(false, "");
 
-    when(acquiringBankService.authorise(any())).thenReturn(bankResponse);
+    when(acquiringBankService.authorise(any())).thenReturn(Mono.just(bankResponse));
 
     ObjectNode json = basePayload();
     json.put("card_number", "35231212224293938");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isOk()).andExpect(jsonPath("$.status").value("Declined"))
+    postPayment(body).andExpect(status().isOk()).andExpect(jsonPath("$.status").value("Declined"))
         .andExpect(jsonPath("$.cardNumberLastFour").value("3938"))
         .andExpect(jsonPath("$.expiryMonth").value("12"))
         .andExpect(jsonPath("$.expiryYear").value("27"))
@@ -127,14 +209,13 @@ class PaymentGatewayControllerTest {
     BankPaymentResponse bankResponse = new BankPaymentResponse(true,
         "6b03b0d9-8053-4da7-87ed-0d27490f23e6");
 
-    when(acquiringBankService.authorise(any())).thenReturn(bankResponse);
+    when(acquiringBankService.authorise(any())).thenReturn(Mono.just(bankResponse));
 
     ObjectNode json = basePayload();
     json.put("card_number", "35231212224293937");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isOk())
+    postPayment(body).andExpect(status().isOk())
         .andExpect(jsonPath("$.id").value("6b03b0d9-8053-4da7-87ed-0d27490f23e6"))
         .andExpect(jsonPath("$.status").value("Authorized"))
         .andExpect(jsonPath("$.cardNumberLastFour").value("3937"))
@@ -151,14 +232,13 @@ class PaymentGatewayControllerTest {
     BankPaymentResponse bankResponse = new BankPaymentResponse(true,
         "6b03b0d9-8053-4da7-87ed-0d27490f23e6");
 
-    when(acquiringBankService.authorise(any())).thenReturn(bankResponse);
+    when(acquiringBankService.authorise(any())).thenReturn(Mono.just(bankResponse));
 
     ObjectNode json = basePayload();
     json.put("card_number", "35231212224293937");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isOk())
+    postPayment(body).andExpect(status().isOk())
         .andExpect(jsonPath("$.id").value("6b03b0d9-8053-4da7-87ed-0d27490f23e6"))
         .andExpect(jsonPath("$.status").value("Authorized"))
         .andExpect(jsonPath("$.cardNumberLastFour").value("3937"))
@@ -186,8 +266,7 @@ class PaymentGatewayControllerTest {
     json.put("expiry_year", 15);
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("MM/YY must be in future"));
   }
 
@@ -197,8 +276,7 @@ class PaymentGatewayControllerTest {
     json.put("expiry_month", 14);
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("Expiry month must be between 1 and 12"));
   }
 
@@ -208,19 +286,30 @@ class PaymentGatewayControllerTest {
     json.put("currency", "ZAR");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("currency is not valid"));
   }
 
+  @Test
+  void whenSeveralPaymentFieldsAreInvalidThenAllAreReturned() throws Exception {
+    ObjectNode json = basePayload();
+    json.put("expiry_month", 14);
+    json.put("currency", "ZAR");
+    String body = json.toString();
+
+    postPayment(body).andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Payment request has 2 invalid fields"))
+        .andExpect(jsonPath("$.errors.expiryMonth").value("Expiry month must be between 1 and 12"))
+        .andExpect(jsonPath("$.errors.currency").value("currency is not valid"));
+  }
+
   @Test
   void whenPaymentCardNumberIsAlphanumericThenReturnBadRequest() throws Exception {
     ObjectNode json = basePayload();
     json.put("card_number", "352312122242A12B");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("Card Number must be must be digits value"));
   }
 
@@ -230,8 +319,7 @@ class PaymentGatewayControllerTest {
     json.put("card_number", "352312122242");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("Card Number must be between 14 and 19 digits"));
   }
 
@@ -241,8 +329,7 @@ class PaymentGatewayControllerTest {
     json.put("card_number", "35231212224293931212");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("Card Number must be between 14 and 19 digits"));
   }
 
@@ -253,8 +340,7 @@ class PaymentGatewayControllerTest {
     json.put("cvv", 12);
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("CVV must be between 3 and 4 digit"));
   }
 
@@ -264,8 +350,7 @@ class PaymentGatewayControllerTest {
     json.put("cvv", 43321);
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("CVV must be between 3 and 4 digit"));
   }
 
@@ -275,8 +360,7 @@ class PaymentGatewayControllerTest {
     json.put("cvv", "A12");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("CVV must be between 3 and 4 digit"));
   }
 
@@ -286,8 +370,7 @@ class PaymentGatewayControllerTest {
     json.remove("cvv");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
             .andExpect(jsonPath("$.cvv").value("3 digit cvv required"));
   }
 
@@ -297,8 +380,7 @@ class PaymentGatewayControllerTest {
     json.remove("amount");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.amount").value("amount is required"));
   }
 
@@ -308,8 +390,7 @@ class PaymentGatewayControllerTest {
     json.remove("card_number");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-        .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.cardNumber").value("minimum 14 digit card number required"));
   }
 
@@ -319,8 +400,7 @@ class PaymentGatewayControllerTest {
     json.put("amount", "$10.78");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("Amount must be a valid number [i.e. 0.01 , 10, 10.60]"));
   }
 
@@ -330,8 +410,7 @@ class PaymentGatewayControllerTest {
     json.put("amount", "10.780");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("Amount must have max 2 decimal places"));
   }
 
@@ -341,9 +420,264 @@ class PaymentGatewayControllerTest {
     json.put("amount", "0.00");
     String body = json.toString();
 
-    mvc.perform(MockMvcRequestBuilders.post("/payment").contentType(MediaType.APPLICATION_JSON)
-            .content(body)).andExpect(status().isBadRequest())
+    postPayment(body).andExpect(status().isBadRequest())
         .andExpect(jsonPath("$.message").value("Amount must be greater than 0"));
   }
 
-}
\ No newline at end of file
+  @Test
+  void whenPaymentBodyIsOverTheSizeLimitThenReturn413AndNotCallBank() throws Exception {
+    ObjectNode json = basePayload();
+    json.put("description", "x".repeat(20_000));
+    String body = json.toString();
+
+    postPayment(body).andExpect(status().isPayloadTooLarge())
+        .andExpect(jsonPath("$.message")
+            .value("Payment request body must not exceed 16384 bytes"));
+    verify(acquiringBankService, never()).authorise(any());
+  }
+
+  @Test
+  void whenPaymentBodyIsMalformedThenReturnBadRequest() throws Exception {
+    String body = basePayload().toString();
+
+    postPayment(body.substring(0, body.length() / 2)).andExpect(status().isBadRequest());
+    postPayment("[" + body + "]").andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void whenBatchIsSubmittedThenEachItemGetsItsOwnOutcomeInRequestOrder() throws Exception {
+    when(acquiringBankService.authorise(any())).thenAnswer(invocation -> {
+      String cardNumber = invocation.<BankPaymentRequest>getArgument(0).card_number();
+      boolean odd = (cardNumber.charAt(cardNumber.length() - 1) - '0') % 2 == 1;
+      return Mono.just(odd
+          ? new BankPaymentResponse(true, UUID.randomUUID().toString())
+          : new BankPaymentResponse(false, ""));
+    });
+
+    ArrayNode batch = objectMapper.createArrayNode();
+    batch.add(basePayload().put("card_number", "35231212224293937"));
+    batch.add(basePayload().put("card_number", "35231212224293938"));
+    batch.add(basePayload().put("expiry_month", 14));
+    batch.add(basePayload().put("card_number", "35231212224293930"));
+    batch.add(basePayload().put("amount", "10.780"));
+    batch.add(basePayload().without("cvv"));
+
+    postBatch(batch.toString(), MediaType.APPLICATION_JSON).andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(6))
+        .andExpect(jsonPath("$[0].index").value(0))
+        .andExpect(jsonPath("$[0].outcome").value("Authorized"))
+        .andExpect(jsonPath("$[0].payment.cardNumberLastFour").value(3937))
+        .andExpect(jsonPath("$[1].outcome").value("Declined"))
+        .andExpect(jsonPath("$[1].payment.amount").value(1060))
+        .andExpect(jsonPath("$[2].outcome").value("Invalid"))
+        .andExpect(jsonPath("$[2].field").value("expiryMonth"))
+        .andExpect(jsonPath("$[2].message").value("Expiry month must be between 1 and 12"))
+        .andExpect(jsonPath("$[3].outcome").value("Rejected"))
+        .andExpect(jsonPath("$[3].message")
+            .value("Bank payment unavailable for card number ends with 0"))
+        .andExpect(jsonPath("$[4].outcome").value("Invalid"))
+        .andExpect(jsonPath("$[4].field").value("amount"))
+        .andExpect(jsonPath("$[5].index").value(5))
+        .andExpect(jsonPath("$[5].outcome").value("Invalid"))
+        .andExpect(jsonPath("$[5].field").value("cvv"))
+        .andExpect(jsonPath("$[5].message").value("3 digit cvv required"));
+
+    verify(acquiringBankService, times(2)).authorise(any());
+  }
+
+  @Test
+  void whenBatchItemHasSeveralInvalidFieldsThenEveryErrorIsReturned() throws Exception {
+    ArrayNode batch = objectMapper.createArrayNode();
+    batch.add(basePayload().put("expiry_month", 14).put("cvv", "12"));
+    batch.add(basePayload().putNull("currency").putNull("cvv"));
+
+    postBatch(batch.toString(), MediaType.APPLICATION_JSON).andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].outcome").value("Invalid"))
+        .andExpect(jsonPath("$[0].field").value("expiryMonth"))
+        .andExpect(jsonPath("$[0].message").value("Payment request has 2 invalid fields"))
+        .andExpect(jsonPath("$[0].errors.expiryMonth")
+            .value("Expiry month must be between 1 and 12"))
+        .andExpect(jsonPath("$[0].errors.cvv").value("CVV must be between 3 and 4 digit"))
+        .andExpect(jsonPath("$[1].outcome").value("Invalid"))
+        .andExpect(jsonPath("$[1].field").value("currency"))
+        .andExpect(jsonPath("$[1].message").value("Payment request has 2 invalid fields"))
+        .andExpect(jsonPath("$[1].errors.currency").value(ProcessPaymentRequest.CURRENCY_REQUIRED))
+        .andExpect(jsonPath("$[1].errors.cvv").value("3 digit cvv required"));
+
+    verify(acquiringBankService, never()).authorise(any());
+  }
+
+  @Test
+  void whenBatchBodyIsOverTheSizeLimitThenReturn413AndNotCallBank() throws Exception {
+    ArrayNode batch = objectMapper.createArrayNode();
+    batch.add(basePayload().put("description", "x".repeat(1_100_000)));
+
+    postBatch(batch.toString(), MediaType.APPLICATION_JSON)
+        .andExpect(status().isPayloadTooLarge())
+        .andExpect(jsonPath("$.message")
+            .value("Payment batch body must not exceed 1048576 bytes"));
+    verify(acquiringBankService, never()).authorise(any());
+  }
+
+  @Test
+  void whenBatchIsStreamedThenOneJsonLinePerItemIsReturned() throws Exception {
+    when(acquiringBankService.authorise(any()))
+        .thenReturn(Mono.just(new BankPaymentResponse(false, "")));
+
+    ArrayNode batch = objectMapper.createArrayNode();
+    for (int i = 0; i < 3; i++) {
+      batch.add(basePayload());
+    }
+
+    String body = postBatch(batch.toString(), MediaType.APPLICATION_NDJSON)
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    List<String> lines = body.lines().filter(line -> !line.isBlank()).toList();
+    assertThat(lines).hasSize(3);
+    for (int i = 0; i < lines.size(); i++) {
+      assertThat(objectMapper.readTree(lines.get(i)).get("index").asInt()).isEqualTo(i);
+      assertThat(objectMapper.readTree(lines.get(i)).get("outcome").asText()).isEqualTo("Declined");
+    }
+  }
+
+  @Test
+  void whenBatchIsEmptyThenReturnBadRequest() throws Exception {
+    postBatch("[]", MediaType.APPLICATION_JSON).andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Batch must contain between 1 and 500 payments"));
+  }
+
+  @Test
+  void whenPaymentsAreSearchedThenStoredPaymentsMatchingTheFiltersArePaged() throws Exception {
+    Instant from = Instant.now();
+    List<String> ids = List.of(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+    for (String id : ids) {
+      when(acquiringBankService.authorise(any()))
+          .thenReturn(Mono.just(new BankPaymentResponse(true, id)));
+      ObjectNode json = basePayload();
+      json.put("card_number", "35231212224293937");
+      json.put("currency", "EUR");
+      postPayment(json.toString()).andExpect(status().isOk());
+    }
+
+    MvcResult first = mvc.perform(MockMvcRequestBuilders.get("/payments")
+            .param("from", from.toString()).param("status", "Authorized")
+            .param("currency", "EUR").param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.payments.length()").value(1))
+        .andExpect(jsonPath("$.payments[0].id").value(ids.get(0)))
+        .andExpect(jsonPath("$.payments[0].currency").value("EUR"))
+        .andReturn();
+    String cursor = objectMapper.readTree(first.getResponse().getContentAsString())
+        .get("nextCursor").asText();
+
+    mvc.perform(MockMvcRequestBuilders.get("/payments")
+            .param("from", from.toString()).param("status", "Authorized")
+            .param("currency", "EUR").param("limit", "1").param("cursor", cursor))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.payments[0].id").value(ids.get(1)));
+  }
+
+  @Test
+  void whenPaymentsAreExportedThenEachIsOneJsonLineGzippedOnRequest() throws Exception {
+    Instant from = Instant.now();
+    List<String> ids = List.of(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+    for (String id : ids) {
+      when(acquiringBankService.authorise(any()))
+          .thenReturn(Mono.just(new BankPaymentResponse(true, id)));
+      ObjectNode json = basePayload();
+      json.put("card_number", "35231212224293937");
+      json.put("currency", "USD");
+      postPayment(json.toString()).andExpect(status().isOk());
+    }
+
+    MvcResult plain = mvc.perform(asyncDispatch(mvc.perform(MockMvcRequestBuilders
+            .get("/payments/export").param("from", from.toString()).param("currency", "USD"))
+        .andReturn()))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+        .andReturn();
+    String[] lines = plain.getResponse().getContentAsString().split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(objectMapper.readTree(lines[0]).get("id").asText()).isEqualTo(ids.get(0));
+    assertThat(objectMapper.readTree(lines[1]).get("id").asText()).isEqualTo(ids.get(1));
+
+    MvcResult gzipped = mvc.perform(asyncDispatch(mvc.perform(MockMvcRequestBuilders
+            .get("/payments/export").param("from", from.toString()).param("currency", "USD")
+            .header("Accept-Encoding", "gzip"))
+        .andReturn()))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Content-Encoding", "gzip"))
+        .andReturn();
+    try (GZIPInputStream in = new GZIPInputStream(
+        new ByteArrayInputStream(gzipped.getResponse().getContentAsByteArray()))) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+          .isEqualTo(plain.getResponse().getContentAsString());
+    }
+  }
+
+  @Test
+  void whenClientRefusesGzipWithAZeroQualityThenExportIsNotCompressed() throws Exception {
+    mvc.perform(asyncDispatch(mvc.perform(MockMvcRequestBuilders.get("/payments/export")
+            .header("Accept-Encoding", "gzip;q=0, identity")).andReturn()))
+        .andExpect(status().isOk())
+        .andExpect(header().doesNotExist("Content-Encoding"));
+
+    assertThat(PaymentGatewayController.acceptsGzip("br, gzip;q=0.5")).isTrue();
+    assertThat(PaymentGatewayController.acceptsGzip("*;q=0.1")).isTrue();
+    assertThat(PaymentGatewayController.acceptsGzip("gzip;q=0.0, *")).isFalse();
+    assertThat(PaymentGatewayController.acceptsGzip("identity")).isFalse();
+  }
+
+  @Test
+  void whenPaymentsAreExportedThenOnlyTheExportGetsTheLongAsyncTimeout() throws Exception {
+    MvcResult export = mvc.perform(MockMvcRequestBuilders.get("/payments/export")).andReturn();
+    assertThat(export.getRequest().getAsyncContext().getTimeout())
+        .isEqualTo(Duration.ofMinutes(10).toMillis());
+    mvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+
+    when(acquiringBankService.authorise(any())).thenReturn(Mono.just(
+        new BankPaymentResponse(true, "6b03b0d9-8053-4da7-87ed-0d27490f23e6")));
+    MvcResult payment = mvc.perform(MockMvcRequestBuilders.post("/payment")
+        .contentType(MediaType.APPLICATION_JSON).content(basePayload().toString())).andReturn();
+    assertThat(payment.getRequest().getAsyncContext().getTimeout())
+        .isNotEqualTo(Duration.ofMinutes(10).toMillis());
+  }
+
+  @Test
+  void whenExportFiltersAreInvalidThenReturnBadRequestBeforeStreaming() throws Exception {
+    mvc.perform(MockMvcRequestBuilders.get("/payments/export").param("currency", "JPY"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.message").value("Currency not supported"));
+  }
+
+  @Test
+  void whenPaymentSearchIsInvalidThenEveryInvalidParameterIsReturned() throws Exception {
+    mvc.perform(MockMvcRequestBuilders.get("/payments")
+            .param("status", "Pending").param("cursor", "not-a-cursor").param("limit", "0"))
+        .andExpect(status().isBadRequest())
+        .andExpect(jsonPath("$.errors.status").value("Unknown payment status"))
+        .andExpect(jsonPath("$.errors.cursor").value("Cursor is not valid"))
+        .andExpect(jsonPath("$.errors.limit").value("limit must be between 1 and 1000"));
+  }
+
+  @Test
+  void whenPaymentIsRetriedWithSameIdempotencyKeyThenBankIsCalledOnce() throws Exception {
+    when(acquiringBankService.authorise(any())).thenReturn(Mono.just(
+        new BankPaymentResponse(true, "0b7e2a36-3c3f-4c1e-9d53-4c6e1f0a9d11")));
+    ObjectNode json = basePayload();
+    json.put("card_number", "35231212224293937");
+    String key = UUID.randomUUID().toString();
+
+    for (int attempt = 0; attempt < 2; attempt++) {
+      ResultActions actions = mvc.perform(MockMvcRequestBuilders.post("/payment")
+          .contentType(MediaType.APPLICATION_JSON).header("Idempotency-Key", key)
+          .content(json.toString()));
+      mvc.perform(asyncDispatch(actions.andReturn())).andExpect(status().isOk())
+          .andExpect(jsonPath("$.id").value("0b7e2a36-3c3f-4c1e-9d53-4c6e1f0a9d11"));
+    }
+
+    verify(acquiringBankService, times(1)).authorise(any());
+  }
+
+}
@@ -0,0 +1,119 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.support.BankStub;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Runs the gateway with a tiny Tomcat pool against a slow bank: every request still reaches the
+ * bank concurrently because request threads are released while the authorisation is in flight.
+ */
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT, properties = {
+    "server.tomcat.threads.max=" + PaymentGatewayLoadTest.TOMCAT_THREADS,
+    "server.tomcat.threads.min-spare=" + PaymentGatewayLoadTest.TOMCAT_THREADS,
+    "acquiring.bank.bulkhead.max-concurrent-calls=" + PaymentGatewayLoadTest.CONCURRENT_PAYMENTS,
+    // every request is expected to reach the bank, so nothing may be shed
+    "acquiring.bank.concurrency-limit.enabled=false",
+    "payments.batch.parallelism=" + PaymentGatewayLoadTest.BATCH_PARALLELISM
+})
+class PaymentGatewayLoadTest {
+
+  static final int TOMCAT_THREADS = 4;
+  static final int CONCURRENT_PAYMENTS = 200;
+  static final int BATCH_PARALLELISM = 16;
+  private static final int BATCH_SIZE = 64;
+  private static final long BANK_DELAY_MILLIS = 500;
+  private static final String PAYMENT = """
+      {"card_number":"4532015112830367","expiry_month":12,"expiry_year":39,
+       "cvv":"123","currency":"GBP","amount":"10.60"}""";
+
+  private static final BankStub BANK = BankStub.start().withDelay(() -> BANK_DELAY_MILLIS);
+
+  @LocalServerPort
+  private int port;
+
+  @DynamicPropertySource
+  static void bank(DynamicPropertyRegistry registry) {
+    registry.add("acquiring.bank.base-url", BANK::baseUrl);
+  }
+
+  @AfterAll
+  static void stopBank() {
+    BANK.close();
+  }
+
+  @Test
+  void whenBankIsSlowThenInFlightAuthorisationsAreNotBoundByTomcatThreads() {
+    BANK.reset();
+    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    HttpRequest request = HttpRequest
+        .newBuilder(URI.create("http://localhost:" + port + "/payment"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(PAYMENT))
+        .build();
+
+    long started = System.nanoTime();
+    List<CompletableFuture<HttpResponse<String>>> responses = IntStream.range(0,
+            CONCURRENT_PAYMENTS)
+        .mapToObj(i -> client.sendAsync(request, BodyHandlers.ofString()))
+        .toList();
+    CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+    long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+    assertThat(responses).allSatisfy(response -> assertThat(response.join().statusCode())
+        .isEqualTo(200));
+    assertThat(BANK.requests()).isEqualTo(CONCURRENT_PAYMENTS);
+    assertThat(BANK.maxInFlight()).isGreaterThan(TOMCAT_THREADS);
+    // a thread-per-request gateway needs CONCURRENT_PAYMENTS / TOMCAT_THREADS bank round trips
+    assertThat(elapsedMillis)
+        .isLessThan(BANK_DELAY_MILLIS * CONCURRENT_PAYMENTS / TOMCAT_THREADS);
+  }
+
+  @Test
+  void whenBatchIsSubmittedThenBankCallsRunAtConfiguredParallelism() throws Exception {
+    BANK.reset();
+    HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    String batch = IntStream.range(0, BATCH_SIZE).mapToObj(i -> PAYMENT)
+        .collect(Collectors.joining(",", "[", "]"));
+    HttpRequest request = HttpRequest.newBuilder(
+            URI.create("http://localhost:" + port + "/payments/batch"))
+        .header("Content-Type", "application/json")
+        .header("Accept", "application/x-ndjson")
+        .POST(HttpRequest.BodyPublishers.ofString(batch))
+        .build();
+
+    long started = System.nanoTime();
+    HttpResponse<Stream<String>> response = client.send(request, BodyHandlers.ofLines());
+    List<String> results = response.body().filter(line -> !line.isBlank()).toList();
+    long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+    assertThat(response.statusCode()).isEqualTo(200);
+    assertThat(results).hasSize(BATCH_SIZE);
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      assertThat(results.get(i)).contains("\"index\":" + i + ",", "\"outcome\":\"Authorized\"");
+    }
+    assertThat(BANK.requests()).isEqualTo(BATCH_SIZE);
+    assertThat(BANK.maxInFlight()).isEqualTo(BATCH_PARALLELISM);
+    // BATCH_SIZE / BATCH_PARALLELISM rounds of bank latency, against BATCH_SIZE one at a time
+    assertThat(elapsedMillis)
+        .isLessThan(2 * BANK_DELAY_MILLIS * BATCH_SIZE / BATCH_PARALLELISM);
+  }
+}
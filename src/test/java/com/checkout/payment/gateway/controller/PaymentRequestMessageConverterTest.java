@@ -0,0 +1,134 @@
+package com.checkout.payment.gateway.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+import com.checkout.payment.gateway.configuration.PaymentRequestProperties;
+import com.checkout.payment.gateway.configuration.ValidationProperties;
+import com.checkout.payment.gateway.enums.PaymentStage;
+import com.checkout.payment.gateway.exception.AmountArgumentException;
+import com.checkout.payment.gateway.exception.MissingFieldsException;
+import com.checkout.payment.gateway.exception.PayloadTooLargeException;
+import com.checkout.payment.gateway.exception.ValidationException;
+import com.checkout.payment.gateway.model.Currency;
+import com.checkout.payment.gateway.model.ValidatedPayment;
+import com.checkout.payment.gateway.service.PaymentMetrics;
+import com.checkout.payment.gateway.service.PaymentRequestValidatorService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.util.unit.DataSize;
+
+class PaymentRequestMessageConverterTest {
+
+  private final PaymentMetrics metrics = new PaymentMetrics(new SimpleMeterRegistry());
+  private final PaymentRequestMessageConverter converter = new PaymentRequestMessageConverter(
+      new JsonFactory(), new PaymentRequestValidatorService(new ValidationProperties(false)),
+      new PaymentRequestProperties(DataSize.ofBytes(512)), metrics);
+
+  private ValidatedPayment read(String json) throws IOException {
+    return converter.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  void whenBodyIsValidThenPaymentIsReadWithAmountInMinorUnits() throws IOException {
+    ValidatedPayment payment = read("""
+        {"card_number":"2222405343248877","expiry_month":4,"expiry_year":39,
+        "currency":"GBP","amount":"10.60","cvv":"123"}""");
+
+    assertThat(payment).isEqualTo(
+        new ValidatedPayment("2222405343248877", 4, 39, Currency.GBP, 1060, "123"));
+    assertThat(metrics.stageTimer(PaymentStage.VALIDATE).count()).isEqualTo(1);
+  }
+
+  @Test
+  void whenFieldsUseOtherJsonTypesThenTheyAreBoundAsJacksonBindsThem() throws IOException {
+    ValidatedPayment payment = read("""
+        {"amount":10.6,"cvv":123,"expiry_month":"4","expiry_year":39.0,"currency":"GBP",
+        "metadata":{"order":[1,2,{"x":null}]},"card_number":2222405343248877}""");
+
+    assertThat(payment).isEqualTo(
+        new ValidatedPayment("2222405343248877", 4, 39, Currency.GBP, 1060, "123"));
+  }
+
+  @Test
+  void whenRequiredFieldsAreMissingOrBlankThenAllAreReportedTogether() {
+    MissingFieldsException ex = catchThrowableOfType(() -> read("""
+        {"card_number":" ","expiry_month":4,"expiry_year":39,"currency":"GBP",
+        "amount":null}"""), MissingFieldsException.class);
+
+    assertThat(ex.getErrors()).containsExactly(
+        Map.entry("cardNumber", "minimum 14 digit card number required"),
+        Map.entry("amount", "amount is required"),
+        Map.entry("cvv", "3 digit cvv required"));
+    assertThat(metrics.validationErrorCount("amount")).isEqualTo(1);
+  }
+
+  @Test
+  void whenSeveralFieldsAreInvalidThenTheyAreReportedInValidatorOrder() {
+    ValidationException ex = catchThrowableOfType(() -> read("""
+        {"cvv":"12","currency":"ZAR","expiry_month":13,"expiry_year":39,
+        "card_number":"2222405343248877","amount":"abc"}"""), ValidationException.class);
+
+    assertThat(ex.getErrors().keySet()).containsExactly("expiryMonth", "currency", "cvv");
+  }
+
+  @Test
+  void whenOnlyTheAmountIsInvalidThenAmountErrorIsThrown() {
+    assertThatThrownBy(() -> read("""
+        {"card_number":"2222405343248877","expiry_month":4,"expiry_year":39,
+        "currency":"GBP","amount":"10.601","cvv":"123"}"""))
+        .isInstanceOf(AmountArgumentException.class)
+        .hasMessage("Amount must have max 2 decimal places");
+  }
+
+  @Test
+  void whenBodyIsNotAnObjectOfValuesThenItIsMalformed() {
+    assertThatThrownBy(() -> read("[]")).isInstanceOf(JsonProcessingException.class);
+    assertThatThrownBy(() -> read("{\"card_number\":[\"2222\"]}"))
+        .isInstanceOf(JsonProcessingException.class);
+    assertThatThrownBy(() -> read("{\"expiry_month\":\"April\"}"))
+        .isInstanceOf(JsonProcessingException.class);
+    assertThatThrownBy(() -> read("{\"card_number\":\"2222405343248877\""))
+        .isInstanceOf(JsonProcessingException.class);
+    assertThat(metrics.validationErrorCount("body")).isEqualTo(4);
+  }
+
+  @Test
+  void whenBodyStreamsPastTheLimitThenReadingStops() {
+    String padding = "x".repeat(600);
+
+    assertThatThrownBy(() -> read("{\"padding\":\"" + padding + "\"}"))
+        .isInstanceOf(PayloadTooLargeException.class)
+        .hasMessage("Payment request body must not exceed 512 bytes");
+  }
+
+  @Test
+  void whenContentLengthIsOverTheLimitThenBodyIsNotRead() {
+    MockHttpInputMessage message = new MockHttpInputMessage(new byte[0]);
+    message.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+    message.getHeaders().set(HttpHeaders.CONTENT_LENGTH, "513");
+
+    assertThatThrownBy(() -> converter.read(ValidatedPayment.class, message))
+        .isInstanceOf(PayloadTooLargeException.class);
+  }
+
+  @Test
+  void onlyValidatedPaymentsAreReadAndNothingIsWritten() {
+    assertThat(converter.canRead(ValidatedPayment.class, MediaType.APPLICATION_JSON)).isTrue();
+    assertThat(converter.canRead(ValidatedPayment.class,
+        MediaType.valueOf("application/merchant+json"))).isTrue();
+    assertThat(converter.canRead(ValidatedPayment.class, MediaType.TEXT_PLAIN)).isFalse();
+    assertThat(converter.canRead(Object.class, MediaType.APPLICATION_JSON)).isFalse();
+    assertThat(converter.canWrite(ValidatedPayment.class, MediaType.APPLICATION_JSON)).isFalse();
+  }
+}
@@ -0,0 +1,122 @@
+package com.checkout.payment.gateway.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class CountingAsyncAppenderTest {
+
+  private static final int QUEUE_SIZE = 10;
+
+  private final LoggerContext context = new LoggerContext();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private final List<ILoggingEvent> written = new CopyOnWriteArrayList<>();
+
+  private CountingAsyncAppender start() {
+    // stands in for a console that has stopped draining
+    AppenderBase<ILoggingEvent> console = new AppenderBase<>() {
+      @Override
+      protected void append(ILoggingEvent event) {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        written.add(event);
+      }
+    };
+    console.setContext(context);
+    console.start();
+    CountingAsyncAppender async = new CountingAsyncAppender();
+    async.setContext(context);
+    async.setQueueSize(QUEUE_SIZE);
+    async.addAppender(console);
+    async.start();
+    return async;
+  }
+
+  private Logger logger(CountingAsyncAppender async) {
+    Logger logger = context.getLogger("payments");
+    logger.setAdditive(false);
+    logger.setLevel(Level.INFO);
+    logger.addAppender(async);
+    return logger;
+  }
+
+  @Test
+  void whenQueueFillsThenCallerIsNotBlockedAndDropsAreCountedAndReported() throws Exception {
+    CountingAsyncAppender async = start();
+    Logger logger = logger(async);
+    logger.info("first");
+    while (async.getRemainingCapacity() < QUEUE_SIZE) {
+      Thread.sleep(1);
+    }
+
+    // INFO is accepted until only the discarding threshold (a fifth of the queue) is left
+    for (int i = 0; i < 20; i++) {
+      logger.info("payment {}", i);
+    }
+    // ERROR takes one of the reserved slots and the pending drop report takes the other
+    logger.error("bank unavailable");
+    logger.error("lost");
+    release.countDown();
+    async.stop();
+
+    assertThat(async.droppedCount()).isEqualTo(13);
+    assertThat(written).hasSize(11);
+    assertThat(written).extracting(ILoggingEvent::getFormattedMessage)
+        .contains("payment 7", "bank unavailable",
+            "Dropped 12 log events, async queue of 10 was full")
+        .doesNotContain("payment 8", "lost");
+  }
+
+  @Test
+  void whenThreadsRaceForTheLastSlotsThenEveryEventIsWrittenOrCounted() throws Exception {
+    CountingAsyncAppender async = start();
+    Logger logger = logger(async);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    for (int thread = 0; thread < 8; thread++) {
+      executor.submit(() -> {
+        for (int i = 0; i < 1_000; i++) {
+          // ERROR is never discarded early, so only a full queue drops it
+          logger.error("payment failed");
+        }
+      });
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    release.countDown();
+    async.stop();
+
+    long delivered = written.stream()
+        .filter(event -> event.getFormattedMessage().equals("payment failed")).count();
+    assertThat(delivered + async.droppedCount()).isEqualTo(8_000);
+  }
+
+  @Test
+  void whenArgumentsAreLoggedThenCallerDoesNotFormatTheMessage() throws Exception {
+    CountingAsyncAppender async = start();
+    Logger logger = logger(async);
+    StringBuilder argument = new StringBuilder("rendered late");
+    logger.info("{}", argument);
+    argument.setLength(0);
+    argument.append("rendered by worker");
+    release.countDown();
+    async.stop();
+
+    assertThat(written).extracting(ILoggingEvent::getFormattedMessage)
+        .containsExactly("rendered by worker");
+    assertThat(written.get(0).getThreadName()).isEqualTo(Thread.currentThread().getName());
+  }
+}
@@ -0,0 +1,63 @@
+package com.checkout.payment.gateway.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class RateLimitedLoggerTest {
+
+  private final AtomicLong clock = new AtomicLong();
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+  private final RateLimitedLogger logger = new RateLimitedLogger(logger(appender),
+      Duration.ofSeconds(10), clock::get);
+
+  private static Logger logger(ListAppender<ILoggingEvent> appender) {
+    LoggerContext context = new LoggerContext();
+    appender.setContext(context);
+    appender.start();
+    Logger logger = context.getLogger("errors");
+    logger.addAppender(appender);
+    return logger;
+  }
+
+  @Test
+  void whenErrorsRepeatWithinIntervalThenOnlyTheFirstIsLogged() {
+    for (int i = 0; i < 1_000; i++) {
+      logger.warn("validation", "Invalid payment request", "cvv");
+    }
+
+    assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+        .containsExactly("Invalid payment request: cvv");
+  }
+
+  @Test
+  void whenIntervalHasPassedThenNextLineCarriesTheSuppressedCount() {
+    logger.warn("validation", "Invalid payment request", "cvv");
+    clock.addAndGet(Duration.ofSeconds(4).toNanos());
+    logger.warn("validation", "Invalid payment request", "cvv");
+    logger.warn("validation", "Invalid payment request", "currency");
+    clock.addAndGet(Duration.ofSeconds(6).toNanos());
+    logger.warn("validation", "Invalid payment request", "amount");
+
+    assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+        .containsExactly("Invalid payment request: cvv",
+            "Invalid payment request: amount (3 times in the last 10000 ms)");
+  }
+
+  @Test
+  void whenKeysDifferThenEachIsLimitedSeparately() {
+    logger.warn("validation", "Invalid payment request", "cvv");
+    logger.warn("amount", "Invalid payment amount", "Amount is required");
+    logger.warn("amount", "Invalid payment amount", "Amount is required");
+
+    assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage)
+        .containsExactly("Invalid payment request: cvv",
+            "Invalid payment amount: Amount is required");
+  }
+}
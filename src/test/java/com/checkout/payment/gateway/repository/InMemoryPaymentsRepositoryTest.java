@@ -0,0 +1,161 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.configuration.PaymentsRepositoryProperties;
+import com.checkout.payment.gateway.enums.EvictionPolicy;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class InMemoryPaymentsRepositoryTest {
+
+  private static PostPaymentResponse payment() {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCurrency("GBP");
+    payment.setAmount(1060);
+    return payment;
+  }
+
+  private static InMemoryPaymentsRepository repository(int capacity, EvictionPolicy policy) {
+    return new InMemoryPaymentsRepository(
+        new PaymentsRepositoryProperties(capacity, policy, Duration.ofHours(1), 1));
+  }
+
+  @Test
+  void whenPaymentIsAddedThenItCanBeRetrievedAndCountsAHit() {
+    InMemoryPaymentsRepository repository = repository(10, EvictionPolicy.LRU);
+    PostPaymentResponse payment = payment();
+
+    repository.add(payment);
+
+    assertThat(repository.get(payment.getId())).containsSame(payment);
+    assertThat(repository.get(UUID.randomUUID())).isEmpty();
+    assertThat(repository.stats()).isEqualTo(new RepositoryStats(1, 1, 1, 0, 0));
+  }
+
+  @Test
+  void whenPaymentIsAddedThenItsJsonIsEncodedOnceAndServedAsIs() {
+    InMemoryPaymentsRepository repository = repository(10, EvictionPolicy.LRU);
+    PostPaymentResponse payment = payment();
+
+    repository.add(payment);
+
+    byte[] json = repository.getJson(payment.getId()).orElseThrow();
+    assertThat(json).isEqualTo(PaymentJsonCodec.encode(payment));
+    assertThat(repository.getJson(payment.getId())).containsSame(json);
+    assertThat(repository.getJson(UUID.randomUUID())).isEmpty();
+    assertThat(repository.stats()).isEqualTo(new RepositoryStats(1, 2, 1, 0, 0));
+  }
+
+  @Test
+  void whenPaymentsArePeekedThenLruOrderAndLookupStatsAreUnchanged() {
+    InMemoryPaymentsRepository repository = repository(2, EvictionPolicy.LRU);
+    PostPaymentResponse first = payment();
+    PostPaymentResponse second = payment();
+
+    repository.add(first);
+    repository.add(second);
+    assertThat(repository.peek(first.getId())).containsSame(first);
+    assertThat(repository.peekJson(first.getId())).isPresent();
+    assertThat(repository.peek(UUID.randomUUID())).isEmpty();
+    repository.add(payment());
+
+    assertThat(repository.peek(first.getId())).isEmpty();
+    assertThat(repository.peek(second.getId())).containsSame(second);
+    assertThat(repository.stats()).isEqualTo(new RepositoryStats(2, 0, 0, 1, 0));
+  }
+
+  @Test
+  void whenCapacityIsExceededWithLruThenLeastRecentlyReadPaymentIsEvicted() {
+    InMemoryPaymentsRepository repository = repository(2, EvictionPolicy.LRU);
+    PostPaymentResponse first = payment();
+    PostPaymentResponse second = payment();
+    PostPaymentResponse third = payment();
+
+    repository.add(first);
+    repository.add(second);
+    repository.get(first.getId());
+    repository.add(third);
+
+    assertThat(repository.get(first.getId())).isPresent();
+    assertThat(repository.get(second.getId())).isEmpty();
+    assertThat(repository.get(third.getId())).isPresent();
+    assertThat(repository.stats().evictions()).isEqualTo(1);
+  }
+
+  @Test
+  void whenCapacityIsExceededWithSizePolicyThenOldestPaymentIsEvicted() {
+    InMemoryPaymentsRepository repository = repository(2, EvictionPolicy.SIZE);
+    PostPaymentResponse first = payment();
+    PostPaymentResponse second = payment();
+
+    repository.add(first);
+    repository.add(second);
+    repository.get(first.getId());
+    repository.add(payment());
+
+    assertThat(repository.get(first.getId())).isEmpty();
+    assertThat(repository.get(second.getId())).isPresent();
+    assertThat(repository.size()).isEqualTo(2);
+  }
+
+  @Test
+  void whenTtlHasElapsedThenPaymentIsExpired() {
+    AtomicLong now = new AtomicLong();
+    InMemoryPaymentsRepository repository = new InMemoryPaymentsRepository(
+        new PaymentsRepositoryProperties(10, EvictionPolicy.TTL, Duration.ofSeconds(30), 1),
+        now::get);
+    PostPaymentResponse payment = payment();
+
+    repository.add(payment);
+    now.addAndGet(Duration.ofSeconds(29).toNanos());
+    assertThat(repository.get(payment.getId())).isPresent();
+
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertThat(repository.get(payment.getId())).isEmpty();
+    assertThat(repository.stats().expirations()).isEqualTo(1);
+    assertThat(repository.size()).isZero();
+  }
+
+  @Test
+  void whenPaymentsAreAddedConcurrentlyThenNoneAreLost() throws Exception {
+    InMemoryPaymentsRepository repository = new InMemoryPaymentsRepository(
+        new PaymentsRepositoryProperties(1_000_000, EvictionPolicy.LRU, Duration.ofHours(1), 16));
+    int threads = 8;
+    int perThread = 5_000;
+    List<List<PostPaymentResponse>> written = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    for (int t = 0; t < threads; t++) {
+      List<PostPaymentResponse> payments = new ArrayList<>();
+      for (int i = 0; i < perThread; i++) {
+        payments.add(payment());
+      }
+      written.add(payments);
+      executor.submit(() -> {
+        start.await();
+        payments.forEach(repository::add);
+        return null;
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+    assertThat(repository.size()).isEqualTo((long) threads * perThread);
+    written.forEach(payments -> payments.forEach(
+        payment -> assertThat(repository.get(payment.getId())).containsSame(payment)));
+  }
+}
@@ -0,0 +1,183 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.configuration.PaymentJournalProperties;
+import com.checkout.payment.gateway.configuration.PaymentSearchProperties;
+import com.checkout.payment.gateway.configuration.PaymentsRepositoryProperties;
+import com.checkout.payment.gateway.enums.EvictionPolicy;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class JournaledPaymentsRepositoryTest {
+
+  @TempDir
+  Path directory;
+
+  private PaymentSearchIndex searchIndex;
+
+  private JournaledPaymentsRepository open(DataSize segmentSize) {
+    searchIndex = new PaymentSearchIndex(new PaymentSearchProperties(Duration.ofMinutes(1),
+        Duration.ofHours(1), 100, 1000, 1024));
+    return new JournaledPaymentsRepository(
+        new PaymentsRepositoryProperties(1024, EvictionPolicy.LRU, Duration.ofHours(1), 4),
+        new PaymentJournalProperties(directory.toString(), segmentSize, true), searchIndex);
+  }
+
+  private static PostPaymentResponse payment(int amount) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    payment.setCardNumberLastFour(4242);
+    payment.setExpiryMonth(11);
+    payment.setExpiryYear(29);
+    payment.setCurrency("GBP");
+    payment.setAmount(amount);
+    return payment;
+  }
+
+  @Test
+  void whenRepositoryIsReopenedThenPaymentsAreRecoveredFromEverySegment() {
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    try (JournaledPaymentsRepository repository = open(DataSize.ofBytes(400))) {
+      for (int i = 0; i < 25; i++) {
+        PostPaymentResponse payment = payment(i + 1);
+        payments.add(payment);
+        repository.add(payment);
+      }
+    }
+
+    try (JournaledPaymentsRepository repository = open(DataSize.ofBytes(400))) {
+      assertThat(repository.size()).isEqualTo(25);
+      payments.forEach(payment -> assertThat(repository.get(payment.getId()).orElseThrow())
+          .usingRecursiveComparison().isEqualTo(payment));
+
+      PostPaymentResponse appended = payment(99);
+      repository.add(appended);
+      assertThat(repository.get(appended.getId())).isPresent();
+    }
+
+    try (JournaledPaymentsRepository repository = open(DataSize.ofBytes(400))) {
+      assertThat(repository.size()).isEqualTo(26);
+    }
+  }
+
+  @Test
+  void whenRepositoryIsReopenedThenRecoveredPaymentsAreSearchableAtTheirStoredTime() {
+    long before = System.currentTimeMillis();
+    PostPaymentResponse payment = payment(1);
+    try (JournaledPaymentsRepository repository = open(DataSize.ofKilobytes(4))) {
+      repository.add(payment);
+    }
+    long after = System.currentTimeMillis();
+
+    try (JournaledPaymentsRepository repository = open(DataSize.ofKilobytes(4))) {
+      // the journal keeps the stored time to the second
+      assertThat(searchIndex.search(before - 1_000, after + 1, null, null, null, 10).ids())
+          .containsExactly(payment.getId());
+    }
+  }
+
+  @Test
+  void whenJournalTailIsTornThenRecoveryStopsAtLastCompleteRecord() throws IOException {
+    PostPaymentResponse kept = payment(1);
+    PostPaymentResponse torn = payment(2);
+    try (JournaledPaymentsRepository repository = open(DataSize.ofKilobytes(4))) {
+      repository.add(kept);
+      repository.add(torn);
+    }
+    Path segment;
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.findFirst().orElseThrow();
+    }
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), PaymentJournal.ENTRY_SIZE + 20);
+    }
+
+    try (JournaledPaymentsRepository repository = open(DataSize.ofKilobytes(4))) {
+      assertThat(repository.get(kept.getId())).isPresent();
+      assertThat(repository.get(torn.getId())).isEmpty();
+
+      PostPaymentResponse next = payment(3);
+      repository.add(next);
+    }
+
+    try (JournaledPaymentsRepository repository = open(DataSize.ofKilobytes(4))) {
+      assertThat(repository.size()).isEqualTo(2);
+      assertThat(repository.get(torn.getId())).isEmpty();
+    }
+  }
+
+  @Test
+  void whenAMiddleSegmentIsTornThenRecoveryStopsThereAndDropsLaterSegments() throws IOException {
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    try (JournaledPaymentsRepository repository = open(DataSize.ofBytes(400))) {
+      for (int i = 0; i < 25; i++) {
+        PostPaymentResponse payment = payment(i + 1);
+        payments.add(payment);
+        repository.add(payment);
+      }
+    }
+    List<Path> segments;
+    try (Stream<Path> files = Files.list(directory)) {
+      segments = files.sorted().toList();
+    }
+    assertThat(segments).hasSize(3);
+    try (FileChannel channel = FileChannel.open(segments.get(1), StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[] {1, 2, 3}), 3 * PaymentJournal.ENTRY_SIZE + 20);
+    }
+
+    try (JournaledPaymentsRepository repository = open(DataSize.ofBytes(400))) {
+      assertThat(repository.size()).isEqualTo(13);
+      payments.subList(0, 13).forEach(
+          payment -> assertThat(repository.get(payment.getId())).isPresent());
+      payments.subList(13, 25).forEach(
+          payment -> assertThat(repository.get(payment.getId())).isEmpty());
+      assertThat(segments.get(2)).doesNotExist();
+
+      repository.add(payment(99));
+    }
+
+    try (JournaledPaymentsRepository repository = open(DataSize.ofBytes(400))) {
+      assertThat(repository.size()).isEqualTo(14);
+      payments.subList(13, 25).forEach(
+          payment -> assertThat(repository.get(payment.getId())).isEmpty());
+    }
+  }
+
+  @Test
+  void whenWritersAppendConcurrentlyThenEveryAcknowledgedPaymentIsRecovered() throws Exception {
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    for (int i = 0; i < 2_000; i++) {
+      payments.add(payment(i + 1));
+    }
+    try (JournaledPaymentsRepository repository = open(DataSize.ofKilobytes(16))) {
+      ExecutorService executor = Executors.newFixedThreadPool(16);
+      payments.forEach(payment -> executor.submit(() -> repository.add(payment)));
+      executor.shutdown();
+      assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+    }
+
+    try (JournaledPaymentsRepository repository = open(DataSize.ofKilobytes(16))) {
+      assertThat(repository.size()).isEqualTo(payments.size());
+      payments.forEach(payment -> assertThat(repository.get(payment.getId())).isPresent());
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.configuration.PaymentsRepositoryProperties;
+import com.checkout.payment.gateway.enums.EvictionPolicy;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.RepositoryFullException;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class OffHeapPaymentsRepositoryTest {
+
+  private static OffHeapPaymentsRepository repository(int capacity) {
+    return new OffHeapPaymentsRepository(
+        new PaymentsRepositoryProperties(capacity, EvictionPolicy.LRU, Duration.ofHours(1), 4));
+  }
+
+  private static PostPaymentResponse payment(PaymentStatus status, String currency) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(status);
+    payment.setCardNumberLastFour(8877);
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(2025);
+    payment.setCurrency(currency);
+    payment.setAmount(Integer.MAX_VALUE);
+    return payment;
+  }
+
+  @Test
+  void whenPaymentIsAddedThenEveryFieldIsReadBack() {
+    OffHeapPaymentsRepository repository = repository(16);
+    PostPaymentResponse payment = payment(PaymentStatus.DECLINED, "EUR");
+
+    repository.add(payment);
+
+    PostPaymentResponse stored = repository.get(payment.getId()).orElseThrow();
+    assertThat(stored).usingRecursiveComparison().isEqualTo(payment);
+    assertThat(repository.get(UUID.randomUUID())).isEmpty();
+    assertThat(repository.stats()).isEqualTo(new RepositoryStats(1, 1, 1, 0, 0));
+  }
+
+  @Test
+  void whenJsonIsReadThenItMatchesTheStoredPayment() {
+    OffHeapPaymentsRepository repository = repository(16);
+    PostPaymentResponse payment = payment(PaymentStatus.AUTHORIZED, "GBP");
+    PostPaymentResponse noCurrency = payment(PaymentStatus.REJECTED, null);
+
+    repository.add(payment);
+    repository.add(noCurrency);
+
+    assertThat(repository.getJson(payment.getId())).hasValueSatisfying(
+        json -> assertThat(json).isEqualTo(PaymentJsonCodec.encode(payment)));
+    assertThat(repository.getJson(noCurrency.getId())).hasValueSatisfying(
+        json -> assertThat(json).isEqualTo(PaymentJsonCodec.encode(noCurrency)));
+    assertThat(repository.getJson(UUID.randomUUID())).isEmpty();
+  }
+
+  @Test
+  void whenPaymentWithSameIdIsAddedThenItIsReplaced() {
+    OffHeapPaymentsRepository repository = repository(16);
+    PostPaymentResponse payment = payment(PaymentStatus.AUTHORIZED, "GBP");
+    repository.add(payment);
+
+    payment.setStatus(PaymentStatus.DECLINED);
+    repository.add(payment);
+
+    assertThat(repository.size()).isEqualTo(1);
+    assertThat(repository.get(payment.getId()).orElseThrow().getStatus())
+        .isEqualTo(PaymentStatus.DECLINED);
+  }
+
+  @Test
+  void whenTablesFillUpThenTheyGrowWithoutLosingPayments() {
+    OffHeapPaymentsRepository repository = repository(16);
+    long initialBytes = repository.reservedBytes();
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      PostPaymentResponse payment = payment(PaymentStatus.AUTHORIZED, i % 2 == 0 ? "USD" : null);
+      payments.add(payment);
+      repository.add(payment);
+    }
+
+    assertThat(repository.size()).isEqualTo(10_000);
+    assertThat(repository.reservedBytes()).isGreaterThan(initialBytes);
+    payments.forEach(payment -> assertThat(repository.get(payment.getId()).orElseThrow())
+        .usingRecursiveComparison().isEqualTo(payment));
+  }
+
+  @Test
+  void whenCurrencyIsUnknownThenPaymentIsRejected() {
+    OffHeapPaymentsRepository repository = repository(16);
+
+    assertThatThrownBy(() -> repository.add(payment(PaymentStatus.AUTHORIZED, "ZAR")))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThat(repository.size()).isZero();
+  }
+
+  @Test
+  void whenTableCannotGrowThenPaymentIsRefusedAndEarlierOnesAreKept() {
+    // one table of 16 slots that may not grow: the 13th payment passes the load factor
+    OffHeapPaymentsRepository repository = new OffHeapPaymentsRepository(
+        new PaymentsRepositoryProperties(1, EvictionPolicy.LRU, Duration.ofHours(1), 1), 16);
+    List<PostPaymentResponse> payments = new ArrayList<>();
+    for (int i = 0; i < 12; i++) {
+      PostPaymentResponse payment = payment(PaymentStatus.AUTHORIZED, "USD");
+      payments.add(payment);
+      repository.add(payment);
+    }
+
+    PostPaymentResponse overflow = payment(PaymentStatus.AUTHORIZED, "USD");
+    assertThatThrownBy(() -> repository.add(overflow))
+        .isInstanceOf(RepositoryFullException.class)
+        .hasMessage("Payment repository is full");
+
+    assertThat(repository.size()).isEqualTo(12);
+    assertThat(repository.get(overflow.getId())).isEmpty();
+    payments.forEach(payment -> assertThat(repository.get(payment.getId())).isPresent());
+    // replacing a stored payment takes no new slot, so it still succeeds
+    payments.get(0).setStatus(PaymentStatus.DECLINED);
+    repository.add(payments.get(0));
+    assertThat(repository.get(payments.get(0).getId()).orElseThrow().getStatus())
+        .isEqualTo(PaymentStatus.DECLINED);
+  }
+}
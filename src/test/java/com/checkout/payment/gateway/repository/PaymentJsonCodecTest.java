@@ -0,0 +1,72 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.support.JacksonMappers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class PaymentJsonCodecTest {
+
+  private final ObjectMapper mapper = JacksonMappers.springBoot();
+
+  private static PostPaymentResponse payment(UUID id, PaymentStatus status, String currency,
+      int amount) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(id);
+    payment.setStatus(status);
+    payment.setCardNumberLastFour(8877);
+    payment.setExpiryMonth(4);
+    payment.setExpiryYear(39);
+    payment.setCurrency(currency);
+    payment.setAmount(amount);
+    return payment;
+  }
+
+  @Test
+  void whenPaymentIsEncodedThenBytesMatchJackson() throws Exception {
+    PostPaymentResponse payment = payment(UUID.randomUUID(), PaymentStatus.AUTHORIZED, "GBP",
+        1060);
+
+    assertThat(new String(PaymentJsonCodec.encode(payment), StandardCharsets.UTF_8))
+        .isEqualTo(mapper.writeValueAsString(payment));
+  }
+
+  @Test
+  void whenOptionalFieldsAreNullThenTheyAreLeftOutLikeJackson() throws Exception {
+    PostPaymentResponse payment = payment(null, null, null, 0);
+
+    assertThat(PaymentJsonCodec.encode(payment)).isEqualTo(mapper.writeValueAsBytes(payment));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "a\"b\\c", "tab\there", "\u0001\u001f", "café", "💷"})
+  void whenCurrencyNeedsEscapingThenItIsEscapedLikeJackson(String currency) throws Exception {
+    PostPaymentResponse payment = payment(UUID.randomUUID(), PaymentStatus.DECLINED, currency,
+        -1);
+
+    assertThat(PaymentJsonCodec.encode(payment)).isEqualTo(mapper.writeValueAsBytes(payment));
+  }
+
+  @Test
+  void whenFieldsAreRandomThenBytesMatchJackson() throws Exception {
+    Random random = new Random(18);
+    PaymentStatus[] statuses = PaymentStatus.values();
+    for (int i = 0; i < 10_000; i++) {
+      PostPaymentResponse payment = payment(new UUID(random.nextLong(), random.nextLong()),
+          statuses[random.nextInt(statuses.length)], "USD", random.nextInt());
+      payment.setCardNumberLastFour(random.nextInt(10_000));
+      payment.setExpiryMonth(random.nextInt());
+      payment.setExpiryYear(i == 0 ? Integer.MIN_VALUE : random.nextInt(100));
+
+      assertThat(PaymentJsonCodec.encode(payment)).isEqualTo(mapper.writeValueAsBytes(payment));
+    }
+  }
+}
@@ -0,0 +1,159 @@
+package com.checkout.payment.gateway.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.configuration.PaymentSearchProperties;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.model.Currency;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.repository.PaymentSearchIndex.Cursor;
+import com.checkout.payment.gateway.repository.PaymentSearchIndex.Page;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class PaymentSearchIndexTest {
+
+  private static final long START_MILLIS = 1_767_225_600_000L;
+  private static final long MINUTE = 60_000;
+
+  private final AtomicLong clock = new AtomicLong(START_MILLIS);
+  private PaymentSearchIndex index = index(1_000_000);
+
+  private PaymentSearchIndex index(long maxEntries) {
+    return new PaymentSearchIndex(new PaymentSearchProperties(Duration.ofMinutes(1),
+        Duration.ofHours(1), 100, 1000, maxEntries), clock::get);
+  }
+
+  private UUID add(PaymentStatus status, String currency) {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(status);
+    payment.setCurrency(currency);
+    index.add(payment);
+    return payment.getId();
+  }
+
+  @Test
+  void whenFilteredByStatusAndCurrencyThenOnlyMatchesAreReturnedInStoringOrder() {
+    List<UUID> expected = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      UUID id = add(i % 2 == 0 ? PaymentStatus.AUTHORIZED : PaymentStatus.DECLINED,
+          i % 3 == 0 ? "GBP" : "USD");
+      if (i % 2 == 1 && i % 3 == 0) {
+        expected.add(id);
+      }
+      clock.addAndGet(100);
+    }
+
+    Page page = index.search(START_MILLIS, Long.MAX_VALUE, PaymentStatus.DECLINED, Currency.GBP,
+        null, 1_000);
+
+    assertThat(page.ids()).containsExactlyElementsOf(expected);
+    assertThat(page.next()).isNull();
+  }
+
+  @Test
+  void whenRangeCutsThroughBucketsThenOnlyPaymentsInsideItAreReturned() {
+    List<UUID> inside = new ArrayList<>();
+    for (int second = 0; second < 300; second++) {
+      UUID id = add(PaymentStatus.AUTHORIZED, "EUR");
+      if (second >= 90 && second < 150) {
+        inside.add(id);
+      }
+      clock.addAndGet(1_000);
+    }
+
+    Page page = index.search(START_MILLIS + 90_000, START_MILLIS + 150_000, null, null, null,
+        1_000);
+
+    assertThat(page.ids()).containsExactlyElementsOf(inside);
+  }
+
+  @Test
+  void whenPagedWithCursorsThenEveryMatchIsReturnedOnce() {
+    List<UUID> all = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      all.add(add(PaymentStatus.AUTHORIZED, "GBP"));
+      // spread over several buckets
+      clock.addAndGet(MINUTE / 200);
+    }
+
+    List<UUID> paged = new ArrayList<>();
+    Cursor cursor = null;
+    do {
+      Page page = index.search(0, Long.MAX_VALUE, PaymentStatus.AUTHORIZED, null, cursor, 64);
+      paged.addAll(page.ids());
+      cursor = page.next() == null ? null : Cursor.decode(page.next().encode());
+    } while (cursor != null);
+
+    assertThat(paged).containsExactlyElementsOf(all);
+  }
+
+  @Test
+  void whenBucketIsOlderThanRetentionThenItIsDropped() {
+    UUID old = add(PaymentStatus.DECLINED, "GBP");
+    clock.addAndGet(Duration.ofHours(1).toMillis() + MINUTE);
+    UUID recent = add(PaymentStatus.DECLINED, "GBP");
+
+    Page page = index.search(0, Long.MAX_VALUE, null, null, null, 10);
+
+    assertThat(page.ids()).containsExactly(recent).doesNotContain(old);
+  }
+
+  @Test
+  void whenIndexHoldsMoreThanMaxEntriesThenOldestBucketsAreDropped() {
+    index = index(250);
+    List<UUID> all = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      all.add(add(PaymentStatus.AUTHORIZED, "GBP"));
+      // 100 a bucket
+      clock.addAndGet(MINUTE / 100);
+    }
+
+    Page page = index.search(0, Long.MAX_VALUE, null, null, null, 1_000);
+
+    // the third bucket to fill pushed past 250, so the oldest was dropped, leaving two
+    assertThat(page.ids()).containsExactlyElementsOf(all.subList(800, 1_000));
+    assertThat(index.size()).isEqualTo(200);
+  }
+
+  @Test
+  void whenOneBucketOutgrowsMaxEntriesThenItIsStillKept() {
+    index = index(10);
+    for (int i = 0; i < 50; i++) {
+      add(PaymentStatus.AUTHORIZED, "GBP");
+    }
+
+    assertThat(index.search(0, Long.MAX_VALUE, null, null, null, 100).ids()).hasSize(50);
+    assertThat(index.size()).isEqualTo(50);
+  }
+
+  @Test
+  void whenPaymentsAreAddedAtTheirStoredTimeThenTheyAreFoundInThatRange() {
+    PostPaymentResponse recovered = new PostPaymentResponse();
+    recovered.setId(UUID.randomUUID());
+    recovered.setStatus(PaymentStatus.AUTHORIZED);
+    PostPaymentResponse expired = new PostPaymentResponse();
+    expired.setId(UUID.randomUUID());
+    expired.setStatus(PaymentStatus.AUTHORIZED);
+
+    index.add(expired, START_MILLIS - Duration.ofHours(2).toMillis());
+    index.add(recovered, START_MILLIS - 30 * MINUTE);
+
+    assertThat(index.search(START_MILLIS - 31 * MINUTE, START_MILLIS - 29 * MINUTE, null, null,
+        null, 10).ids()).containsExactly(recovered.getId());
+    assertThat(index.size()).isEqualTo(1);
+  }
+
+  @Test
+  void whenCursorIsNotOneTheIndexWroteThenItDoesNotDecode() {
+    assertThat(Cursor.decode("not a cursor")).isNull();
+    assertThat(Cursor.decode("AAAA")).isNull();
+    assertThat(Cursor.decode(new Cursor(START_MILLIS, 7).encode()))
+        .isEqualTo(new Cursor(START_MILLIS, 7));
+  }
+}
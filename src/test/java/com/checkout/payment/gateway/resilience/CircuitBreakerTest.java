@@ -0,0 +1,143 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.configuration.CircuitBreakerProperties;
+import com.checkout.payment.gateway.exception.ServiceUnavailableException;
+import com.checkout.payment.gateway.resilience.CircuitBreaker.State;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+class CircuitBreakerTest {
+
+  private static final long SLOW_NANOS = Duration.ofMillis(100).toNanos();
+  private static final long OPEN_NANOS = Duration.ofSeconds(10).toNanos();
+
+  private final AtomicLong clock = new AtomicLong();
+  private final CircuitBreaker breaker = new CircuitBreaker(
+      new CircuitBreakerProperties(true, 10, 4, 50, 80, Duration.ofMillis(100),
+          Duration.ofSeconds(10), 2), clock::get);
+
+  private void calls(int count, long durationNanos, boolean failure) {
+    for (int i = 0; i < count; i++) {
+      assertThat(breaker.tryAcquirePermission()).isTrue();
+      breaker.onResult(durationNanos, failure);
+    }
+  }
+
+  @Test
+  void whenFailuresAreBelowMinimumCallsThenCircuitStaysClosed() {
+    calls(3, 0, true);
+
+    assertThat(breaker.state()).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  void whenFailureRateReachesThresholdThenCircuitOpensAndRejects() {
+    calls(2, 0, false);
+    calls(2, 0, true);
+
+    assertThat(breaker.state()).isEqualTo(State.OPEN);
+    assertThat(breaker.tryAcquirePermission()).isFalse();
+    assertThat(breaker.rejectedCount()).isEqualTo(1);
+    assertThat(breaker.transitionCount(State.CLOSED, State.OPEN)).isEqualTo(1);
+  }
+
+  @Test
+  void whenSlowCallRateReachesThresholdThenCircuitOpens() {
+    calls(1, 0, false);
+    calls(4, SLOW_NANOS, false);
+
+    assertThat(breaker.state()).isEqualTo(State.OPEN);
+  }
+
+  @Test
+  void whenOldFailuresLeaveTheWindowThenTheyNoLongerCount() {
+    calls(4, 0, false);
+    calls(1, 0, true);
+    calls(10, 0, false);
+
+    assertThat(breaker.failureRate()).isZero();
+    assertThat(breaker.state()).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  void whenOpenDurationElapsesThenProbesAreLimitedAndSuccessesClose() {
+    calls(4, 0, true);
+    clock.addAndGet(OPEN_NANOS);
+
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    assertThat(breaker.tryAcquirePermission()).isFalse();
+
+    breaker.onResult(0, false);
+    breaker.onResult(0, false);
+
+    assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    assertThat(breaker.failureRate()).isZero();
+    assertThat(breaker.transitionCount(State.HALF_OPEN, State.CLOSED)).isEqualTo(1);
+  }
+
+  @Test
+  void whenProbeIsCancelledThenAnotherCallerProbesAndTheCircuitStillCloses() {
+    calls(4, 0, true);
+    clock.addAndGet(OPEN_NANOS);
+
+    Disposable probe = breaker.execute(Mono::never, ex -> true).subscribe();
+    assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    assertThat(breaker.tryAcquirePermission()).isFalse();
+    assertThat(breaker.tryAcquirePermission()).isFalse();
+
+    probe.dispose();
+
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    assertThat(breaker.tryAcquirePermission()).isFalse();
+    breaker.onResult(0, false);
+    breaker.onResult(0, false);
+    assertThat(breaker.state()).isEqualTo(State.CLOSED);
+  }
+
+  @Test
+  void whenProbeFailsThenCircuitReopens() {
+    calls(4, 0, true);
+    clock.addAndGet(OPEN_NANOS);
+
+    assertThat(breaker.tryAcquirePermission()).isTrue();
+    breaker.onResult(0, true);
+
+    assertThat(breaker.state()).isEqualTo(State.OPEN);
+    assertThat(breaker.tryAcquirePermission()).isFalse();
+    assertThat(breaker.transitionCount(State.HALF_OPEN, State.OPEN)).isEqualTo(1);
+  }
+
+  @Test
+  void whenCircuitIsOpenThenCallIsNotSubscribed() {
+    calls(4, 0, true);
+    AtomicInteger subscribed = new AtomicInteger();
+
+    Mono<String> result = breaker.execute(
+        () -> Mono.fromSupplier(() -> "called" + subscribed.incrementAndGet()), ex -> true);
+
+    assertThatThrownBy(result::block).isInstanceOf(ServiceUnavailableException.class);
+    assertThat(subscribed).hasValue(0);
+  }
+
+  @Test
+  void whenErrorIsNotAFailureThenItDoesNotTripTheCircuit() {
+    for (int i = 0; i < 10; i++) {
+      breaker.execute(() -> Mono.error(new IllegalArgumentException()),
+              ex -> !(ex instanceof IllegalArgumentException))
+          .onErrorResume(ex -> Mono.empty())
+          .block();
+    }
+
+    assertThat(breaker.state()).isEqualTo(State.CLOSED);
+  }
+}
@@ -0,0 +1,87 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.configuration.ConcurrencyLimitProperties;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimiterTest {
+
+  private static final long RTT = Duration.ofMillis(20).toNanos();
+
+  private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(
+      new ConcurrencyLimitProperties(true, 20, 5, 100, 1.5, 0.2, 100, 0.9));
+
+  private void acquire(int permits) {
+    for (int i = 0; i < permits; i++) {
+      assertThat(limiter.tryAcquire()).isTrue();
+    }
+  }
+
+  @Test
+  void whenLimitIsReachedThenFurtherCallsAreShed() {
+    acquire(20);
+
+    assertThat(limiter.tryAcquire()).isFalse();
+    assertThat(limiter.shedCount()).isEqualTo(1);
+
+    limiter.release();
+    assertThat(limiter.tryAcquire()).isTrue();
+  }
+
+  @Test
+  void whenLatencyHoldsSteadyUnderLoadThenLimitGrows() {
+    acquire(20);
+    for (int i = 0; i < 50; i++) {
+      limiter.onSuccess(RTT);
+    }
+
+    assertThat(limiter.limit()).isGreaterThan(20);
+  }
+
+  @Test
+  void whenLatencyClimbsPastToleranceThenLimitShrinks() {
+    acquire(20);
+    limiter.onSuccess(RTT);
+    int before = limiter.limit();
+    for (int i = 0; i < 10; i++) {
+      limiter.onSuccess(RTT * 4);
+    }
+
+    assertThat(limiter.limit()).isLessThan(before);
+  }
+
+  @Test
+  void whenFewPermitsAreInUseThenLatencyLeavesTheLimitAlone() {
+    acquire(2);
+    limiter.onSuccess(RTT);
+    for (int i = 0; i < 10; i++) {
+      limiter.onSuccess(RTT * 4);
+    }
+
+    assertThat(limiter.limit()).isEqualTo(20);
+  }
+
+  @Test
+  void whenSlowCallFailsThenLimitBacksOffButFastFailuresAreIgnored() {
+    limiter.onSuccess(RTT);
+
+    limiter.onFailure(RTT / 10);
+    assertThat(limiter.limit()).isEqualTo(20);
+
+    limiter.onFailure(RTT * 10);
+    assertThat(limiter.limit()).isEqualTo(18);
+    assertThat(limiter.dropCount()).isEqualTo(1);
+  }
+
+  @Test
+  void whenFailuresKeepComingThenLimitStopsAtItsMinimum() {
+    limiter.onSuccess(RTT);
+    for (int i = 0; i < 100; i++) {
+      limiter.onFailure(RTT * 10);
+    }
+
+    assertThat(limiter.limit()).isEqualTo(5);
+  }
+}
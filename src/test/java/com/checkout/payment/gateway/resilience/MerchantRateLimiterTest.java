@@ -0,0 +1,90 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.configuration.RateLimitProperties;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class MerchantRateLimiterTest {
+
+  private static final long INTERVAL = Duration.ofMillis(100).toNanos();
+
+  private final AtomicLong clock = new AtomicLong(42);
+
+  private MerchantRateLimiter limiter(int maxMerchants) {
+    return new MerchantRateLimiter(
+        new RateLimitProperties(true, "Merchant-Id", 10, 5, maxMerchants), clock::get);
+  }
+
+  @Test
+  void whenBurstIsSpentThenNextRequestWaitsOneInterval() {
+    MerchantRateLimiter limiter = limiter(100);
+    for (int i = 0; i < 5; i++) {
+      assertThat(limiter.tryAcquire("acme")).isZero();
+    }
+
+    assertThat(limiter.tryAcquire("acme")).isEqualTo(INTERVAL);
+    assertThat(limiter.limitedCount()).isEqualTo(1);
+
+    clock.addAndGet(INTERVAL);
+    assertThat(limiter.tryAcquire("acme")).isZero();
+    assertThat(limiter.tryAcquire("acme")).isPositive();
+  }
+
+  @Test
+  void whenOneMerchantIsLimitedThenOthersAreNot() {
+    MerchantRateLimiter limiter = limiter(100);
+    for (int i = 0; i < 5; i++) {
+      limiter.tryAcquire("acme");
+    }
+
+    assertThat(limiter.tryAcquire("acme")).isPositive();
+    assertThat(limiter.tryAcquire("globex")).isZero();
+  }
+
+  @Test
+  void whenMerchantMapIsFullThenIdleMerchantsAreDropped() {
+    MerchantRateLimiter limiter = limiter(2);
+    limiter.tryAcquire("acme");
+    limiter.tryAcquire("globex");
+    // both buckets have refilled, so forgetting them changes nothing
+    clock.addAndGet(INTERVAL);
+
+    assertThat(limiter.tryAcquire("initech")).isZero();
+    assertThat(limiter.merchants()).isEqualTo(1);
+  }
+
+  @Test
+  void whenMerchantMapIsFullOfActiveMerchantsThenNewMerchantsShareOneBucket() {
+    MerchantRateLimiter limiter = limiter(2);
+    limiter.tryAcquire("acme");
+    limiter.tryAcquire("globex");
+
+    for (int i = 0; i < 5; i++) {
+      assertThat(limiter.tryAcquire("merchant-" + i)).isZero();
+    }
+
+    assertThat(limiter.tryAcquire("initech")).isPositive();
+    assertThat(limiter.merchants()).isEqualTo(2);
+    assertThat(limiter.tryAcquire("acme")).isZero();
+  }
+
+  @Test
+  void whenIdleMerchantsWereSweptRecentlyThenTheNextSweepWaitsForARefill() {
+    MerchantRateLimiter limiter = limiter(2);
+    limiter.tryAcquire("acme");
+    limiter.tryAcquire("globex");
+    // sweeps nothing, both buckets are still refilling
+    limiter.tryAcquire("initech");
+
+    clock.addAndGet(2 * INTERVAL);
+    limiter.tryAcquire("umbrella");
+    assertThat(limiter.merchants()).isEqualTo(2);
+
+    clock.addAndGet(3 * INTERVAL);
+    limiter.tryAcquire("umbrella");
+    assertThat(limiter.merchants()).isEqualTo(1);
+  }
+}
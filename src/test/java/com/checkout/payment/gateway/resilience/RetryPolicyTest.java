@@ -0,0 +1,156 @@
+package com.checkout.payment.gateway.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.configuration.BankRetryProperties;
+import com.checkout.payment.gateway.configuration.BankRetryProperties.Budget;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class RetryPolicyTest {
+
+  private static final long MILLI = Duration.ofMillis(1).toNanos();
+
+  private final AtomicLong clock = new AtomicLong();
+  private double jitter = 1.0;
+
+  private RetryPolicy policy(int maxAttempts, Budget budget) {
+    return new RetryPolicy(new BankRetryProperties(true, maxAttempts, Duration.ofMillis(10),
+        Duration.ofMillis(50), Duration.ofMillis(200), budget), clock::get, () -> jitter);
+  }
+
+  @Test
+  void whenRetriesRepeatThenBackoffDoublesUpToTheCap() {
+    RetryPolicy policy = policy(10, new Budget(10, 0, 100));
+
+    assertThat(policy.backoff(1, 0)).isEqualTo(10 * MILLI);
+    assertThat(policy.backoff(2, 0)).isEqualTo(20 * MILLI);
+    assertThat(policy.backoff(3, 0)).isEqualTo(40 * MILLI);
+    assertThat(policy.backoff(4, 0)).isEqualTo(50 * MILLI);
+  }
+
+  @Test
+  void whenJitterIsDrawnThenDelayIsThatFractionOfTheCeiling() {
+    RetryPolicy policy = policy(10, new Budget(10, 0, 100));
+
+    jitter = 0.25;
+    assertThat(policy.backoff(3, 0)).isEqualTo(10 * MILLI);
+    jitter = 0.0;
+    assertThat(policy.backoff(3, 0)).isZero();
+  }
+
+  @Test
+  void whenMaxAttemptsAreUsedThenCallIsNotRetried() {
+    RetryPolicy policy = policy(3, new Budget(10, 0, 100));
+
+    assertThat(policy.backoff(2, 0)).isPositive();
+    assertThat(policy.backoff(3, 0)).isEqualTo(-1);
+  }
+
+  @Test
+  void whenRetryWouldStartAfterTheDeadlineThenCallIsNotRetried() {
+    RetryPolicy policy = policy(10, new Budget(10, 0, 100));
+    clock.set(195 * MILLI);
+
+    assertThat(policy.backoff(1, 0)).isEqualTo(-1);
+    assertThat(policy.deadlineExceededCount()).isEqualTo(1);
+    assertThat(policy.retryCount()).isZero();
+  }
+
+  @Test
+  void whenBudgetIsSpentThenOnlyNewCallsEarnMoreRetries() {
+    RetryPolicy policy = policy(3, new Budget(10, 0, 2));
+
+    assertThat(policy.backoff(1, 0)).isPositive();
+    assertThat(policy.backoff(1, 0)).isPositive();
+    assertThat(policy.backoff(1, 0)).isEqualTo(-1);
+    assertThat(policy.budgetExhaustedCount()).isEqualTo(1);
+
+    for (int i = 0; i < 9; i++) {
+      policy.onCall();
+    }
+    assertThat(policy.backoff(1, 0)).isEqualTo(-1);
+    policy.onCall();
+    assertThat(policy.backoff(1, 0)).isPositive();
+    assertThat(policy.retryCount()).isEqualTo(3);
+  }
+
+  @Test
+  void whenTrafficIsLowThenMinimumRateTopsUpTheBudget() {
+    RetryPolicy policy = policy(3, new Budget(10, 5, 1));
+    assertThat(policy.backoff(1, 0)).isPositive();
+    assertThat(policy.backoff(1, 0)).isEqualTo(-1);
+
+    clock.addAndGet(Duration.ofMillis(200).toNanos());
+
+    assertThat(policy.backoff(1, clock.get())).isPositive();
+  }
+
+  @Test
+  void whenBudgetIsIdleThenItFillsNoFurtherThanTheBurst() {
+    RetryPolicy policy = policy(3, new Budget(10, 5, 4));
+
+    for (int i = 0; i < 1_000; i++) {
+      policy.onCall();
+    }
+    clock.addAndGet(Duration.ofMinutes(1).toNanos());
+
+    assertThat(policy.backoff(1, clock.get())).isPositive();
+    assertThat(policy.available()).isEqualTo(3);
+  }
+
+  @Test
+  void whenHedgesAreSentThenTheyArePaidFromTheRetryBudget() {
+    RetryPolicy policy = policy(3, new Budget(10, 0, 2));
+
+    assertThat(policy.tryHedge()).isTrue();
+    assertThat(policy.backoff(1, 0)).isPositive();
+    assertThat(policy.tryHedge()).isFalse();
+    assertThat(policy.backoff(1, 0)).isEqualTo(-1);
+    assertThat(policy.budgetExhaustedCount()).isEqualTo(2);
+  }
+
+  @Test
+  void whenRetriesAreDisabledThenHedgesAreNotLimited() {
+    RetryPolicy policy = new RetryPolicy(new BankRetryProperties(false, 3, Duration.ofMillis(10),
+        Duration.ofMillis(50), Duration.ofMillis(200), new Budget(10, 0, 0)), clock::get,
+        () -> jitter);
+
+    assertThat(policy.tryHedge()).isTrue();
+    assertThat(policy.budgetExhaustedCount()).isZero();
+  }
+
+  @Test
+  void whenCallFailsTransientlyThenItIsRetriedUntilItSucceeds() {
+    jitter = 0.0;
+    RetryPolicy policy = policy(3, new Budget(10, 0, 100));
+    AtomicInteger attempts = new AtomicInteger();
+
+    String result = policy.execute(() -> attempts.incrementAndGet() < 3
+            ? Mono.error(new IllegalStateException("unavailable"))
+            : Mono.just("ok"), IllegalStateException.class::isInstance)
+        .block(Duration.ofSeconds(1));
+
+    assertThat(result).isEqualTo("ok");
+    assertThat(attempts).hasValue(3);
+  }
+
+  @Test
+  void whenFailureIsNotRetryableThenCallFailsAtOnce() {
+    RetryPolicy policy = policy(3, new Budget(10, 0, 100));
+    AtomicInteger attempts = new AtomicInteger();
+
+    Mono<String> call = policy.execute(() -> {
+      attempts.incrementAndGet();
+      return Mono.error(new IllegalArgumentException("rejected"));
+    }, IllegalStateException.class::isInstance);
+
+    assertThat(call.onErrorResume(ex -> Mono.just(ex.getMessage())).block())
+        .isEqualTo("rejected");
+    assertThat(attempts).hasValue(1);
+    assertThat(policy.retryCount()).isZero();
+  }
+}
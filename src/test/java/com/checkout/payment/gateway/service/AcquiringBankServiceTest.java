@@ -0,0 +1,338 @@
+package com.checkout.payment.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.configuration.BankClientConfiguration;
+import com.checkout.payment.gateway.configuration.BankClientProperties;
+import com.checkout.payment.gateway.configuration.BankClientProperties.Pool;
+import com.checkout.payment.gateway.configuration.BankLatencyProperties;
+import com.checkout.payment.gateway.configuration.BankLatencyProperties.Hedging;
+import com.checkout.payment.gateway.configuration.BankLatencyProperties.Timeout;
+import com.checkout.payment.gateway.configuration.BankRetryProperties;
+import com.checkout.payment.gateway.configuration.BankRetryProperties.Budget;
+import com.checkout.payment.gateway.configuration.BulkheadProperties;
+import com.checkout.payment.gateway.configuration.CircuitBreakerProperties;
+import com.checkout.payment.gateway.configuration.ConcurrencyLimitProperties;
+import com.checkout.payment.gateway.exception.ServiceUnavailableException;
+import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentRequest;
+import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentResponse;
+import com.checkout.payment.gateway.resilience.Bulkhead;
+import com.checkout.payment.gateway.resilience.CircuitBreaker;
+import com.checkout.payment.gateway.resilience.ConcurrencyLimiter;
+import com.checkout.payment.gateway.resilience.LatencyPolicy;
+import com.checkout.payment.gateway.resilience.LatencyTracker;
+import com.checkout.payment.gateway.resilience.RetryPolicy;
+import com.checkout.payment.gateway.support.BankStub;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+
+class AcquiringBankServiceTest {
+
+  private static final BankStub BANK = BankStub.start();
+
+  private static final Logger LOG = LoggerFactory.getLogger(AcquiringBankServiceTest.class);
+  private static final BankLatencyProperties FIXED_LATENCY = latency(false, false);
+  private static final int MEASURED_CALLS = 300;
+  private static final int RETRIED_CALLS = 500;
+  private static final int RETRY_BURST = 10;
+
+  private final BankClientConfiguration configuration = new BankClientConfiguration();
+  private final List<ConnectionProvider> connectionProviders = new ArrayList<>();
+
+  @AfterEach
+  void disposePools() {
+    connectionProviders.forEach(ConnectionProvider::dispose);
+  }
+
+  @AfterEach
+  void healBank() {
+    BANK.withFailures(() -> false);
+  }
+
+  @AfterAll
+  static void stopBank() {
+    BANK.close();
+  }
+
+  private AcquiringBankService bankService(int maxConnections, int pendingAcquireMaxCount,
+      Duration pendingAcquireTimeout) {
+    return bankService(maxConnections, pendingAcquireMaxCount, pendingAcquireTimeout, 100,
+        FIXED_LATENCY);
+  }
+
+  private AcquiringBankService bankService(int maxConnections, int pendingAcquireMaxCount,
+      Duration pendingAcquireTimeout, int maxConcurrentCalls, BankLatencyProperties latency) {
+    return bankService(maxConnections, pendingAcquireMaxCount, pendingAcquireTimeout,
+        maxConcurrentCalls, latency, noConcurrencyLimit());
+  }
+
+  private AcquiringBankService bankService(int maxConnections, int pendingAcquireMaxCount,
+      Duration pendingAcquireTimeout, int maxConcurrentCalls, BankLatencyProperties latency,
+      ConcurrencyLimiter concurrencyLimiter) {
+    return bankService(maxConnections, pendingAcquireMaxCount, pendingAcquireTimeout,
+        maxConcurrentCalls, latency, concurrencyLimiter, retryPolicy(false));
+  }
+
+  private AcquiringBankService bankService(int maxConnections, int pendingAcquireMaxCount,
+      Duration pendingAcquireTimeout, int maxConcurrentCalls, BankLatencyProperties latency,
+      ConcurrencyLimiter concurrencyLimiter, RetryPolicy retryPolicy) {
+    BankClientProperties properties = new BankClientProperties(BANK.baseUrl(),
+        Duration.ofSeconds(1), Duration.ofSeconds(5),
+        new Pool(maxConnections, pendingAcquireMaxCount, pendingAcquireTimeout,
+            Duration.ofSeconds(30), Duration.ofMinutes(5), Duration.ofSeconds(30)));
+    ConnectionProvider connectionProvider = configuration.bankConnectionProvider(properties);
+    connectionProviders.add(connectionProvider);
+    return new AcquiringBankService(
+        configuration.acquiringBankWebClient(WebClient.builder(), connectionProvider, properties),
+        new CircuitBreaker(new CircuitBreakerProperties(false, 100, 20, 50, 80,
+            Duration.ofSeconds(2), Duration.ofSeconds(10), 5)),
+        new Bulkhead(new BulkheadProperties(maxConcurrentCalls)),
+        new LatencyPolicy(latency, new LatencyTracker(latency.window(), latency.windowSlices())),
+        concurrencyLimiter, retryPolicy);
+  }
+
+  private static ConcurrencyLimiter noConcurrencyLimit() {
+    return new ConcurrencyLimiter(
+        new ConcurrencyLimitProperties(false, 100, 10, 150, 1.5, 0.2, 600, 0.9));
+  }
+
+  private static RetryPolicy retryPolicy(boolean enabled) {
+    // no time-based top-up, so every retry is paid for by a call or the initial burst
+    return new RetryPolicy(new BankRetryProperties(enabled, 3, Duration.ofMillis(5),
+        Duration.ofMillis(50), Duration.ofSeconds(2), new Budget(10, 0, RETRY_BURST)));
+  }
+
+  private static BankLatencyProperties latency(boolean adaptiveTimeout, boolean hedging) {
+    return new BankLatencyProperties(Duration.ofSeconds(60), 6, 100,
+        new Timeout(adaptiveTimeout, 0.99, 3, Duration.ofMillis(100), Duration.ofSeconds(5)),
+        new Hedging(hedging, 0.95, Duration.ofMillis(5)));
+  }
+
+  private static BankPaymentRequest request() {
+    return new BankPaymentRequest("4532015112830367", "12/2039", "GBP", 1060, "123");
+  }
+
+  private static List<String> authoriseConcurrently(AcquiringBankService service, int calls) {
+    return authoriseConcurrently(service, calls, calls);
+  }
+
+  private static List<String> authoriseConcurrently(AcquiringBankService service, int calls,
+      int concurrency) {
+    return Flux.range(0, calls)
+        .flatMap(i -> service.authorise(request())
+            .map(response -> response.authorized() ? "authorized" : "declined")
+            .onErrorResume(ServiceUnavailableException.class, ex -> Mono.just("rejected")),
+            concurrency)
+        .collectList()
+        .block(Duration.ofSeconds(10));
+  }
+
+  @Test
+  void whenBankRespondsThenAuthorisationIsReturned() {
+    BANK.withDelay(() -> 0);
+
+    assertThat(authoriseConcurrently(bankService(2, 2, Duration.ofSeconds(1)), 1))
+        .containsExactly("authorized");
+  }
+
+  @Test
+  void whenConnectionsAndPendingQueueAreExhaustedThenExtraCallsAreRejected() {
+    BANK.withDelay(() -> 500);
+
+    List<String> outcomes = authoriseConcurrently(bankService(2, 1, Duration.ofSeconds(5)), 4);
+
+    assertThat(outcomes).containsExactlyInAnyOrder("rejected", "authorized", "authorized",
+        "authorized");
+  }
+
+  @Test
+  void whenBulkheadIsFullThenExtraCallsAreRejectedBeforeReachingThePool() {
+    BANK.withDelay(() -> 300);
+    BANK.reset();
+
+    List<String> outcomes = authoriseConcurrently(
+        bankService(10, 10, Duration.ofSeconds(5), 2, FIXED_LATENCY), 5);
+
+    assertThat(outcomes).containsExactlyInAnyOrder("rejected", "rejected", "rejected",
+        "authorized", "authorized");
+    assertThat(BANK.requests()).isEqualTo(2);
+  }
+
+  @Test
+  void whenConcurrencyLimitIsReachedThenExtraCallsAreShedBeforeTheBulkhead() {
+    BANK.withDelay(() -> 300);
+    BANK.reset();
+    ConcurrencyLimiter limiter = new ConcurrencyLimiter(
+        new ConcurrencyLimitProperties(true, 2, 1, 150, 1.5, 0.2, 600, 0.9));
+
+    List<String> outcomes = authoriseConcurrently(
+        bankService(10, 10, Duration.ofSeconds(5), 100, FIXED_LATENCY, limiter), 5);
+
+    assertThat(outcomes).containsExactlyInAnyOrder("rejected", "rejected", "rejected",
+        "authorized", "authorized");
+    assertThat(BANK.requests()).isEqualTo(2);
+    assertThat(limiter.shedCount()).isEqualTo(3);
+    assertThat(limiter.inFlight()).isZero();
+  }
+
+  @Test
+  void whenConnectionIsNotFreedInTimeThenPendingCallIsRejected() {
+    BANK.withDelay(() -> 500);
+
+    List<String> outcomes = authoriseConcurrently(bankService(1, 10, Duration.ofMillis(100)), 2);
+
+    assertThat(outcomes).containsExactly("rejected", "authorized");
+  }
+
+  @Test
+  void whenBankStallsThenAdaptiveTimeoutFailsTheCallWellBeforeTheFixedOne() {
+    AcquiringBankService service = bankService(50, 100, Duration.ofSeconds(5), 100,
+        latency(true, false));
+    BANK.withDelay(() -> 10);
+    authoriseConcurrently(service, 200);
+    BANK.withDelay(() -> 3_000);
+
+    long started = System.nanoTime();
+    List<String> outcomes = authoriseConcurrently(service, 1);
+    long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+    assertThat(outcomes).containsExactly("rejected");
+    assertThat(elapsedMillis).isLessThan(1_000);
+  }
+
+  @Test
+  void whenHedgingIsEnabledThenTailLatencyDropsAndEachCallGetsOneAnswer() {
+    // every 50th bank request is slow: 2% of calls, so p95 is the fast path and p99 the slow one
+    AtomicInteger bankCalls = new AtomicInteger();
+    BANK.withDelay(() -> bankCalls.incrementAndGet() % 50 == 0 ? 300 : 10);
+
+    long unhedgedP99 = p99Millis(bankService(50, 100, Duration.ofSeconds(5), 100,
+        latency(false, false)));
+    long hedgedP99 = p99Millis(bankService(50, 100, Duration.ofSeconds(5), 100,
+        latency(false, true)));
+
+    LOG.info("p99 without hedging {} ms, with hedging {} ms", unhedgedP99, hedgedP99);
+    assertThat(unhedgedP99).isGreaterThanOrEqualTo(300);
+    assertThat(hedgedP99).isLessThan(unhedgedP99 / 2);
+    assertThat(BANK.distinctIdempotencyKeys()).isEqualTo(MEASURED_CALLS);
+    assertThat(BANK.requests()).isGreaterThan(MEASURED_CALLS);
+  }
+
+  @Test
+  void whenPrimaryFailsBeforeTheHedgeDelayThenNoHedgeIsSent() throws InterruptedException {
+    AcquiringBankService service = bankService(50, 100, Duration.ofSeconds(5), 100,
+        latency(false, true));
+    // enough samples at 20 ms for a hedge delay, then let the policy pick it up
+    BANK.withDelay(() -> 20);
+    authoriseConcurrently(service, 200);
+    Thread.sleep(200);
+    BANK.withDelay(() -> 0).withFailures(() -> true);
+    BANK.reset();
+
+    List<String> outcomes = authoriseConcurrently(service, 1);
+    // long enough for a hedge to have gone out
+    Thread.sleep(300);
+
+    assertThat(outcomes).containsExactly("rejected");
+    assertThat(BANK.requests()).isEqualTo(1);
+  }
+
+  @Test
+  void whenBankFailsTransientlyThenRetriesRaiseSuccessRateWithinTheBudget() {
+    // every fifth bank request is answered 503, retries included
+    AtomicInteger bankCalls = new AtomicInteger();
+    BANK.withDelay(() -> 0).withFailures(() -> bankCalls.incrementAndGet() % 5 == 0);
+
+    BANK.reset();
+    List<String> withoutRetries = authoriseConcurrently(
+        bankService(20, 100, Duration.ofSeconds(5), 100, FIXED_LATENCY), RETRIED_CALLS, 16);
+    int requestsWithoutRetries = BANK.requests();
+    BANK.reset();
+    RetryPolicy retryPolicy = retryPolicy(true);
+    List<String> withRetries = authoriseConcurrently(
+        bankService(20, 100, Duration.ofSeconds(5), 100, FIXED_LATENCY,
+            noConcurrencyLimit(), retryPolicy), RETRIED_CALLS, 16);
+
+    LOG.info("authorised without retries {}, with retries {} using {} retries",
+        authorised(withoutRetries), authorised(withRetries), retryPolicy.retryCount());
+    assertThat(requestsWithoutRetries).isEqualTo(RETRIED_CALLS);
+    assertThat(authorised(withRetries)).isGreaterThan(authorised(withoutRetries));
+    assertThat(withRetries).containsOnly("authorized", "rejected");
+    assertThat(BANK.requests()).isEqualTo(RETRIED_CALLS + retryPolicy.retryCount())
+        .isLessThanOrEqualTo(RETRIED_CALLS * 110 / 100 + RETRY_BURST);
+    assertThat(BANK.distinctIdempotencyKeys()).isEqualTo(RETRIED_CALLS);
+  }
+
+  @Test
+  void whenBankIsDownThenRetriesAddNoMoreThanTheBudgetToItsLoad() {
+    BANK.withDelay(() -> 0).withFailures(() -> true);
+    BANK.reset();
+    RetryPolicy retryPolicy = retryPolicy(true);
+
+    List<String> outcomes = authoriseConcurrently(
+        bankService(20, 100, Duration.ofSeconds(5), 100, FIXED_LATENCY,
+            noConcurrencyLimit(), retryPolicy), RETRIED_CALLS, 16);
+
+    // three attempts each would triple the load on a bank that is already failing
+    assertThat(outcomes).hasSize(RETRIED_CALLS).containsOnly("rejected");
+    assertThat(BANK.requests()).isLessThanOrEqualTo(RETRIED_CALLS * 110 / 100 + RETRY_BURST);
+    assertThat(retryPolicy.budgetExhaustedCount()).isPositive();
+  }
+
+  @Test
+  void whenHedgingIsEnabledThenHedgesAndRetriesTogetherStayWithinTheBudget()
+      throws InterruptedException {
+    RetryPolicy retryPolicy = retryPolicy(true);
+    AcquiringBankService service = bankService(50, 100, Duration.ofSeconds(5), 100,
+        latency(false, true), noConcurrencyLimit(), retryPolicy);
+    // enough samples at 10 ms for a hedge delay, then let the policy pick it up
+    BANK.withDelay(() -> 10);
+    authoriseConcurrently(service, 200, 16);
+    Thread.sleep(200);
+    // failures slower than the hedge delay, so every attempt would be hedged before it fails
+    BANK.withDelay(() -> 30).withFailures(() -> true);
+    BANK.reset();
+
+    List<String> outcomes = authoriseConcurrently(service, RETRIED_CALLS, 16);
+
+    assertThat(outcomes).hasSize(RETRIED_CALLS).containsOnly("rejected");
+    assertThat(BANK.requests()).isGreaterThan(RETRIED_CALLS)
+        .isLessThanOrEqualTo(RETRIED_CALLS * 110 / 100 + RETRY_BURST);
+    assertThat(retryPolicy.budgetExhaustedCount()).isPositive();
+  }
+
+  private static long authorised(List<String> outcomes) {
+    return outcomes.stream().filter("authorized"::equals).count();
+  }
+
+  private static long p99Millis(AcquiringBankService service) {
+    authoriseSequentially(service, 200);
+    BANK.reset();
+    long[] latencies = authoriseSequentially(service, MEASURED_CALLS);
+    Arrays.sort(latencies);
+    return latencies[(int) Math.ceil(0.99 * latencies.length) - 1];
+  }
+
+  private static long[] authoriseSequentially(AcquiringBankService service, int calls) {
+    long[] latencies = new long[calls];
+    for (int i = 0; i < calls; i++) {
+      long started = System.nanoTime();
+      BankPaymentResponse response = service.authorise(request()).block(Duration.ofSeconds(5));
+      latencies[i] = (System.nanoTime() - started) / 1_000_000;
+      assertThat(response).isNotNull();
+    }
+    return latencies;
+  }
+}
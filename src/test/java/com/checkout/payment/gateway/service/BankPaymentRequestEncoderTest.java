@@ -0,0 +1,64 @@
+package com.checkout.payment.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentRequest;
+import com.checkout.payment.gateway.support.JacksonMappers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+
+class BankPaymentRequestEncoderTest {
+
+  private final ObjectMapper mapper = JacksonMappers.springBoot();
+  private final BankPaymentRequestEncoder encoder = new BankPaymentRequestEncoder();
+
+  private String encode(BankPaymentRequest request) {
+    DataBuffer buffer = encoder.encodeValue(request, DefaultDataBufferFactory.sharedInstance,
+        ResolvableType.forClass(BankPaymentRequest.class), MediaType.APPLICATION_JSON, Map.of());
+    return buffer.toString(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  void whenRequestIsEncodedThenBytesMatchJackson() throws Exception {
+    BankPaymentRequest request = new BankPaymentRequest("2222405343248877", "04/2039", "GBP",
+        1060, "123");
+
+    assertThat(encode(request)).isEqualTo(mapper.writeValueAsString(request));
+  }
+
+  @Test
+  void whenFieldsAreNullOrExtremeThenBytesMatchJackson() throws Exception {
+    BankPaymentRequest request = new BankPaymentRequest(null, null, null, Integer.MIN_VALUE, null);
+    BankPaymentRequest maximum = new BankPaymentRequest("", "", "", Integer.MAX_VALUE, "");
+
+    assertThat(encode(request)).isEqualTo(mapper.writeValueAsString(request));
+    assertThat(encode(maximum)).isEqualTo(mapper.writeValueAsString(maximum));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"say \"hi\"", "back\\slash", "tab\tnew\nline\u0001", "café €",
+      "💳 card"})
+  void whenStringsNeedEscapingThenBytesMatchJackson(String value) throws Exception {
+    BankPaymentRequest request = new BankPaymentRequest(value, "04/2039", value, 1, value);
+
+    assertThat(encode(request)).isEqualTo(mapper.writeValueAsString(request));
+  }
+
+  @Test
+  void onlyBankPaymentRequestsAreEncoded() {
+    assertThat(encoder.canEncode(ResolvableType.forClass(BankPaymentRequest.class),
+        MediaType.APPLICATION_JSON)).isTrue();
+    assertThat(encoder.canEncode(ResolvableType.forClass(Object.class),
+        MediaType.APPLICATION_JSON)).isFalse();
+    assertThat(encoder.canEncode(ResolvableType.forClass(BankPaymentRequest.class),
+        MediaType.APPLICATION_XML)).isFalse();
+  }
+}
@@ -0,0 +1,63 @@
+package com.checkout.payment.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Flux;
+
+class BankPaymentResponseDecoderTest {
+
+  private final BankPaymentResponseDecoder decoder = new BankPaymentResponseDecoder();
+
+  private static DataBuffer buffer(String json) {
+    return DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private BankPaymentResponse decode(String json) {
+    return decoder.decode(buffer(json), ResolvableType.forClass(BankPaymentResponse.class),
+        MediaType.APPLICATION_JSON, Map.of());
+  }
+
+  @Test
+  void whenResponseIsAuthorisedThenCodeIsRead() {
+    assertThat(decode("{\"authorized\":true,"
+        + "\"authorization_code\":\"6b03b0d9-8053-4da7-87ed-0d27490f23e6\"}"))
+        .isEqualTo(new BankPaymentResponse(true, "6b03b0d9-8053-4da7-87ed-0d27490f23e6"));
+  }
+
+  @Test
+  void whenFieldsAreReorderedSpacedOrUnknownThenResponseIsStillRead() {
+    assertThat(decode("""
+        { "authorization_code" : null,
+          "trace": {"ids": [1, 2]},
+          "authorized" : false }"""))
+        .isEqualTo(new BankPaymentResponse(false, null));
+    assertThat(decode("{}")).isEqualTo(new BankPaymentResponse(false, null));
+  }
+
+  @Test
+  void whenResponseArrivesInSeveralBuffersThenTheyAreJoinedBeforeDecoding() {
+    BankPaymentResponse response = decoder.decodeToMono(
+            Flux.just(buffer("{\"authorized\":tr"), buffer("ue,\"authorization_code\":\"abc\"}")),
+            ResolvableType.forClass(BankPaymentResponse.class), MediaType.APPLICATION_JSON,
+            Map.of())
+        .block();
+
+    assertThat(response).isEqualTo(new BankPaymentResponse(true, "abc"));
+  }
+
+  @Test
+  void whenResponseIsNotAJsonObjectThenDecodingFails() {
+    assertThatThrownBy(() -> decode("[true]")).isInstanceOf(DecodingException.class);
+    assertThatThrownBy(() -> decode("{\"authorized\":tru")).isInstanceOf(DecodingException.class);
+  }
+}
@@ -0,0 +1,159 @@
+package com.checkout.payment.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.checkout.payment.gateway.configuration.IdempotencyProperties;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.ServiceUnavailableException;
+import com.checkout.payment.gateway.exception.ValidationException;
+import com.checkout.payment.gateway.model.PostPaymentResponse;
+import com.checkout.payment.gateway.model.Currency;
+import com.checkout.payment.gateway.model.ValidatedPayment;
+import com.checkout.payment.gateway.utils.AmountUtil;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class IdempotencyServiceTest {
+
+  private final PaymentGatewayService paymentGatewayService = mock(PaymentGatewayService.class);
+  private final AtomicLong clock = new AtomicLong();
+
+  private IdempotencyService service(int maxEntries) {
+    return new IdempotencyService(paymentGatewayService,
+        new IdempotencyProperties(maxEntries, Duration.ofMinutes(10), 1, 64), clock::get);
+  }
+
+  private static ValidatedPayment request(String amount) {
+    return new ValidatedPayment("2222405343248877", 4, 39, Currency.GBP,
+        AmountUtil.toMinorUnits(amount, Currency.GBP), "123");
+  }
+
+  private static PostPaymentResponse payment() {
+    PostPaymentResponse payment = new PostPaymentResponse();
+    payment.setId(UUID.randomUUID());
+    payment.setStatus(PaymentStatus.AUTHORIZED);
+    return payment;
+  }
+
+  @Test
+  void whenKeyIsRepeatedThenStoredResponseIsReturnedWithoutProcessingAgain() {
+    PostPaymentResponse payment = payment();
+    when(paymentGatewayService.processPayment(any(ValidatedPayment.class)))
+        .thenReturn(Mono.just(payment));
+    IdempotencyService service = service(10);
+
+    PostPaymentResponse first = service.processPayment("key-1", request("10.60")).block();
+    PostPaymentResponse second = service.processPayment("key-1", request("10.60")).block();
+
+    assertThat(first).isSameAs(payment);
+    assertThat(second).isSameAs(payment);
+    assertThat(service.missCount()).isEqualTo(1);
+    assertThat(service.hitCount()).isEqualTo(1);
+    verify(paymentGatewayService, times(1)).processPayment(any(ValidatedPayment.class));
+  }
+
+  @Test
+  void whenDuplicateArrivesWhileFirstIsInFlightThenItWaitsForTheSameResult() {
+    Sinks.One<PostPaymentResponse> bank = Sinks.one();
+    when(paymentGatewayService.processPayment(any(ValidatedPayment.class)))
+        .thenReturn(bank.asMono());
+    IdempotencyService service = service(10);
+
+    Mono<PostPaymentResponse> first = service.processPayment("key-1", request("10.60"));
+    Mono<PostPaymentResponse> duplicate = service.processPayment("key-1", request("10.60"));
+    PostPaymentResponse payment = payment();
+    bank.tryEmitValue(payment);
+
+    assertThat(first.block()).isSameAs(payment);
+    assertThat(duplicate.block()).isSameAs(payment);
+    assertThat(service.coalescedCount()).isEqualTo(1);
+    verify(paymentGatewayService, times(1)).processPayment(any(ValidatedPayment.class));
+  }
+
+  @Test
+  void whenProcessingFailsThenErrorIsSharedButNotCached() {
+    when(paymentGatewayService.processPayment(any(ValidatedPayment.class)))
+        .thenReturn(Mono.error(new ServiceUnavailableException("down")))
+        .thenReturn(Mono.just(payment()));
+    IdempotencyService service = service(10);
+
+    assertThatThrownBy(() -> service.processPayment("key-1", request("10.60")).block())
+        .isInstanceOf(ServiceUnavailableException.class);
+    assertThat(service.processPayment("key-1", request("10.60")).block()).isNotNull();
+
+    verify(paymentGatewayService, times(2)).processPayment(any(ValidatedPayment.class));
+  }
+
+  @Test
+  void whenKeyIsReusedForADifferentPaymentThenItIsRejected() {
+    when(paymentGatewayService.processPayment(any(ValidatedPayment.class)))
+        .thenReturn(Mono.just(payment()));
+    IdempotencyService service = service(10);
+    service.processPayment("key-1", request("10.60")).block();
+
+    assertThatThrownBy(() -> service.processPayment("key-1", request("99.99")))
+        .isInstanceOf(ValidationException.class)
+        .hasMessage("Idempotency-Key was already used for a different payment");
+  }
+
+  @Test
+  void whenTtlPassesThenKeyIsProcessedAgain() {
+    when(paymentGatewayService.processPayment(any(ValidatedPayment.class)))
+        .thenReturn(Mono.just(payment()));
+    IdempotencyService service = service(10);
+    service.processPayment("key-1", request("10.60")).block();
+
+    clock.addAndGet(Duration.ofMinutes(10).toNanos());
+    service.processPayment("key-1", request("10.60")).block();
+
+    assertThat(service.expirationCount()).isEqualTo(1);
+    verify(paymentGatewayService, times(2)).processPayment(any(ValidatedPayment.class));
+  }
+
+  @Test
+  void whenCapacityIsExceededThenOldestKeyIsEvicted() {
+    when(paymentGatewayService.processPayment(any(ValidatedPayment.class)))
+        .thenReturn(Mono.just(payment()));
+    IdempotencyService service = service(2);
+
+    service.processPayment("key-1", request("10.60")).block();
+    service.processPayment("key-2", request("10.60")).block();
+    service.processPayment("key-3", request("10.60")).block();
+    service.processPayment("key-2", request("10.60")).block();
+
+    assertThat(service.size()).isEqualTo(2);
+    assertThat(service.evictionCount()).isEqualTo(1);
+    assertThat(service.hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void whenCapacityIsExceededThenKeysStillInFlightAreNotEvicted() {
+    Sinks.One<PostPaymentResponse> bank = Sinks.one();
+    when(paymentGatewayService.processPayment(any(ValidatedPayment.class)))
+        .thenReturn(bank.asMono())
+        .thenReturn(Mono.just(payment()));
+    IdempotencyService service = service(1);
+
+    Mono<PostPaymentResponse> first = service.processPayment("key-1", request("10.60"));
+    service.processPayment("key-2", request("10.60")).block();
+    Mono<PostPaymentResponse> retry = service.processPayment("key-1", request("10.60"));
+    PostPaymentResponse payment = payment();
+    bank.tryEmitValue(payment);
+
+    assertThat(first.block()).isSameAs(payment);
+    assertThat(retry.block()).isSameAs(payment);
+    assertThat(service.evictionCount()).isZero();
+    assertThat(service.coalescedCount()).isEqualTo(1);
+    verify(paymentGatewayService, times(2)).processPayment(any(ValidatedPayment.class));
+  }
+}
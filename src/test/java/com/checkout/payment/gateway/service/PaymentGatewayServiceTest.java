@@ -0,0 +1,113 @@
+package com.checkout.payment.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.checkout.payment.gateway.configuration.PaymentSearchProperties;
+import com.checkout.payment.gateway.configuration.ValidationProperties;
+import com.checkout.payment.gateway.enums.PaymentStage;
+import com.checkout.payment.gateway.enums.PaymentStatus;
+import com.checkout.payment.gateway.exception.ServiceUnavailableException;
+import com.checkout.payment.gateway.exception.ValidationException;
+import com.checkout.payment.gateway.model.AcquiringBank.BankPaymentResponse;
+import com.checkout.payment.gateway.model.ProcessPaymentRequest;
+import com.checkout.payment.gateway.repository.PaymentSearchIndex;
+import com.checkout.payment.gateway.repository.PaymentsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class PaymentGatewayServiceTest {
+
+  private final AcquiringBankService bank = mock(AcquiringBankService.class);
+  private final PaymentsRepository repository = mock(PaymentsRepository.class);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final PaymentMetrics metrics = new PaymentMetrics(registry);
+  private final PaymentGatewayService service = new PaymentGatewayService(repository, bank,
+      new PaymentRequestValidatorService(new ValidationProperties(false)), metrics,
+      new TimeOrderedPaymentIdGenerator(), new PaymentSearchIndex(new PaymentSearchProperties(
+          Duration.ofMinutes(1), Duration.ofHours(24), 100, 1000, 1_000_000)));
+
+  private static ProcessPaymentRequest request() {
+    ProcessPaymentRequest request = new ProcessPaymentRequest();
+    request.setCardNumber("2222405343248877");
+    request.setExpiryMonth(4);
+    request.setExpiryYear(39);
+    request.setCurrency("GBP");
+    request.setAmount("10.60");
+    request.setCvv("123");
+    return request;
+  }
+
+  @Test
+  void whenPaymentIsAuthorisedThenEveryStageIsTimedOnce() {
+    when(bank.authorise(any())).thenReturn(
+        Mono.just(new BankPaymentResponse(true, UUID.randomUUID().toString())));
+
+    service.processPayment(request()).block();
+    service.processPaymentBlocking(request());
+
+    for (PaymentStage stage : PaymentStage.values()) {
+      assertThat(metrics.stageTimer(stage).count()).as(stage.getName()).isEqualTo(2);
+    }
+    assertThat(metrics.outcomeCount(PaymentStatus.AUTHORIZED)).isEqualTo(2);
+    assertThat(registry.get("payments.stage").tag("stage", "authorise").timer().count())
+        .isEqualTo(2);
+  }
+
+  @Test
+  void whenPaymentIsDeclinedThenDeclinedOutcomeIsCounted() {
+    when(bank.authorise(any())).thenReturn(Mono.just(new BankPaymentResponse(false, null)));
+
+    service.processPayment(request()).block();
+
+    assertThat(metrics.outcomeCount(PaymentStatus.DECLINED)).isEqualTo(1);
+    assertThat(metrics.outcomeCount(PaymentStatus.AUTHORIZED)).isZero();
+  }
+
+  @Test
+  void whenPaymentIsDeclinedThenItGetsATimeOrderedId() {
+    when(bank.authorise(any())).thenReturn(Mono.just(new BankPaymentResponse(false, null)));
+
+    long before = System.currentTimeMillis();
+    UUID id = service.processPayment(request()).block().getId();
+
+    assertThat(id.version()).isEqualTo(7);
+    assertThat(TimeOrderedPaymentIdGenerator.epochMillis(id))
+        .isBetween(before - 1_000, System.currentTimeMillis() + 1_000);
+  }
+
+  @Test
+  void whenFieldsAreInvalidThenEachFieldIsCountedAndBankIsNotTimed() {
+    ProcessPaymentRequest request = request();
+    request.setCvv("12");
+    request.setCurrency("ZAR");
+
+    assertThatThrownBy(() -> service.processPayment(request))
+        .isInstanceOf(ValidationException.class);
+
+    assertThat(metrics.validationErrorCount("cvv")).isEqualTo(1);
+    assertThat(metrics.validationErrorCount("currency")).isEqualTo(1);
+    assertThat(metrics.validationErrorCount("cardNumber")).isZero();
+    assertThat(metrics.stageTimer(PaymentStage.AUTHORISE).count()).isZero();
+  }
+
+  @Test
+  void whenBankIsUnavailableThenRejectionIsCounted() {
+    when(bank.authorise(any())).thenReturn(
+        Mono.error(new ServiceUnavailableException("Acquiring bank circuit breaker is open")));
+
+    assertThatThrownBy(() -> service.processPayment(request()).block())
+        .isInstanceOf(ServiceUnavailableException.class);
+    assertThatThrownBy(() -> service.processPaymentBlocking(request()))
+        .isInstanceOf(ServiceUnavailableException.class);
+
+    assertThat(metrics.outcomeCount(PaymentStatus.REJECTED)).isEqualTo(2);
+    assertThat(metrics.stageTimer(PaymentStage.PERSIST).count()).isZero();
+  }
+}
@@ -0,0 +1,144 @@
+package com.checkout.payment.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.checkout.payment.gateway.configuration.ValidationProperties;
+import com.checkout.payment.gateway.exception.ServiceUnavailableException;
+import com.checkout.payment.gateway.exception.ValidationException;
+import com.checkout.payment.gateway.model.ProcessPaymentRequest;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class PaymentRequestValidatorServiceTest {
+
+  private final MutableClock clock = new MutableClock(Instant.parse("2030-03-31T23:59:59Z"));
+
+  private PaymentRequestValidatorService validator(boolean luhnCheck) {
+    return new PaymentRequestValidatorService(new ValidationProperties(luhnCheck), clock);
+  }
+
+  private static ProcessPaymentRequest request() {
+    ProcessPaymentRequest request = new ProcessPaymentRequest();
+    request.setCardNumber("2222405343248877");
+    request.setExpiryMonth(4);
+    request.setExpiryYear(30);
+    request.setCurrency("GBP");
+    request.setAmount("10.60");
+    request.setCvv("123");
+    return request;
+  }
+
+  @Test
+  void whenRequestIsValidThenNothingIsThrown() {
+    assertThatCode(() -> validator(true).validate(request())).doesNotThrowAnyException();
+  }
+
+  @Test
+  void whenOneFieldIsInvalidThenSingleFieldErrorIsThrown() {
+    ProcessPaymentRequest request = request();
+    request.setCvv("12a");
+
+    assertThatThrownBy(() -> validator(false).validate(request))
+        .isInstanceOfSatisfying(ValidationException.class, ex -> {
+          assertThat(ex.getField()).isEqualTo("cvv");
+          assertThat(ex.getErrors()).hasSize(1);
+        })
+        .hasMessage("CVV must be between 3 and 4 digit");
+  }
+
+  @Test
+  void whenSeveralFieldsAreInvalidThenAllAreReported() {
+    ProcessPaymentRequest request = request();
+    request.setCardNumber("2222A");
+    request.setExpiryMonth(13);
+    request.setCurrency("gbp");
+    request.setCvv("12345");
+
+    assertThatThrownBy(() -> validator(false).validate(request))
+        .isInstanceOfSatisfying(ValidationException.class, ex ->
+            assertThat(ex.getErrors()).containsExactly(
+                Map.entry("cardNumber", "Card Number must be must be digits value"),
+                Map.entry("expiryMonth", "Expiry month must be between 1 and 12"),
+                Map.entry("currency", "currency is not valid"),
+                Map.entry("cvv", "CVV must be between 3 and 4 digit")))
+        .hasMessage("Payment request has 4 invalid fields");
+  }
+
+  @Test
+  void whenLuhnCheckIsEnabledThenBadCheckDigitIsRejected() {
+    ProcessPaymentRequest request = request();
+    request.setCardNumber("2222405343248112");
+
+    assertThatCode(() -> validator(false).validate(request)).doesNotThrowAnyException();
+    assertThatThrownBy(() -> validator(true).validate(request))
+        .isInstanceOf(ValidationException.class)
+        .hasMessage("Card Number is not valid");
+  }
+
+  @Test
+  void whenMonthEndsThenCardExpiringInThatMonthIsRejected() {
+    PaymentRequestValidatorService validator = validator(false);
+    ProcessPaymentRequest request = request();
+    request.setExpiryMonth(4);
+
+    assertThatCode(() -> validator.validate(request)).doesNotThrowAnyException();
+
+    clock.instant = Instant.parse("2030-04-01T00:00:00Z");
+    assertThatThrownBy(() -> validator.validate(request))
+        .isInstanceOf(ValidationException.class)
+        .hasMessage("MM/YY must be in future");
+  }
+
+  @Test
+  void whenOneFieldIsInvalidThenSharedStacklessExceptionIsThrown() {
+    ProcessPaymentRequest request = request();
+    request.setCvv("12");
+    PaymentRequestValidatorService validator = validator(false);
+
+    Throwable first = catchThrowable(() -> validator.validate(request));
+    Throwable second = catchThrowable(() -> validator.validate(request));
+
+    assertThat(first).isInstanceOf(ValidationException.class).isSameAs(second);
+    assertThat(first.getStackTrace()).isEmpty();
+  }
+
+  @Test
+  void whenRequestIsValidButCardEndsInZeroThenBankIsUnavailable() {
+    ProcessPaymentRequest request = request();
+    request.setCardNumber("2222405343248870");
+
+    assertThatThrownBy(() -> validator(false).validate(request))
+        .isInstanceOf(ServiceUnavailableException.class);
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private volatile Instant instant;
+
+    private MutableClock(Instant instant) {
+      this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Instant instant() {
+      return instant;
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.checkout.payment.gateway.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedPaymentIdGeneratorTest {
+
+  private static final long START_MILLIS = 1_767_225_600_000L;
+
+  private final AtomicLong nanos = new AtomicLong(42);
+
+  private TimeOrderedPaymentIdGenerator generator() {
+    return new TimeOrderedPaymentIdGenerator(START_MILLIS, nanos::get);
+  }
+
+  @Test
+  void whenIdIsGeneratedThenItIsVersion7WithTheCreationTime() {
+    TimeOrderedPaymentIdGenerator generator = generator();
+    nanos.addAndGet(1_500_000);
+
+    UUID id = generator.nextId();
+
+    assertThat(id.version()).isEqualTo(7);
+    assertThat(id.variant()).isEqualTo(2);
+    assertThat(TimeOrderedPaymentIdGenerator.epochMillis(id)).isEqualTo(START_MILLIS + 1);
+  }
+
+  @Test
+  void whenClockAdvancesThenIdsSortInCreationOrder() {
+    TimeOrderedPaymentIdGenerator generator = generator();
+    List<UUID> ids = new ArrayList<>();
+    for (int i = 0; i < 1_000; i++) {
+      ids.add(generator.nextId());
+      nanos.addAndGet(1_000_000);
+    }
+
+    assertThat(ids).isSorted();
+  }
+
+  @Test
+  void whenIdsShareAMillisecondThenEveryRandomBitVaries() {
+    TimeOrderedPaymentIdGenerator generator = generator();
+    long randAOr = 0;
+    long randAAnd = -1;
+    long randBOr = 0;
+    long randBAnd = -1;
+    for (int i = 0; i < 1_000; i++) {
+      UUID id = generator.nextId();
+      randAOr |= id.getMostSignificantBits() & 0xFFF;
+      randAAnd &= id.getMostSignificantBits() & 0xFFF;
+      randBOr |= id.getLeastSignificantBits() & 0x3FFF_FFFF_FFFF_FFFFL;
+      randBAnd &= id.getLeastSignificantBits() & 0x3FFF_FFFF_FFFF_FFFFL;
+    }
+
+    // 74 bits, none fixed by the time or by each other
+    assertThat(randAOr).isEqualTo(0xFFF);
+    assertThat(randAAnd).isZero();
+    assertThat(randBOr).isEqualTo(0x3FFF_FFFF_FFFF_FFFFL);
+    assertThat(randBAnd).isZero();
+  }
+
+  @Test
+  void whenRangeStartsAtAMillisecondThenItsFirstIdIsTheLowerBound() {
+    TimeOrderedPaymentIdGenerator generator = generator();
+    nanos.addAndGet(5_000_000);
+    UUID id = generator.nextId();
+
+    assertThat(TimeOrderedPaymentIdGenerator.firstIdAt(START_MILLIS + 5)).isLessThanOrEqualTo(id);
+    assertThat(TimeOrderedPaymentIdGenerator.firstIdAt(START_MILLIS + 6)).isGreaterThan(id);
+  }
+
+  @Test
+  void whenManyThreadsGenerateInTheSameInstantThenIdsAreStillUnique() {
+    TimeOrderedPaymentIdGenerator generator = generator();
+    Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+    IntStream.range(0, 200_000).parallel().forEach(i -> ids.add(generator.nextId()));
+
+    assertThat(ids).hasSize(200_000);
+  }
+}
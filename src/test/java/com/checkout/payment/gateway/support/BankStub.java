@@ -0,0 +1,148 @@
+package com.checkout.payment.gateway.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process stand-in for the bank simulator: odd card numbers are authorised, even ones declined.
+ * Responses are sent from a scheduler after the configured delay, so slow responses do not hold a
+ * stub thread and the number of requests in flight is limited only by the caller. Requests for
+ * which the failure rule holds are answered 503 instead, after the same delay.
+ */
+public final class BankStub implements AutoCloseable {
+
+  private static final Pattern CARD_NUMBER = Pattern.compile("\"card_number\"\\s*:\\s*\"(\\d+)\"");
+
+  private final HttpServer server;
+  private final ScheduledExecutorService scheduler =
+      Executors.newScheduledThreadPool(4, BankStub::daemon);
+  private final AtomicInteger requests = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger maxInFlight = new AtomicInteger();
+  private final Set<String> idempotencyKeys = ConcurrentHashMap.newKeySet();
+  private volatile LongSupplier delayMillis = () -> 0;
+  private volatile BooleanSupplier failure = () -> false;
+
+  private BankStub() {
+    try {
+      server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    server.setExecutor(Executors.newFixedThreadPool(4, BankStub::daemon));
+    server.createContext("/payments", this::handle);
+    server.start();
+  }
+
+  public static BankStub start() {
+    return new BankStub();
+  }
+
+  public BankStub withDelay(LongSupplier delayMillis) {
+    this.delayMillis = delayMillis;
+    return this;
+  }
+
+  public BankStub withFailures(BooleanSupplier failure) {
+    this.failure = failure;
+    return this;
+  }
+
+  public String baseUrl() {
+    return "http://localhost:" + server.getAddress().getPort();
+  }
+
+  public int requests() {
+    return requests.get();
+  }
+
+  public int maxInFlight() {
+    return maxInFlight.get();
+  }
+
+  public int distinctIdempotencyKeys() {
+    return idempotencyKeys.size();
+  }
+
+  public void reset() {
+    requests.set(0);
+    idempotencyKeys.clear();
+    maxInFlight.set(inFlight.get());
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    scheduler.shutdownNow();
+  }
+
+  private static Thread daemon(Runnable task) {
+    Thread thread = new Thread(task, "bank-stub");
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    requests.incrementAndGet();
+    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+    if (idempotencyKey != null) {
+      idempotencyKeys.add(idempotencyKey);
+    }
+    String body;
+    try (InputStream in = exchange.getRequestBody()) {
+      body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    boolean failed = failure.getAsBoolean();
+    scheduler.schedule(() -> respond(exchange, body, failed), delayMillis.getAsLong(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  private void respond(HttpExchange exchange, String body, boolean failed) {
+    if (failed) {
+      try {
+        exchange.sendResponseHeaders(503, -1);
+      } catch (IOException e) {
+        // client gave up on the request
+      } finally {
+        inFlight.decrementAndGet();
+        exchange.close();
+      }
+      return;
+    }
+    Matcher cardNumber = CARD_NUMBER.matcher(body);
+    boolean authorized = cardNumber.find()
+        && (cardNumber.group(1).charAt(cardNumber.group(1).length() - 1) - '0') % 2 == 1;
+    String response = authorized
+        ? "{\"authorized\":true,\"authorization_code\":\"" + UUID.randomUUID() + "\"}"
+        : "{\"authorized\":false,\"authorization_code\":\"\"}";
+    byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+    try (OutputStream out = exchange.getResponseBody()) {
+      exchange.getResponseHeaders().add("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, bytes.length);
+      out.write(bytes);
+    } catch (IOException e) {
+      // client gave up on the request, e.g. a timed out or hedged call
+    } finally {
+      inFlight.decrementAndGet();
+      exchange.close();
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.checkout.payment.gateway.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Mappers for tests that compare hand-written JSON with Jackson's.
+ */
+public final class JacksonMappers {
+
+  private JacksonMappers() {
+  }
+
+  /**
+   * Built the way Spring Boot builds the mapper behind MVC responses and the WebClient codecs.
+   */
+  public static ObjectMapper springBoot() {
+    return Jackson2ObjectMapperBuilder.json().build();
+  }
+}
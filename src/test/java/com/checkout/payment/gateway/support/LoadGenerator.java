@@ -0,0 +1,70 @@
+package com.checkout.payment.gateway.support;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop HTTP load: keeps {@code concurrency} requests outstanding until {@code total} have
+ * completed and reports throughput and latency percentiles.
+ */
+public final class LoadGenerator {
+
+  private final HttpClient client = HttpClient.newBuilder()
+      .connectTimeout(Duration.ofSeconds(5))
+      .build();
+
+  public Result run(HttpRequest request, int total, int concurrency) {
+    long[] latencies = new long[total];
+    AtomicInteger errors = new AtomicInteger();
+    Semaphore permits = new Semaphore(concurrency);
+    CompletableFuture<?>[] calls = new CompletableFuture<?>[total];
+    long started = System.nanoTime();
+    for (int i = 0; i < total; i++) {
+      permits.acquireUninterruptibly();
+      int slot = i;
+      long sent = System.nanoTime();
+      calls[i] = client.sendAsync(request, BodyHandlers.discarding())
+          .whenComplete((response, failure) -> {
+            latencies[slot] = System.nanoTime() - sent;
+            if (failure != null || response.statusCode() != 200) {
+              errors.incrementAndGet();
+            }
+            permits.release();
+          });
+    }
+    CompletableFuture.allOf(calls).exceptionally(failure -> null).join();
+    long elapsed = System.nanoTime() - started;
+    Arrays.sort(latencies);
+    return new Result(total, errors.get(), total * 1e9 / elapsed,
+        percentileMillis(latencies, 0.50), percentileMillis(latencies, 0.99));
+  }
+
+  public static HttpRequest postPayment(URI gateway, String body) {
+    return HttpRequest.newBuilder(gateway.resolve("/payment"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  private static double percentileMillis(long[] sortedNanos, double percentile) {
+    int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+    return sortedNanos[Math.max(0, index)] / 1e6;
+  }
+
+  public record Result(int requests, int errors, double throughputPerSecond, double p50Millis,
+                       double p99Millis) {
+
+    @Override
+    public String toString() {
+      return String.format("%d requests, %d errors, %.0f req/s, p50 %.1f ms, p99 %.1f ms",
+          requests, errors, throughputPerSecond, p50Millis, p99Millis);
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package com.checkout.payment.gateway.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.checkout.payment.gateway.enums.AmountError;
+import java.math.BigDecimal;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class AmountParserTest {
+
+  private static final String ALPHABET = "0123456789.+- 000999";
+
+  private static String parse(String amount, int exponent) {
+    long result = AmountParser.parse(amount, exponent);
+    return AmountParser.isError(result) ? AmountParser.error(result).name() : Long.toString(result);
+  }
+
+  // what AmountUtil used to compute with BigDecimal, extended to any exponent and to long
+  private static String reference(String amount, int exponent) {
+    if (amount == null || amount.trim().isEmpty()) {
+      return AmountError.EMPTY.name();
+    }
+    BigDecimal value;
+    try {
+      value = new BigDecimal(amount.trim());
+    } catch (NumberFormatException ex) {
+      return AmountError.INVALID_FORMAT.name();
+    }
+    if (value.signum() <= 0) {
+      return AmountError.NOT_POSITIVE.name();
+    }
+    if (value.scale() > exponent) {
+      return AmountError.TOO_MANY_DECIMALS.name();
+    }
+    try {
+      return Long.toString(value.movePointRight(exponent).longValueExact());
+    } catch (ArithmeticException ex) {
+      return AmountError.OVERFLOW.name();
+    }
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "10, 2, 1000",
+      "10.60, 2, 1060",
+      "0.01, 2, 1",
+      "' 7.5 ', 2, 750",
+      "+.5, 2, 50",
+      "5., 2, 500",
+      "1500, 0, 1500",
+      "1.234, 3, 1234",
+      "0.1, 3, 100",
+      "92233720368547758.07, 2, 9223372036854775807",
+  })
+  void whenAmountIsValidThenMinorUnitsAreReturned(String amount, int exponent, long expected) {
+    assertThat(AmountParser.parse(amount, exponent)).isEqualTo(expected);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "'', 2, EMPTY",
+      "'  ', 2, EMPTY",
+      "$10.78, 2, INVALID_FORMAT",
+      "1e3, 2, INVALID_FORMAT",
+      "1.2.3, 2, INVALID_FORMAT",
+      "., 2, INVALID_FORMAT",
+      "0.00, 2, NOT_POSITIVE",
+      "-5, 2, NOT_POSITIVE",
+      "10.780, 2, TOO_MANY_DECIMALS",
+      "1.5, 0, TOO_MANY_DECIMALS",
+      "92233720368547758.08, 2, OVERFLOW",
+      "99999999999999999999, 0, OVERFLOW",
+  })
+  void whenAmountIsInvalidThenTypedErrorIsReturned(String amount, int exponent,
+      AmountError expected) {
+    long result = AmountParser.parse(amount, exponent);
+
+    assertThat(AmountParser.isError(result)).isTrue();
+    assertThat(AmountParser.error(result)).isEqualTo(expected);
+  }
+
+  @Test
+  void whenAmountIsNullThenEmptyIsReturned() {
+    assertThat(AmountParser.error(AmountParser.parse(null, 2))).isEqualTo(AmountError.EMPTY);
+  }
+
+  @Test
+  void forAnyStringOfSignsDigitsAndPointsResultMatchesBigDecimal() {
+    Random random = new Random(20240501L);
+    for (int i = 0; i < 500_000; i++) {
+      int length = random.nextInt(i % 3 == 0 ? 25 : 10);
+      StringBuilder amount = new StringBuilder(length);
+      for (int j = 0; j < length; j++) {
+        amount.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+      }
+      int exponent = random.nextInt(4);
+
+      assertThat(parse(amount.toString(), exponent))
+          .as("'%s' with exponent %d", amount, exponent)
+          .isEqualTo(reference(amount.toString(), exponent));
+    }
+  }
+
+  @Test
+  void forAnyWellFormedDecimalResultMatchesBigDecimal() {
+    Random random = new Random(7L);
+    for (int i = 0; i < 200_000; i++) {
+      String amount = randomDigits(random, 1 + random.nextInt(20)) + "."
+          + randomDigits(random, random.nextInt(5));
+      int exponent = random.nextInt(4);
+
+      assertThat(parse(amount, exponent))
+          .as("'%s' with exponent %d", amount, exponent)
+          .isEqualTo(reference(amount, exponent));
+    }
+  }
+
+  private static String randomDigits(Random random, int count) {
+    StringBuilder digits = new StringBuilder(count);
+    for (int i = 0; i < count; i++) {
+      digits.append((char) ('0' + random.nextInt(10)));
+    }
+    return digits.toString();
+  }
+}
@@ -0,0 +1,94 @@
+package com.checkout.payment.gateway.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class BoundedStripedMapTest {
+
+  private final AtomicLong clock = new AtomicLong();
+  private final Set<String> pinned = new HashSet<>();
+
+  private BoundedStripedMap<String, String> map(int maxEntries, Duration ttl) {
+    return new BoundedStripedMap<>(maxEntries, 1, false, ttl, value -> !pinned.contains(value),
+        clock::get);
+  }
+
+  @Test
+  void whenCapacityIsExceededThenOldestEvictableEntryGoes() {
+    BoundedStripedMap<String, String> map = map(2, null);
+    pinned.add("a");
+
+    map.put("a", "a");
+    map.put("b", "b");
+    map.put("c", "c");
+
+    assertThat(map.get("a")).isEqualTo("a");
+    assertThat(map.get("b")).isNull();
+    assertThat(map.get("c")).isEqualTo("c");
+    assertThat(map.evictionCount()).isEqualTo(1);
+  }
+
+  @Test
+  void whenOnlyPinnedEntriesAreLeftThenStripeGrowsPastCapacity() {
+    BoundedStripedMap<String, String> map = map(1, null);
+    pinned.add("a");
+    pinned.add("b");
+
+    map.put("a", "a");
+    map.put("b", "b");
+
+    assertThat(map.size()).isEqualTo(2);
+    assertThat(map.evictionCount()).isZero();
+  }
+
+  @Test
+  void whenTtlPassesThenOnlyEvictableEntriesExpire() {
+    BoundedStripedMap<String, String> map = map(10, Duration.ofMinutes(1));
+    pinned.add("a");
+    map.put("a", "a");
+    map.put("b", "b");
+
+    clock.addAndGet(Duration.ofMinutes(1).toNanos());
+
+    assertThat(map.putIfAbsent("b", "b2")).isNull();
+    assertThat(map.get("a")).isEqualTo("a");
+    assertThat(map.get("b")).isEqualTo("b2");
+    assertThat(map.expirationCount()).isEqualTo(1);
+  }
+
+  @Test
+  void whenValueWasReplacedThenRemovingTheOldOneKeepsTheNew() {
+    BoundedStripedMap<String, String> map = map(10, null);
+    map.put("a", "first");
+    map.put("a", "second");
+
+    assertThat(map.remove("a", "first")).isFalse();
+    assertThat(map.putIfAbsent("a", "third")).isEqualTo("second");
+    assertThat(map.remove("a", "second")).isTrue();
+    assertThat(map.get("a")).isNull();
+  }
+
+  @Test
+  void whenEntriesAreReplacedEvictedRemovedOrExpiredThenSizeFollows() {
+    BoundedStripedMap<String, String> map = map(2, Duration.ofMinutes(1));
+    map.put("a", "first");
+    map.put("a", "second");
+    assertThat(map.size()).isEqualTo(1);
+
+    map.put("b", "b");
+    map.put("c", "c");
+    assertThat(map.size()).isEqualTo(2);
+    assertThat(map.remove("c", "c")).isTrue();
+    assertThat(map.size()).isEqualTo(1);
+
+    clock.addAndGet(Duration.ofMinutes(1).toNanos());
+
+    assertThat(map.get("b")).isNull();
+    assertThat(map.size()).isZero();
+  }
+}
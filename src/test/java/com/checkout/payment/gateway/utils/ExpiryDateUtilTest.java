@@ -0,0 +1,23 @@
+package com.checkout.payment.gateway.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class ExpiryDateUtilTest {
+
+  @Test
+  void whenExpiryIsLookedUpThenItMatchesTheFormattedString() {
+    for (int year = -5; year <= 150; year++) {
+      for (int month = 1; month <= 12; month++) {
+        assertThat(ExpiryDateUtil.format(month, year))
+            .isEqualTo(String.format("%02d/%d", month, 2000 + year));
+      }
+    }
+  }
+
+  @Test
+  void whenSameExpiryIsLookedUpTwiceThenTheStringIsShared() {
+    assertThat(ExpiryDateUtil.format(4, 39)).isSameAs(ExpiryDateUtil.format(4, 39));
+  }
+}